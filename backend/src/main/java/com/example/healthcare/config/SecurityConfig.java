@@ -2,6 +2,7 @@ package com.example.healthcare.config;
 
 import com.example.healthcare.security.JwtAuthenticationFilter;
 import com.example.healthcare.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -66,8 +67,13 @@ public class SecurityConfig {
 
                 // 4) URL rules
                 .authorizeHttpRequests(auth -> auth
+                                // Completion/timeout dispatches of async responses (push stream, export) and error
+                                // dispatches: the request was authorized on its REQUEST dispatch, and the JWT filter
+                                // does not run again to restore the authentication
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                                 .requestMatchers("/api/auth/**").permitAll()
                                 .requestMatchers("/api/messages/**").authenticated()
+                                .requestMatchers("/api/stream", "/api/stream/ticket").authenticated()
                                 .requestMatchers("/api/ai/**").authenticated()
                                 .requestMatchers("/error").permitAll()
                                 .requestMatchers("/api/users/**").authenticated()
@@ -5,11 +5,24 @@ import com.example.healthcare.dto.Profiles.ProfileMapper;
 import com.example.healthcare.entity.*;
 import com.example.healthcare.security.SecurityUtils;
 import com.example.healthcare.dto.Appointments.AppointmentDto;
+import com.example.healthcare.dto.Appointments.AppointmentExportFormat;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
+import com.example.healthcare.dto.Appointments.BookingLockStatsDto;
+import com.example.healthcare.dto.Notification.FanOutRequest;
+import com.example.healthcare.dto.Notification.FanOutStatusDto;
+import com.example.healthcare.entity.enums.UserRole;
 import com.example.healthcare.service.AdminService;
 import com.example.healthcare.service.AuditLogService;
+import com.example.healthcare.service.BookingCoordinator;
+import com.example.healthcare.service.NotificationFanOutService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +34,8 @@ public class AdminController {
     private final AdminService adminService;
     private final AuditLogService auditLogService;
     private final SecurityUtils securityUtils;
+    private final BookingCoordinator bookingCoordinator;
+    private final NotificationFanOutService notificationFanOutService;
 
     // ✅ View Admin Profile
     @GetMapping("/profile")
@@ -90,6 +105,41 @@ public class AdminController {
         return adminService.getAllAppointments(admin);
     }
 
+    // ✅ Export all Appointments as NDJSON or CSV, streamed from a database cursor
+    @GetMapping("/export-appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        Admin admin = securityUtils.getAuthenticatedAdmin();
+        AppointmentExportFormat exportFormat = AppointmentExportFormat.from(format);
+        StreamingResponseBody body = out -> adminService.exportAppointments(admin, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // ✅ Booking lock contention per stripe
+    @GetMapping("/booking-locks/stats")
+    public List<BookingLockStatsDto> viewBookingLockStats() {
+        securityUtils.getAuthenticatedAdmin();
+        return bookingCoordinator.getStats();
+    }
+
+    // ✅ Notify every active user with a role; runs in the background, poll the returned job for progress
+    @PostMapping("/notifications/fan-out")
+    public FanOutStatusDto notifyRole(@RequestParam UserRole role, @RequestBody @Validated FanOutRequest request) {
+        Admin admin = securityUtils.getAuthenticatedAdmin();
+        return notificationFanOutService.notifyRole(admin.getId(), role, request);
+    }
+
+    // ✅ Progress of a notification fan-out
+    @GetMapping("/notifications/fan-out/{jobId}")
+    public FanOutStatusDto viewFanOutStatus(@PathVariable String jobId) {
+        securityUtils.getAuthenticatedAdmin();
+        return notificationFanOutService.getStatus(jobId);
+    }
+
     // ✅ Reactivate a Doctor
     @PutMapping("/reactivate-doctor/{doctorId}")
     public ResponseEntity<String> reactivateDoctor(@PathVariable Long doctorId) {
@@ -98,10 +148,10 @@ public class AdminController {
         return ResponseEntity.ok("Doctor reactivated successfully.");
     }
 
-    // ✅ Get Audit Logs (Admin only)
+    // ✅ Search Audit Logs (Admin only), filtered and keyset-paged, see AuditLogQuery
     @GetMapping("/logs")
-    public ResponseEntity<List<AuditLog>> getAuditLogs() {
+    public ResponseEntity<List<AuditLogDto>> getAuditLogs(@ModelAttribute AuditLogQuery query) {
         Admin admin = securityUtils.getAuthenticatedAdmin();
-        return ResponseEntity.ok(adminService.getAuditLogs(admin));
+        return ResponseEntity.ok(adminService.getAuditLogs(admin, query));
     }
 }
@@ -6,6 +6,7 @@ import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.UserRole;
 import com.example.healthcare.exception.UserNotFoundException;
 import com.example.healthcare.service.AuthService;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -40,6 +41,17 @@ public class AuthController
         return ResponseEntity.ok(response);
     }
 
+    // Logout (revokes this token)
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@RequestHeader("Authorization") String authHeader) {
+        try {
+            authService.logout(authHeader);
+            return ResponseEntity.ok("Logged out.");
+        } catch (JwtException e) {
+            return ResponseEntity.status(401).body("Invalid token");
+        }
+    }
+
     // ✅ Forgot Password (Send reset link)
     @PostMapping("/forgot-password")
     public ResponseEntity<String> forgotPassword(@RequestParam String email) {
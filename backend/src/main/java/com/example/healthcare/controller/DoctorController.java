@@ -1,21 +1,26 @@
 package com.example.healthcare.controller;
 
 import com.example.healthcare.dto.Appointments.AppointmentDto;
+import com.example.healthcare.dto.Notification.FanOutRequest;
+import com.example.healthcare.dto.Notification.FanOutStatusDto;
 import com.example.healthcare.dto.Profiles.DoctorProfileDto;
 import com.example.healthcare.dto.Profiles.ProfileMapper;
-import com.example.healthcare.entity.Appointment;
 import com.example.healthcare.entity.Doctor;
 import com.example.healthcare.entity.Prescription;
+import com.example.healthcare.exception.UnauthorizedAccessException;
 import com.example.healthcare.security.SecurityUtils;
 import com.example.healthcare.service.AppointmentService;
 import com.example.healthcare.service.DoctorService;
+import com.example.healthcare.service.NotificationFanOutService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import com.example.healthcare.dto.Profiles.PatientProfileDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/doctor")
@@ -25,6 +30,7 @@ public class DoctorController {
     private final DoctorService doctorService;
     private final AppointmentService appointmentService;
     private final SecurityUtils securityUtils;
+    private final NotificationFanOutService notificationFanOutService;
 
     // ✅ View Doctor Profile
     @GetMapping("/profile")
@@ -51,56 +57,62 @@ public class DoctorController {
 
     // ✅ View Assigned Appointments (Upcoming)
     @GetMapping("/appointments/upcoming")
-    public List<AppointmentDto> getUpcomingAppointments(@RequestParam(value = "limit", required = false) Integer limit) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        List<AppointmentDto> all = appointmentService.getUpcomingAppointmentsDto(doctor.getId(), true);
-        if (limit != null && limit > 0) {
-            return all.stream().limit(limit).collect(Collectors.toList());
-        }
-        return all;
+    public List<AppointmentDto> getUpcomingAppointments(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "afterTime", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterTime,
+            @RequestParam(value = "afterId", required = false) Long afterId) {
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return appointmentService.getUpcomingAppointmentsDto(doctorId, true,
+                afterTime, afterId, limit != null ? limit : 0);
     }
 
-    // ✅ View Past Appointments
+    // ✅ View Past Appointments (newest first, keyset-paged on appointmentTime/id)
     @GetMapping("/appointments/history")
-    public List<Appointment> getPastAppointments() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return appointmentService.getPastAppointments(doctor);
+    public List<AppointmentDto> getPastAppointments(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "beforeTime", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(value = "beforeId", required = false) Long beforeId) {
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return appointmentService.getPastAppointmentsDto(doctorId, true,
+                null, beforeTime, beforeId, limit != null ? limit : 0);
     }
 
     // ✅ Mark Appointment as Completed
     @PutMapping("/appointments/{appointmentId}/mark-complete")
     public String markAppointmentComplete(@PathVariable Long appointmentId) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        appointmentService.markAppointmentComplete(doctor.getId(), appointmentId);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        appointmentService.markAppointmentComplete(doctorId, appointmentId);
         return "Appointment marked as completed.";
     }
 
     // ✅ View Messages with Patients
     @GetMapping("/messages")
     public List<?> getMessages() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorService.getMessages(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorService.getMessages(doctorId);
     }
 
     // ✅ Send Message to a Patient
     @PostMapping("/send-message")
     public String sendMessage(@RequestParam Long patientId,
                               @RequestBody String message) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        doctorService.sendMessage(doctor.getId(), patientId, message);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        doctorService.sendMessage(doctorId, patientId, message);
         return "Message sent successfully.";
     }
 
     // ✅ View Prescriptions Issued
     @GetMapping("/prescriptions")
     public List<Prescription >getPrescriptions() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorService.getPrescriptions(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorService.getPrescriptions(doctorId);
     }
     @GetMapping("/prescriptions/pending")
     public List<Prescription> getPendingRefillRequests() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorService.getPendingRefillRequests(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorService.getPendingRefillRequests(doctorId);
     }
 
     // ✅ Issue a New Prescription
@@ -114,38 +126,55 @@ public class DoctorController {
 
     @DeleteMapping("/appointments/{id}/cancel")
     public ResponseEntity<Void> cancelAppointment(@PathVariable Long id) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        appointmentService.cancelAppointment(doctor.getId(), id);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        appointmentService.cancelAppointment(doctorId, id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/appointments/cancelled")
     public List<AppointmentDto> getCancelledAppointments() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return appointmentService.getCancelledAppointmentsForDoctor(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return appointmentService.getCancelledAppointmentsForDoctor(doctorId);
     }
 
     @GetMapping("/prescriptions/pending/count")
     public long countPendingPrescriptions() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorService.countPendingRefillRequests(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorService.countPendingRefillRequests(doctorId);
     }
 
     @GetMapping("/messages/unread/count")
     public long countUnreadMessages() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorService.countUnreadMessages(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorService.countUnreadMessages(doctorId);
     }
 
     @GetMapping("/patients")
     public List<PatientProfileDto> listPatients() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorService.getPatientsForDoctor(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorService.getPatientsForDoctor(doctorId);
     }
     @GetMapping("/patients/{patientId}")
     public PatientProfileDto getPatient(@PathVariable Long patientId) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorService.getPatientProfile(doctor.getId(), patientId);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorService.getPatientProfile(doctorId, patientId);
+    }
+
+    // Notify all of the doctor's patients; runs in the background, poll the returned job for progress
+    @PostMapping("/patients/notify")
+    public FanOutStatusDto notifyPatients(@RequestBody @Validated FanOutRequest request) {
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return notificationFanOutService.notifyPatientsOfDoctor(doctorId, request);
+    }
+
+    @GetMapping("/patients/notify/{jobId}")
+    public FanOutStatusDto getNotifyStatus(@PathVariable String jobId) {
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        FanOutStatusDto status = notificationFanOutService.getStatus(jobId);
+        if (!doctorId.equals(status.getRequestedBy())) {
+            throw new UnauthorizedAccessException("Not your notification job.");
+        }
+        return status;
     }
 
 
@@ -1,7 +1,6 @@
 package com.example.healthcare.controller;
 
 import com.example.healthcare.dto.DoctorSchedule.*;
-import com.example.healthcare.entity.Doctor;
 import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringSchedule;
 import com.example.healthcare.entity.DoctorSchedule.DoctorOneTimeSlot;
 import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringBreak;
@@ -29,8 +28,8 @@ public class DoctorScheduleController {
     // Get full schedule for calendar rendering (all recurring, one-time, breaks, plus appointments if needed)
     @GetMapping("/full")
     public DoctorFullScheduleDto getFullSchedule() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.getFullSchedule(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.getFullSchedule(doctorId);
     }
 
     // Get schedule for a given date range (e.g., for week/month view)
@@ -39,22 +38,22 @@ public class DoctorScheduleController {
             @RequestParam("start") LocalDate start,
             @RequestParam("end") LocalDate end
     ) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.getScheduleForRange(doctor.getId(), start, end);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.getScheduleForRange(doctorId, start, end);
     }
 
     // ========= RECURRING SCHEDULE CRUD =========
 
     @PostMapping("/recurring")
     public DoctorRecurringSchedule addRecurringSlot(@RequestBody RecurringSlotDto dto) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.addRecurringSlot(doctor.getId(), dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.addRecurringSlot(doctorId, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
     }
 
     @PutMapping("/recurring/{id}")
     public DoctorRecurringSchedule updateRecurringSlot(@PathVariable Long id, @RequestBody RecurringSlotDto dto) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.updateRecurringSlot(doctor.getId(), id, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.updateRecurringSlot(doctorId, id, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
     }
 
     @DeleteMapping("/recurring/{id}")
@@ -66,14 +65,14 @@ public class DoctorScheduleController {
 
     @PostMapping("/onetime")
     public DoctorOneTimeSlot addOneTimeSlot(@RequestBody OneTimeSlotDto dto) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.addOneTimeSlot(doctor.getId(), dto.getDate(), dto.getStartTime(), dto.getEndTime(), dto.isAvailable());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.addOneTimeSlot(doctorId, dto.getDate(), dto.getStartTime(), dto.getEndTime(), dto.isAvailable());
     }
 
     @PutMapping("/onetime/{id}")
     public DoctorOneTimeSlot updateOneTimeSlot(@PathVariable Long id, @RequestBody OneTimeSlotDto dto) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.updateOneTimeSlot(doctor.getId(), id, dto.getDate(), dto.getStartTime(), dto.getEndTime(), dto.isAvailable());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.updateOneTimeSlot(doctorId, id, dto.getDate(), dto.getStartTime(), dto.getEndTime(), dto.isAvailable());
     }
 
     @DeleteMapping("/onetime/{id}")
@@ -85,14 +84,14 @@ public class DoctorScheduleController {
 
     @PostMapping("/break")
     public DoctorRecurringBreak addRecurringBreak(@RequestBody RecurringBreakDto dto) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.addRecurringBreak(doctor.getId(), dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.addRecurringBreak(doctorId, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
     }
 
     @PutMapping("/break/{id}")
     public DoctorRecurringBreak updateRecurringBreak(@PathVariable Long id, @RequestBody RecurringBreakDto dto) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.updateRecurringBreak(doctor.getId(), id, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.updateRecurringBreak(doctorId, id, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
     }
 
     @DeleteMapping("/break/{id}")
@@ -105,15 +104,15 @@ public class DoctorScheduleController {
     // Replace the whole week with new recurring slots
     @PutMapping("/replace-week")
     public void replaceWeek(@RequestBody List<RecurringSlotDto> weekSchedule) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        doctorScheduleService.replaceWeek(doctor.getId(), weekSchedule);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        doctorScheduleService.replaceWeek(doctorId, weekSchedule);
     }
 
     // Import a schedule template (e.g., for copying previous weeks or holidays)
     @PostMapping("/import-template")
     public void importTemplate(@RequestBody DoctorFullScheduleDto template) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        doctorScheduleService.importTemplate(doctor.getId(), template);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        doctorScheduleService.importTemplate(doctorId, template);
     }
 
     // ========= AVAILABILITY/CONFLICT CHECK (Nice to have) =========
@@ -127,11 +126,11 @@ public class DoctorScheduleController {
             @RequestParam(value = "excludeId", required = false) Long excludeId,
             @RequestParam(value = "type", required = false) String type // "SLOT" or "BREAK"
     ) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
         // Use the day of week from the date
         DayOfWeek dayOfWeek = date.getDayOfWeek();
         return doctorScheduleService.isAvailable(
-                doctor.getId(),
+                doctorId,
                 dayOfWeek,
                 start,
                 end,
@@ -146,15 +145,15 @@ public class DoctorScheduleController {
     // Doctor submits a removal request for a slot
     @PostMapping("/removal-request")
     public SlotRemovalRequestDto createSlotRemovalRequest(@RequestBody SlotRemovalRequestCreateDto dto) {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.createSlotRemovalRequest(doctor.getId(), dto);
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.createSlotRemovalRequest(doctorId, dto);
     }
 
 
     // (Optional) Doctor fetches their own requests
     @GetMapping("/removal-requests")
     public List<SlotRemovalRequestDto> getMyRemovalRequests() {
-        Doctor doctor = securityUtils.getAuthenticatedDoctor();
-        return doctorScheduleService.getRemovalRequestsForDoctor(doctor.getId());
+        Long doctorId = securityUtils.getAuthenticatedDoctorId();
+        return doctorScheduleService.getRemovalRequestsForDoctor(doctorId);
     }
 }
@@ -1,7 +1,6 @@
 package com.example.healthcare.controller;
 
 import com.example.healthcare.entity.Document;
-import com.example.healthcare.entity.Patient;
 import com.example.healthcare.security.SecurityUtils;
 import com.example.healthcare.service.DocumentService;
 import com.example.healthcare.storage.StorageService;
@@ -27,21 +26,21 @@ public class DocumentController {
 
     @PostMapping("/upload")
     public Document upload(@RequestParam("file") MultipartFile file) throws Exception {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        return documentService.saveDocument(patient.getId(), file);
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        return documentService.saveDocument(patientId, file);
     }
 
     @GetMapping("/mine")
     public List<Document> myDocuments() {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        return documentService.getDocumentsForPatient(patient.getId());
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        return documentService.getDocumentsForPatient(patientId);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Resource> download(@PathVariable Long id) throws Exception {
         Document doc = documentService.getDocument(id);
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        if (!doc.getPatient().getId().equals(patient.getId())) {
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        if (!doc.getPatient().getId().equals(patientId)) {
             throw new UnauthorizedAccessException("Access denied");
         }
         Resource resource = storageService.loadAsResource(doc.getStorageKey());
@@ -53,8 +52,8 @@ public class DocumentController {
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
         Document doc = documentService.getDocument(id);
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        if (!doc.getPatient().getId().equals(patient.getId())) {
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        if (!doc.getPatient().getId().equals(patientId)) {
             throw new UnauthorizedAccessException("Access denied");
         }
         documentService.deleteDocument(id);
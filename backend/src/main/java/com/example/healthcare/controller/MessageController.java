@@ -69,10 +69,20 @@ public class MessageController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * GET /api/messages/with/{userId}?limit={n}&beforeId={id}&afterId={id}
+     * One page of the conversation, oldest first (default 50, at most 200): the latest messages,
+     * or those before/after the given message id for scrolling back or catching up.
+     */
     @GetMapping("/with/{userId}")
-    public List<MessageDto> getMessagesWithUser(@PathVariable Long userId) {
+    public List<MessageDto> getMessagesWithUser(
+            @PathVariable Long userId,
+            @RequestParam(value = "limit",    required = false) Integer limit,
+            @RequestParam(value = "beforeId", required = false) Long    beforeId,
+            @RequestParam(value = "afterId",  required = false) Long    afterId
+    ) {
         Long me = securityUtils.getAuthenticatedUserId();
-        return messageService.getMessagesWithUser(me, userId);
+        return messageService.getMessagesWithUser(me, userId, beforeId, afterId, limit != null ? limit : 0);
     }
 
     @PutMapping("/with/{userId}/read")
@@ -1,6 +1,6 @@
 package com.example.healthcare.controller;
 
-import com.example.healthcare.entity.Notification;
+import com.example.healthcare.dto.Notification.NotificationDto;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.service.NotificationService;
 import com.example.healthcare.service.UserService;
@@ -19,24 +19,35 @@ public class NotificationController {
     private final UserService userService;
 
     /**
-     * Endpoint to retrieve all notifications for a given user.
+     * Endpoint to retrieve a page of notifications for a given user, newest first.
+     * Pass the last id of a page as {@code beforeId} for the next one.
      * In a real app, the user should be obtained from the security context.
      */
     @GetMapping
-    public ResponseEntity<List<Notification>> getNotifications(@RequestParam Long userId) {
-        User user = userService.getUser(userId);
-        List<Notification> notifications = notificationService.getNotificationsForUser(user);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationDto>> getNotifications(
+            @RequestParam Long userId,
+            @RequestParam(value = "beforeId", required = false) Long beforeId,
+            @RequestParam(value = "limit",    required = false) Integer limit) {
+        return ResponseEntity.ok(notificationService.getNotificationsPage(userId, false, beforeId, limit != null ? limit : 0));
     }
 
     /**
-     * Endpoint to retrieve unread notifications for a given user.
+     * Endpoint to retrieve a page of unread notifications for a given user.
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications(@RequestParam Long userId) {
-        User user = userService.getUser(userId);
-        List<Notification> notifications = notificationService.getUnreadNotificationsForUser(user);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationDto>> getUnreadNotifications(
+            @RequestParam Long userId,
+            @RequestParam(value = "beforeId", required = false) Long beforeId,
+            @RequestParam(value = "limit",    required = false) Integer limit) {
+        return ResponseEntity.ok(notificationService.getNotificationsPage(userId, true, beforeId, limit != null ? limit : 0));
+    }
+
+    /**
+     * Number of unread notifications for a given user, for badges.
+     */
+    @GetMapping("/unread/count")
+    public ResponseEntity<Long> countUnreadNotifications(@RequestParam Long userId) {
+        return ResponseEntity.ok(notificationService.countUnread(userId));
     }
 
     /**
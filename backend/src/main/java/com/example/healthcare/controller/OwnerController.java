@@ -1,9 +1,10 @@
 package com.example.healthcare.controller;
 
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
 import com.example.healthcare.dto.Profiles.OwnerProfileDto;
 import com.example.healthcare.dto.Profiles.ProfileMapper;
 import com.example.healthcare.entity.Admin;
-import com.example.healthcare.entity.AuditLog;
 import com.example.healthcare.entity.Owner;
 import com.example.healthcare.security.SecurityUtils;
 import com.example.healthcare.service.AuditLogService;
@@ -92,10 +93,10 @@ public class OwnerController {
         return ResponseEntity.ok("Doctor reactivated successfully.");
     }
 
-    // ✅ Get Audit Logs
+    // ✅ Search Audit Logs, filtered and keyset-paged, see AuditLogQuery
     @GetMapping("/logs")
-    public ResponseEntity<List<AuditLog>> getAuditLogs() {
+    public ResponseEntity<List<AuditLogDto>> getAuditLogs(@ModelAttribute AuditLogQuery query) {
         Owner owner = securityUtils.getAuthenticatedOwner();
-        return ResponseEntity.ok(ownerService.getAuditLogs(owner));
+        return ResponseEntity.ok(ownerService.getAuditLogs(owner, query));
     }
 }
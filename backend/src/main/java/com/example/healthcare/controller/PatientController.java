@@ -1,6 +1,8 @@
 package com.example.healthcare.controller;
 
 import com.example.healthcare.dto.Appointments.AppointmentDto;
+import com.example.healthcare.dto.Appointments.RecurringAppointmentRequest;
+import com.example.healthcare.dto.DoctorSchedule.DoctorAvailableSlotsDto;
 import com.example.healthcare.dto.Profiles.ChangePasswordRequest;
 import com.example.healthcare.dto.Profiles.DoctorProfileDto;
 import com.example.healthcare.dto.Profiles.PatientProfileDto;
@@ -8,6 +10,7 @@ import com.example.healthcare.dto.Profiles.ProfileMapper;
 import com.example.healthcare.entity.Patient;
 import com.example.healthcare.security.SecurityUtils;
 import com.example.healthcare.service.AppointmentService;
+import com.example.healthcare.service.BookingCoordinator;
 import com.example.healthcare.service.DoctorService;
 import com.example.healthcare.service.PatientService;
 import com.example.healthcare.service.DoctorScheduleService;
@@ -15,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -23,6 +27,9 @@ import java.util.stream.Collectors;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 
 @RestController
 @RequestMapping("/patient")
@@ -34,6 +41,7 @@ public class PatientController {
     private final SecurityUtils securityUtils;
     private final DoctorService doctorService;
     private final DoctorScheduleService doctorScheduleService;
+    private final BookingCoordinator bookingCoordinator;
 
     /**
      * GET /patient/profile
@@ -51,8 +59,8 @@ public class PatientController {
      */
     @PutMapping("/profile")
     public String updatePatientProfile(@RequestBody Patient updated) {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        patientService.updatePatient(patient.getId(), updated);
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        patientService.updatePatient(patientId, updated);
         return "Patient profile updated successfully.";
     }
 
@@ -62,8 +70,8 @@ public class PatientController {
      */
     @DeleteMapping("/delete-account")
     public String deletePatientAccount() {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        patientService.softDeletePatient(patient.getId());
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        patientService.softDeletePatient(patientId);
         return "Patient account deleted successfully.";
     }
 
@@ -73,9 +81,9 @@ public class PatientController {
      */
     @PostMapping("/profile/change-password")
     public ResponseEntity<String> changePassword(@RequestBody ChangePasswordRequest req) {
-        Patient patient = securityUtils.getAuthenticatedPatient();
+        Long patientId = securityUtils.getAuthenticatedPatientId();
         patientService.changePassword(
-                patient.getId(),
+                patientId,
                 req.getOldPassword(),
                 req.getNewPassword()
         );
@@ -94,11 +102,23 @@ public class PatientController {
             @RequestParam Long doctorId,
             @RequestParam LocalDateTime appointmentTime
     ) {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        appointmentService.bookAppointment(patient.getId(), doctorId, appointmentTime);
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        bookingCoordinator.bookAppointment(patientId, doctorId, appointmentTime);
         return "Appointment booked successfully.";
     }
 
+    /**
+     * POST /patient/appointments/book-series
+     * Books a weekly (or every n weeks) series of appointments with one doctor, all or nothing.
+     *
+     * @return the booked appointment times
+     */
+    @PostMapping("/appointments/book-series")
+    public List<LocalDateTime> bookAppointmentSeries(@RequestBody @Validated RecurringAppointmentRequest request) {
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        return bookingCoordinator.bookRecurringAppointments(patientId, request);
+    }
+
     /**
      * DELETE /patient/appointments/cancel
      * Cancels an existing appointment.
@@ -108,8 +128,8 @@ public class PatientController {
 
     @DeleteMapping("/appointments/cancel")
     public ResponseEntity<Void> cancelAppointment(@RequestParam Long appointmentId) {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        appointmentService.cancelAppointment(patient.getId(), appointmentId);
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        appointmentService.cancelAppointment(patientId, appointmentId);
         // Return 204 No Content so the UI knows it succeeded without payload
         return ResponseEntity.noContent().build();
     }
@@ -121,8 +141,8 @@ public class PatientController {
      */
     @GetMapping("/prescriptions")
     public List<?> getPatientPrescriptions() {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        return patientService.getPrescriptions(patient.getId());
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        return patientService.getPrescriptions(patientId);
     }
 
     /**
@@ -133,8 +153,8 @@ public class PatientController {
      */
     @PostMapping("/prescriptions/request-refill")
     public String requestPrescriptionRefill(@RequestParam Long prescriptionId) {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        patientService.requestRefill(patient.getId(), prescriptionId);
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        patientService.requestRefill(patientId, prescriptionId);
         return "Prescription refill request submitted.";
     }
 
@@ -144,8 +164,8 @@ public class PatientController {
      */
     @GetMapping("/messages")
     public List<?> getPatientMessages() {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        return patientService.getMessages(patient.getId());
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        return patientService.getMessages(patientId);
     }
 
     /**
@@ -160,69 +180,71 @@ public class PatientController {
             @RequestParam Long doctorId,
             @RequestBody String message
     ) {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        patientService.sendMessage(patient.getId(), doctorId, message);
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        patientService.sendMessage(patientId, doctorId, message);
         return "Message sent successfully.";
     }
 
     /**
-     * GET /patient/appointments/upcoming?limit={n}
-     * Returns upcoming appointments, optionally limited to the first n.
+     * GET /patient/appointments/upcoming?limit={n}&afterTime={ISO_DATE_TIME}&afterId={id}
+     * Returns one page of upcoming appointments, soonest first (default 50, at most 200).
+     * For the next page pass the appointmentTime and id of the last entry as afterTime/afterId.
      */
     @GetMapping("/appointments/upcoming")
     public List<AppointmentDto> getUpcomingAppointments(
             @RequestParam(value = "limit",     required = false) Integer limit,
-            @RequestParam(value = "patientId", required = false) Long    patientId
+            @RequestParam(value = "patientId", required = false) Long    patientId,
+            @RequestParam(value = "afterTime", required = false) String  afterTime,
+            @RequestParam(value = "afterId",   required = false) Long    afterId
     ) {
-        // 1) Figure out which patient to load: if an ADMIN passed-in a patientId, use it;
-        //    otherwise (or for PATIENTs) fall back to the JWT‐derived patient.
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-
-        Long id = (patientId != null && isAdmin)
-                ? patientId
-                : securityUtils.getAuthenticatedPatient().getId();
-
-        // 2) Fetch the appointments for that ID, exactly as before
-        List<AppointmentDto> all = appointmentService
-                .getUpcomingAppointmentsDto(id, false);
-
-        if (limit != null && limit > 0) {
-            return all.stream().limit(limit).collect(Collectors.toList());
-        }
-        return all;
+        return appointmentService.getUpcomingAppointmentsDto(resolvePatientId(patientId), false,
+                parseDateTime(afterTime), afterId, limit != null ? limit : 0);
     }
 
     /**
-     * GET /patient/appointments/history?since={ISO_DATE_TIME}
-     * Returns past appointments, optionally filtering from a given timestamp.
+     * GET /patient/appointments/history?since={ISO_DATE_TIME}&limit={n}&beforeTime={ISO_DATE_TIME}&beforeId={id}
+     * Returns one page of past appointments, newest first, optionally only those after a given timestamp.
+     * For the next page pass the appointmentTime and id of the last entry as beforeTime/beforeId.
      */
     @GetMapping("/appointments/history")
     public List<AppointmentDto> getPastAppointments(
-            @RequestParam(value = "since",     required = false) String since,
-            @RequestParam(value = "patientId", required = false) Long   patientId
+            @RequestParam(value = "since",      required = false) String since,
+            @RequestParam(value = "patientId",  required = false) Long   patientId,
+            @RequestParam(value = "limit",      required = false) Integer limit,
+            @RequestParam(value = "beforeTime", required = false) String beforeTime,
+            @RequestParam(value = "beforeId",   required = false) Long   beforeId
     ) {
-        // Same ID‐selection logic
+        return appointmentService.getPastAppointmentsDto(resolvePatientId(patientId), false,
+                parseDateTime(since), parseDateTime(beforeTime), beforeId, limit != null ? limit : 0);
+    }
+
+    // If an ADMIN passed-in a patientId, use it; otherwise (or for PATIENTs) fall back to the JWT‐derived patient.
+    private Long resolvePatientId(Long patientId) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
-        Long id = (patientId != null && isAdmin)
+        return (patientId != null && isAdmin)
                 ? patientId
-                : securityUtils.getAuthenticatedPatient().getId();
-
-        // Existing history fetch
-        List<AppointmentDto> all = appointmentService
-                .getPastAppointmentsDto(id, false);
+                : securityUtils.getAuthenticatedPatientId();
+    }
 
-        if (since != null) {
-            LocalDateTime cutoff = LocalDateTime.parse(since);
-            return all.stream()
-                    .filter(a -> a.getAppointmentTime().isAfter(cutoff))
-                    .collect(Collectors.toList());
+    // Accepts local ISO date-times as well as the UTC/offset form produced by JS Date.toISOString().
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(value)
+                        .atZoneSameInstant(ZoneId.systemDefault())
+                        .toLocalDateTime();
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid date-time: " + value);
+            }
         }
-        return all;
     }
 
     /**
@@ -231,8 +253,8 @@ public class PatientController {
      */
     @GetMapping("/prescriptions/pending/count")
     public long countPendingRefills() {
-        Patient patient = securityUtils.getAuthenticatedPatient();
-        return patientService.countPendingRefills(patient.getId());
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        return patientService.countPendingRefills(patientId);
     }
 
     /**
@@ -248,8 +270,8 @@ public class PatientController {
 
     @GetMapping("/appointments/cancelled")
     public List<AppointmentDto> getCancelledAppointments() {
-        Patient p = securityUtils.getAuthenticatedPatient();
-        return appointmentService.getCancelledAppointmentsDto(p.getId());
+        Long patientId = securityUtils.getAuthenticatedPatientId();
+        return appointmentService.getCancelledAppointmentsDto(patientId);
     }
 
     @GetMapping("/doctors/{doctorId}/available-slots")
@@ -262,4 +284,20 @@ public class PatientController {
         return doctorScheduleService.getAvailableSlots(doctorId, date, duration);
     }
 
+    /**
+     * GET /patient/available-slots?from=...&to=...&doctorIds=1,2 (or &specialty=...)
+     * Open slots for several doctors across a date range in a single call.
+     */
+    @GetMapping("/available-slots")
+    public List<DoctorAvailableSlotsDto> searchAvailableSlots(
+            @RequestParam("from") LocalDate from,
+            @RequestParam("to") LocalDate to,
+            @RequestParam(value = "doctorIds", required = false) List<Long> doctorIds,
+            @RequestParam(value = "specialty", required = false) String specialty,
+            @RequestParam(value = "length", required = false, defaultValue = "30") long minutes
+    ) {
+        Duration duration = Duration.ofMinutes(minutes);
+        return doctorScheduleService.searchAvailableSlots(doctorIds, specialty, from, to, duration);
+    }
+
 }
@@ -0,0 +1,40 @@
+package com.example.healthcare.controller;
+
+import com.example.healthcare.security.SecurityUtils;
+import com.example.healthcare.security.StreamTicketStore;
+import com.example.healthcare.service.PushService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class PushController {
+
+    private final PushService pushService;
+    private final SecurityUtils securityUtils;
+    private final StreamTicketStore streamTickets;
+
+    /**
+     * A single-use ticket for opening the event stream, valid for a few seconds.
+     */
+    @PostMapping("/api/stream/ticket")
+    public Map<String, Object> ticket() {
+        return Map.of("ticket", streamTickets.issue(securityUtils.getPrincipal()),
+                "expiresInMs", streamTickets.getTtlMs());
+    }
+
+    /**
+     * Event stream of the ticket's user: new messages, read receipts and notification badge changes.
+     * EventSource cannot send headers, so it authenticates with {@code ?ticket=} from {@link #ticket()}.
+     */
+    @GetMapping(value = "/api/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return pushService.subscribe(securityUtils.getAuthenticatedUserId());
+    }
+}
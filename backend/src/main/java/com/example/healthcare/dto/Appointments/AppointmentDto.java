@@ -1,5 +1,6 @@
 package com.example.healthcare.dto.Appointments;
 
+import com.example.healthcare.entity.enums.AppointmentStatus;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,4 +24,15 @@ public class AppointmentDto {
     private String location;              // e.g. “Room 101” or URL
     private String notes;                 // reason for visit
     private String doctorContact;         // e.g. email or phone
+
+    /**
+     * Used by the JPQL constructor projections in {@code AppointmentRepository}.
+     */
+    public AppointmentDto(Long id, String doctorName, String specialty, String patientName,
+                          LocalDateTime appointmentTime, AppointmentStatus status,
+                          LocalDateTime createdAt, LocalDateTime updatedAt, String cancelledByName,
+                          String location, String notes, String doctorContact) {
+        this(id, doctorName, specialty, patientName, appointmentTime, status != null ? status.name() : null,
+                createdAt, updatedAt, cancelledByName, location, notes, doctorContact);
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.healthcare.dto.Appointments;
+
+/**
+ * Output formats of the streaming admin appointment export.
+ */
+public enum AppointmentExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    AppointmentExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static AppointmentExportFormat from(String value) {
+        for (AppointmentExportFormat f : values()) {
+            if (f.extension.equalsIgnoreCase(value)) {
+                return f;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.healthcare.dto.Appointments;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Counters of one booking lock stripe since startup.
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingLockStatsDto {
+    private int stripe;
+    private long acquisitions;
+    private long contended;        // acquisitions that had to wait for another booking
+    private long timeouts;         // gave up waiting, request rejected with 503
+    private double avgWaitMillis;  // over all acquisitions, uncontended ones count as zero
+    private double maxWaitMillis;
+    private int queueLength;       // bookings waiting right now (estimate)
+}
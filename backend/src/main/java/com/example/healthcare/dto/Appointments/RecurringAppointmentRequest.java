@@ -0,0 +1,56 @@
+package com.example.healthcare.dto.Appointments;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a request to book a series of appointments with the same doctor,
+ * e.g. weekly physiotherapy visits.
+ */
+@Getter
+@Setter
+@ToString
+public class RecurringAppointmentRequest {
+
+    /**
+     * The ID of the doctor for all appointments of the series.
+     */
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    /**
+     * The date and time of the first appointment.
+     */
+    @NotNull(message = "First appointment time is required")
+    private LocalDateTime firstAppointmentTime;
+
+    /**
+     * Number of appointments in the series, including the first one.
+     */
+    @Min(value = 1, message = "At least one appointment is required")
+    @Max(value = 26, message = "A series can have at most 26 appointments")
+    private int occurrences;
+
+    /**
+     * Weeks between two consecutive appointments.
+     */
+    @Min(value = 1, message = "Interval must be at least one week")
+    @Max(value = 4, message = "Interval can be at most four weeks")
+    private int intervalWeeks = 1;
+
+    public List<LocalDateTime> appointmentTimes() {
+        List<LocalDateTime> times = new ArrayList<>(occurrences);
+        for (int i = 0; i < occurrences; i++) {
+            times.add(firstAppointmentTime.plusWeeks((long) i * intervalWeeks));
+        }
+        return times;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.healthcare.dto.Audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Manifest record of one audit archive file: a gzip NDJSON dump of (part of) one month of audit logs.
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditArchiveEntry {
+    private YearMonth month;
+    private String file;             // relative to the archive directory
+    private long rows;
+    private long minId;
+    private long maxId;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,158 @@
+package com.example.healthcare.dto.Audit;
+
+import java.util.Objects;
+
+/**
+ * A structured audit entry: which entity was touched and only the fields that changed.
+ * <p>
+ * Old and new values are appended straight into two small JSON objects as they are recorded,
+ * so nothing walks whole entities (no {@code toString()} snapshots, no lazy loads) and the stored
+ * payload stays proportional to the change. Values are written with {@code String.valueOf},
+ * numbers and booleans unquoted.
+ *
+ * <pre>
+ * AuditEvent.of("Appointment Cancelled", AuditEvent.APPOINTMENT, id)
+ *         .changed("status", BOOKED, CANCELLED);
+ * // previousData {"status":"BOOKED"}, newData {"status":"CANCELLED"}
+ * </pre>
+ */
+public final class AuditEvent {
+
+    public static final String APPOINTMENT = "Appointment";
+    public static final String DOCTOR = "Doctor";
+    public static final String PATIENT = "Patient";
+    public static final String ADMIN = "Admin";
+    public static final String OWNER = "Owner";
+    public static final String PRESCRIPTION = "Prescription";
+    public static final String RECURRING_SLOT = "RecurringSlot";
+    public static final String ONE_TIME_SLOT = "OneTimeSlot";
+    public static final String RECURRING_BREAK = "RecurringBreak";
+    public static final String SLOT_REMOVAL_REQUEST = "SlotRemovalRequest";
+
+    /**
+     * Placeholder for values that must never be stored, e.g. password hashes.
+     */
+    public static final String REDACTED = "[redacted]";
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String action;
+    private final String entityType;
+    private final Long entityId;
+    private StringBuilder before;
+    private StringBuilder after;
+
+    private AuditEvent(String action, String entityType, Long entityId) {
+        this.action = action;
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public static AuditEvent of(String action, String entityType, Long entityId) {
+        return new AuditEvent(action, entityType, entityId);
+    }
+
+    /**
+     * Records a field update; ignored when the value did not actually change.
+     */
+    public AuditEvent changed(String field, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            before = append(before, field, oldValue);
+            after = append(after, field, newValue);
+        }
+        return this;
+    }
+
+    /**
+     * Records a field value of a created entity (new data only).
+     */
+    public AuditEvent set(String field, Object value) {
+        after = append(after, field, value);
+        return this;
+    }
+
+    /**
+     * Records a field value of a removed entity (previous data only).
+     */
+    public AuditEvent was(String field, Object value) {
+        before = append(before, field, value);
+        return this;
+    }
+
+    /**
+     * True when an update recorded no actual change.
+     */
+    public boolean isEmpty() {
+        return before == null && after == null;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * The legacy affected-entity label, e.g. "Doctor ID: 5".
+     */
+    public String getAffectedEntity() {
+        return entityType + " ID: " + entityId;
+    }
+
+    public String getPreviousData() {
+        return close(before);
+    }
+
+    public String getNewData() {
+        return close(after);
+    }
+
+    private static StringBuilder append(StringBuilder sb, String field, Object value) {
+        if (sb == null) {
+            sb = new StringBuilder(INITIAL_CAPACITY).append('{');
+        } else {
+            sb.append(',');
+        }
+        quote(sb, field).append(':');
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            quote(sb, String.valueOf(value));
+        }
+        return sb;
+    }
+
+    private static StringBuilder quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"');
+    }
+
+    private static String close(StringBuilder sb) {
+        return sb == null ? null : sb.toString() + '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.healthcare.dto.Audit;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audit log entry. previousData/newData are only filled (and serialized) for detail queries.
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditLogDto {
+    private Long id;
+    private String action;
+    private String performedBy;
+    private String role;
+    private LocalDateTime timestamp;
+    private String affectedEntity;
+    private String entityType;
+    private Long entityId;
+    private String previousData;
+    private String newData;
+
+    /**
+     * Summary row, used by the JPQL projection in {@code AuditLogRepository}.
+     */
+    public AuditLogDto(Long id, String action, String performedBy, String role,
+                       LocalDateTime timestamp, String affectedEntity, String entityType, Long entityId) {
+        this(id, action, performedBy, role, timestamp, affectedEntity, entityType, entityId, null, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.healthcare.dto.Audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters and page cursor of an audit log search; every filter is optional.
+ * Results are newest first. For the next page pass the timestamp and id of the
+ * last entry as beforeTime/beforeId.
+ */
+@Getter
+@Setter
+@ToString
+public class AuditLogQuery {
+
+    private String performedBy;
+
+    private String role;
+
+    private String action;
+
+    /**
+     * Exact affected entity, e.g. "Doctor ID: 5".
+     */
+    private String affectedEntity;
+
+    /**
+     * Entity type and id, e.g. "Appointment" and 23; either may be given alone.
+     */
+    private String entityType;
+
+    private Long entityId;
+
+    /**
+     * Inclusive lower bound of the timestamp.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    /**
+     * Exclusive upper bound of the timestamp.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime beforeTime;
+
+    private Long beforeId;
+
+    /**
+     * Page size, 100 by default and at most 500.
+     */
+    private int limit;
+
+    /**
+     * Include previousData/newData.
+     */
+    private boolean detail;
+}
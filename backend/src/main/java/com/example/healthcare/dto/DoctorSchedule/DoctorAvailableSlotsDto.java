@@ -0,0 +1,23 @@
+package com.example.healthcare.dto.DoctorSchedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Open appointment start times of one doctor, per date, as returned by the bulk slot search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorAvailableSlotsDto {
+    private Long doctorId;
+    private String doctorName;
+    private String specialty;
+    private Map<LocalDate, List<LocalTime>> slots; // dates without open slots are omitted
+}
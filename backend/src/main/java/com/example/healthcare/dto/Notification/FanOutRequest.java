@@ -0,0 +1,21 @@
+package com.example.healthcare.dto.Notification;
+
+import com.example.healthcare.entity.enums.NotificationType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * The notification every recipient of a fan-out gets.
+ */
+@Data
+public class FanOutRequest {
+
+    @NotBlank
+    private String message;
+
+    @NotNull
+    private NotificationType type;
+
+    private String additionalData;
+}
@@ -0,0 +1,29 @@
+package com.example.healthcare.dto.Notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one notification fan-out job.
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FanOutStatusDto {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String id;
+    private Long requestedBy;
+    private State state;
+    private long delivered;         // notifications written so far
+    private int chunks;             // committed batches
+    private Long lastRecipientId;   // highest recipient id written; recipients are visited in id order
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.example.healthcare.dto.Notification;
+
+import com.example.healthcare.entity.enums.NotificationType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class NotificationDto {
+    private Long id;
+    private String message;
+    private NotificationType type;
+    private LocalDateTime createdAt;
+    private boolean isRead;
+    private String additionalData;
+}
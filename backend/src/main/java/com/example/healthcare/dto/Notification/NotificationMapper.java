@@ -0,0 +1,16 @@
+package com.example.healthcare.dto.Notification;
+
+import com.example.healthcare.entity.Notification;
+
+public class NotificationMapper {
+    public static NotificationDto toDto(Notification notification) {
+        NotificationDto dto = new NotificationDto();
+        dto.setId(notification.getId());
+        dto.setMessage(notification.getMessage());
+        dto.setType(notification.getType());
+        dto.setCreatedAt(notification.getCreatedAt());
+        dto.setRead(notification.isRead());
+        dto.setAdditionalData(notification.getAdditionalData());
+        return dto;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.healthcare.dto.Push;
+
+import com.example.healthcare.dto.Message.MessageDto;
+
+/**
+ * A message was sent; pushed to both participants. The receiver's unread badge goes up by one.
+ */
+public record MessageSentEvent(MessageDto message) {
+}
@@ -0,0 +1,8 @@
+package com.example.healthcare.dto.Push;
+
+/**
+ * {@code readerId} read {@code count} messages from {@code partnerId}; pushed to both.
+ * A read receipt for the partner, and an unread badge decrease for the reader.
+ */
+public record MessagesReadEvent(Long readerId, Long partnerId, int count) {
+}
@@ -0,0 +1,13 @@
+package com.example.healthcare.dto.Push;
+
+import com.example.healthcare.entity.enums.NotificationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification was stored for {@code recipientId}; its unread badge goes up by one.
+ * {@code id} is null for notifications written by a fan-out batch.
+ */
+public record NotificationCreatedEvent(Long recipientId, Long id, String message, NotificationType type,
+                                       LocalDateTime createdAt) {
+}
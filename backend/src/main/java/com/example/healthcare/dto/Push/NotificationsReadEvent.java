@@ -0,0 +1,7 @@
+package com.example.healthcare.dto.Push;
+
+/**
+ * {@code count} notifications of {@code recipientId} were marked read; its unread badge goes down by that much.
+ */
+public record NotificationsReadEvent(Long recipientId, int count) {
+}
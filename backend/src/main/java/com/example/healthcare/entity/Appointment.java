@@ -2,17 +2,29 @@ package com.example.healthcare.entity;
 
 import com.example.healthcare.entity.enums.AppointmentStatus;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        // Keyset pages of a patient's / doctor's appointments on (appointment_time, id)
+        @Index(name = "idx_appointments_patient_time", columnList = "patient_id, appointment_time"),
+        @Index(name = "idx_appointments_doctor_time", columnList = "doctor_id, appointment_time")
+}, uniqueConstraints = {
+        // One active appointment per doctor and per patient at a given time, enforced by the database
+        @UniqueConstraint(name = Appointment.DOCTOR_SLOT_CONSTRAINT, columnNames = {"active_doctor_id", "appointment_time"}),
+        @UniqueConstraint(name = Appointment.PATIENT_SLOT_CONSTRAINT, columnNames = {"active_patient_id", "appointment_time"})
+})
 @Getter
 @Setter
 public class Appointment {
 
+    public static final String DOCTOR_SLOT_CONSTRAINT = "uk_appointments_doctor_slot";
+    public static final String PATIENT_SLOT_CONSTRAINT = "uk_appointments_patient_slot";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,15 +63,34 @@ public class Appointment {
     @JoinColumn(name = "cancelled_by", nullable = true)
     private User cancelledBy;
 
+    // Slot keys: copies of the doctor/patient IDs while the appointment holds its slot, NULL otherwise.
+    // NULLs never collide in a unique index, so cancelled/completed rows do not block the time.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "active_doctor_id")
+    private Long activeDoctorId;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "active_patient_id")
+    private Long activePatientId;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        syncSlotKeys();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        syncSlotKeys();
+    }
+
+    private void syncSlotKeys() {
+        boolean holdsSlot = !isDeleted
+                && (status == AppointmentStatus.BOOKED || status == AppointmentStatus.RESCHEDULED);
+        this.activeDoctorId = holdsSlot && doctor != null ? doctor.getId() : null;
+        this.activePatientId = holdsSlot && patient != null ? patient.getId() : null;
     }
 
 
@@ -9,9 +9,22 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // Newest-first keyset pages of the audit search, alone or behind one equality filter
+        @Index(name = "idx_audit_logs_time", columnList = "timestamp, id"),
+        @Index(name = "idx_audit_logs_performed_by_time", columnList = "performed_by, timestamp"),
+        @Index(name = "idx_audit_logs_role_time", columnList = "role, timestamp"),
+        @Index(name = "idx_audit_logs_action_time", columnList = "action, timestamp"),
+        @Index(name = "idx_audit_logs_entity_time", columnList = "affected_entity, timestamp"),
+        @Index(name = "idx_audit_logs_entity_ref", columnList = "entity_type, entity_id, timestamp")
+})
 public class AuditLog {
 
+    /**
+     * Column size of previousData/newData; longer payloads are truncated before insertion.
+     */
+    public static final int DATA_LENGTH = 2000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,9 +43,16 @@ public class AuditLog {
 
     private String affectedEntity; // e.g., "Appointment ID: 23", "User ID: 45"
 
-    private String previousData; // Optional: store before-change values
+    @Column(length = 40)
+    private String entityType; // e.g., "Appointment", parsed from / mirrored by affectedEntity
+
+    private Long entityId; // e.g., 23
+
+    @Column(length = DATA_LENGTH)
+    private String previousData; // Optional: changed fields before, as a JSON object (see AuditEvent)
 
-    private String newData; // Optional: store after-change values
+    @Column(length = DATA_LENGTH)
+    private String newData; // Optional: changed fields after, as a JSON object (see AuditEvent)
 
     @PrePersist
     public void prePersist() {
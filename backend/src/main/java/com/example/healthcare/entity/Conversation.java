@@ -0,0 +1,67 @@
+package com.example.healthcare.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized summary of the messages between two users, kept up to date in the same
+ * transaction as every message send and read. The pair is stored ordered (low id, high id),
+ * with a separate unread counter for each side.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "conversations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversations_pair", columnNames = {"user_low_id", "user_high_id"}),
+        indexes = {
+                // Thread lists and unread totals of either participant, newest first
+                @Index(name = "idx_conversations_low_time", columnList = "user_low_id, last_message_at"),
+                @Index(name = "idx_conversations_high_time", columnList = "user_high_id, last_message_at")
+        })
+public class Conversation {
+
+    public static final int SNIPPET_LENGTH = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userLowId;
+
+    @Column(nullable = false)
+    private Long userHighId;
+
+    @Column(nullable = false)
+    private Long lastMessageId;
+
+    @Column(nullable = false)
+    private Long lastSenderId;
+
+    @Column(nullable = false, length = SNIPPET_LENGTH)
+    private String snippet; // start of the last message
+
+    @Column(nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(nullable = false)
+    private int unreadLow; // messages to userLowId not yet read
+
+    @Column(nullable = false)
+    private int unreadHigh; // messages to userHighId not yet read
+
+    public Long partnerOf(Long userId) {
+        return userLowId.equals(userId) ? userHighId : userLowId;
+    }
+
+    public int unreadFor(Long userId) {
+        return userLowId.equals(userId) ? unreadLow : unreadHigh;
+    }
+
+    public static String snippetOf(String content) {
+        return content.length() <= SNIPPET_LENGTH ? content : content.substring(0, SNIPPET_LENGTH);
+    }
+}
@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_one_time_slot_doctor_date", columnList = "doctor_id, date"))
 @Data
 public class DoctorOneTimeSlot {
     @jakarta.persistence.Id
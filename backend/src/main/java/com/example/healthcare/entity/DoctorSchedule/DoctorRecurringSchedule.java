@@ -9,6 +9,7 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_recurring_schedule_doctor_day", columnList = "doctor_id, day_of_week, active"))
 @Data
 public class DoctorRecurringSchedule {
     @jakarta.persistence.Id
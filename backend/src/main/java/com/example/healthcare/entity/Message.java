@@ -7,7 +7,13 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        // Thread summaries and conversations, from either participant's side
+        @Index(name = "idx_messages_sender_receiver_time", columnList = "sender_id, receiver_id, timestamp"),
+        @Index(name = "idx_messages_receiver_sender_time", columnList = "receiver_id, sender_id, timestamp"),
+        // Conversation history pages: both directions of a pair in one index range
+        @Index(name = "idx_messages_pair_time", columnList = "user_low_id, user_high_id, timestamp, id")
+})
 public class Message {
 
     @Id
@@ -30,4 +36,15 @@ public class Message {
 
     @Column(name = "is_read", nullable = false)
     private boolean isRead = false;
+
+    // The participants ordered by id, so a conversation is one key whichever side sent the message
+    private Long userLowId;
+
+    private Long userHighId;
+
+    @PrePersist
+    public void prePersist() {
+        userLowId = Math.min(sender.getId(), receiver.getId());
+        userHighId = Math.max(sender.getId(), receiver.getId());
+    }
 }
\ No newline at end of file
@@ -9,7 +9,14 @@ import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Per-user unread pages and unread counts
+        @Index(name = "idx_notifications_recipient_read_time", columnList = "recipient_id, is_read, created_at"),
+        // Per-user pages of all notifications, read or not, in (created_at, id) cursor order
+        @Index(name = "idx_notifications_recipient_time", columnList = "recipient_id, created_at, id"),
+        // Retention purge of old read notifications across all users
+        @Index(name = "idx_notifications_read_time", columnList = "is_read, created_at")
+})
 @Getter
 @Setter
 @ToString
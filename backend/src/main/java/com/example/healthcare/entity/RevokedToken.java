@@ -0,0 +1,41 @@
+package com.example.healthcare.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A revoked session (by token id) or a revoked user (every token issued up to {@code revokedAt}).
+ * Rows are only needed until the tokens they cover have expired, so the table stays small.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_token_id", columnList = "token_id"),
+        @Index(name = "idx_revoked_tokens_user", columnList = "user_id, revoked_at"),
+        // Incremental sync between instances and expiry purge
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 36)
+    private String tokenId; // jti of a logged out token; null for a user revocation
+
+    private Long userId; // user whose tokens issued up to revokedAt are revoked; null for a single token
+
+    private Long tokenUserId; // user a logged out token belonged to, so every instance can close their push streams
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt; // after this no token covered by the row is valid anyway
+}
@@ -0,0 +1,10 @@
+package com.example.healthcare.exception;
+
+/**
+ * A booking gave up waiting for the doctor's booking lock; the client should retry shortly.
+ */
+public class BookingBusyException extends RuntimeException {
+    public BookingBusyException(String message) {
+        super(message);
+    }
+}
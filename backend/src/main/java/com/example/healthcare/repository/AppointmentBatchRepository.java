@@ -0,0 +1,44 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.entity.enums.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC writes for appointments where going through the entity manager one row at a time is too slow.
+ * Runs on the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppointmentBatchRepository {
+
+    private static final String INSERT_BOOKED =
+            "INSERT INTO appointments (doctor_id, patient_id, appointment_time, status, is_deleted, " +
+            "created_at, updated_at, location, notes, active_doctor_id, active_patient_id) " +
+            "VALUES (?, ?, ?, ?, false, ?, ?, '', '', ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts BOOKED appointments for one doctor/patient pair in a single JDBC batch.
+     * The slot keys are filled in here since entity callbacks do not run for these rows.
+     */
+    public void insertBooked(Long doctorId, Long patientId, List<LocalDateTime> times) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_BOOKED, times, times.size(), (ps, time) -> {
+            ps.setLong(1, doctorId);
+            ps.setLong(2, patientId);
+            ps.setTimestamp(3, Timestamp.valueOf(time));
+            ps.setString(4, AppointmentStatus.BOOKED.name());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+            ps.setLong(7, doctorId);
+            ps.setLong(8, patientId);
+        });
+    }
+}
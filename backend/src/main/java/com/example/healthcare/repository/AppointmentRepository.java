@@ -1,11 +1,14 @@
 package com.example.healthcare.repository;
 
+import com.example.healthcare.dto.Appointments.AppointmentDto;
 import com.example.healthcare.entity.Appointment;
 import com.example.healthcare.entity.Doctor;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.AppointmentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -17,6 +20,14 @@ import java.util.Optional;
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    // Builds AppointmentDto rows in the select itself: one statement per list, no User entities hydrated.
+    // concat() yields NULL when there is no cancelledBy, matching AppointmentMapper.
+    String DTO_SELECT = "SELECT new com.example.healthcare.dto.Appointments.AppointmentDto(" +
+            "a.id, concat(d.firstName, ' ', d.lastName), d.specialty, concat(p.firstName, ' ', p.lastName), " +
+            "a.appointmentTime, a.status, a.createdAt, a.updatedAt, concat(c.firstName, ' ', c.lastName), " +
+            "a.location, a.notes, d.email) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p LEFT JOIN a.cancelledBy c ";
+
     // ✅ Find all upcoming appointments for a specific patient
     List<Appointment> findByPatientIdAndAppointmentTimeAfter(Long patientId, LocalDateTime now);
 
@@ -56,6 +67,15 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // NEW: fetch cancelled (soft‐deleted) appointments for a patient
     List<Appointment> findByPatientIdAndStatus(Long patientId, AppointmentStatus status);
 
+    @Query(DTO_SELECT + "WHERE a.patient.id = :patientId AND a.status = :status ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<AppointmentDto> findDtosByPatientIdAndStatus(Long patientId, AppointmentStatus status);
+
+    @Query(DTO_SELECT + "WHERE a.doctor.id = :doctorId AND a.status = :status ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<AppointmentDto> findDtosByDoctorIdAndStatus(Long doctorId, AppointmentStatus status);
+
+    @Query(DTO_SELECT + "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<AppointmentDto> findAllDtos();
+
     // Find all unique doctors a patient has had appointments with (non-deleted)
     @Query("SELECT DISTINCT a.doctor FROM Appointment a WHERE a.patient.id = :patientId AND a.isDeleted = false")
     List<User> findDoctorsByPatientId(Long patientId);
@@ -64,6 +84,11 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT DISTINCT a.patient FROM Appointment a WHERE a.doctor.id = :doctorId AND a.isDeleted = false")
     List<User> findPatientsByDoctorId(Long doctorId);
 
+    // Keyset page of the same patients' ids, for fan-outs that must not load every patient
+    @Query("SELECT DISTINCT a.patient.id FROM Appointment a WHERE a.doctor.id = :doctorId AND a.isDeleted = false " +
+            "AND a.patient.id > :afterId ORDER BY a.patient.id")
+    List<Long> findPatientIdsByDoctorIdAfter(@Param("doctorId") Long doctorId, @Param("afterId") Long afterId, Limit limit);
+
     boolean existsByDoctorIdAndPatientIdAndIsDeletedFalse(Long doctorId, Long patientId);
 
     // Fetch cancelled appointments for a doctor
@@ -71,4 +96,54 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     // Fetch appointments for a doctor within a specific date range
     List<Appointment> findByDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    // Active appointments of several doctors within a date range, in one query (bulk availability search)
+    List<Appointment> findByDoctorIdInAndAppointmentTimeBetweenAndStatusIn(
+            Collection<Long> doctorIds,
+            LocalDateTime start,
+            LocalDateTime end,
+            Collection<AppointmentStatus> statuses);
+
+    // --- Keyset pages on (appointment_time, id), skipping deleted and cancelled rows ---
+    // Upcoming: ascending, strictly after the cursor. History: descending, strictly before the cursor,
+    // optionally bounded below by :since. Backed by the (patient_id|doctor_id, appointment_time) indexes.
+
+    @Query(DTO_SELECT + "WHERE a.patient.id = :patientId AND a.isDeleted = false " +
+            "AND a.status <> com.example.healthcare.entity.enums.AppointmentStatus.CANCELLED " +
+            "AND a.appointmentTime > :now " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime ASC, a.id ASC")
+    List<AppointmentDto> findUpcomingPageForPatient(Long patientId, LocalDateTime now,
+                                                 LocalDateTime afterTime, Long afterId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE a.doctor.id = :doctorId AND a.isDeleted = false " +
+            "AND a.status <> com.example.healthcare.entity.enums.AppointmentStatus.CANCELLED " +
+            "AND a.appointmentTime > :now " +
+            "AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime ASC, a.id ASC")
+    List<AppointmentDto> findUpcomingPageForDoctor(Long doctorId, LocalDateTime now,
+                                                LocalDateTime afterTime, Long afterId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE a.patient.id = :patientId AND a.isDeleted = false " +
+            "AND a.status <> com.example.healthcare.entity.enums.AppointmentStatus.CANCELLED " +
+            "AND (:since IS NULL OR a.appointmentTime > :since) " +
+            "AND (a.appointmentTime < :beforeTime OR (a.appointmentTime = :beforeTime AND a.id < :beforeId)) " +
+            "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<AppointmentDto> findHistoryPageForPatient(Long patientId, LocalDateTime since,
+                                                LocalDateTime beforeTime, Long beforeId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE a.doctor.id = :doctorId AND a.isDeleted = false " +
+            "AND a.status <> com.example.healthcare.entity.enums.AppointmentStatus.CANCELLED " +
+            "AND (:since IS NULL OR a.appointmentTime > :since) " +
+            "AND (a.appointmentTime < :beforeTime OR (a.appointmentTime = :beforeTime AND a.id < :beforeId)) " +
+            "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<AppointmentDto> findHistoryPageForDoctor(Long doctorId, LocalDateTime since,
+                                               LocalDateTime beforeTime, Long beforeId, Limit limit);
+
+    // Times among :times already taken by an active appointment of the doctor or the patient (series booking)
+    @Query("SELECT a.appointmentTime FROM Appointment a WHERE a.appointmentTime IN :times " +
+            "AND a.status IN :statuses AND (a.doctor.id = :doctorId OR a.patient.id = :patientId)")
+    List<LocalDateTime> findTakenTimes(Long doctorId, Long patientId,
+                                       Collection<LocalDateTime> times,
+                                       Collection<AppointmentStatus> statuses);
 }
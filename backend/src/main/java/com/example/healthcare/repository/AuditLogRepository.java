@@ -1,7 +1,10 @@
 package com.example.healthcare.repository;
 
+import com.example.healthcare.dto.Audit.AuditLogDto;
 import com.example.healthcare.entity.AuditLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -10,6 +13,40 @@ import java.util.List;
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
 
+    // Shared filter + keyset clause of the search queries; a NULL parameter disables its filter.
+    String SEARCH_WHERE = "WHERE (:performedBy IS NULL OR l.performedBy = :performedBy) " +
+            "AND (:role IS NULL OR l.role = :role) " +
+            "AND (:action IS NULL OR l.action = :action) " +
+            "AND (:affectedEntity IS NULL OR l.affectedEntity = :affectedEntity) " +
+            "AND (:entityType IS NULL OR l.entityType = :entityType) " +
+            "AND (:entityId IS NULL OR l.entityId = :entityId) " +
+            "AND (:from IS NULL OR l.timestamp >= :from) " +
+            "AND (:to IS NULL OR l.timestamp < :to) " +
+            "AND (:beforeTime IS NULL OR l.timestamp < :beforeTime " +
+            "     OR (l.timestamp = :beforeTime AND l.id < :beforeId)) " +
+            "ORDER BY l.timestamp DESC, l.id DESC";
+
+    /**
+     * One page of matching entries, newest first, without previous/new data.
+     */
+    @Query("SELECT new com.example.healthcare.dto.Audit.AuditLogDto(" +
+            "l.id, l.action, l.performedBy, l.role, l.timestamp, l.affectedEntity, l.entityType, l.entityId) " +
+            "FROM AuditLog l " + SEARCH_WHERE)
+    List<AuditLogDto> searchSummaries(String performedBy, String role, String action, String affectedEntity,
+                                      String entityType, Long entityId, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime beforeTime, Long beforeId, Limit limit);
+
+    /**
+     * Same as {@link #searchSummaries} including previous/new data.
+     */
+    @Query("SELECT new com.example.healthcare.dto.Audit.AuditLogDto(" +
+            "l.id, l.action, l.performedBy, l.role, l.timestamp, l.affectedEntity, l.entityType, l.entityId, " +
+            "l.previousData, l.newData) " +
+            "FROM AuditLog l " + SEARCH_WHERE)
+    List<AuditLogDto> searchDetails(String performedBy, String role, String action, String affectedEntity,
+                                    String entityType, Long entityId, LocalDateTime from, LocalDateTime to,
+                                    LocalDateTime beforeTime, Long beforeId, Limit limit);
+
     /**
      * Finds logs by the user who performed the action.
      * @param performedBy The email of the user
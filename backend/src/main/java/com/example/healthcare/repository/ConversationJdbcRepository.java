@@ -0,0 +1,41 @@
+package com.example.healthcare.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Plain JDBC insert of a pair's first conversation row.
+ * Runs on the caller's transaction; a duplicate fails only its own statement, not the transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConversationJdbcRepository {
+
+    private static final String INSERT =
+            "INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_sender_id, snippet, " +
+            "last_message_at, unread_low, unread_high) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the pair's summary for its first message.
+     *
+     * @return false if the pair already has a row, e.g. created by a concurrent first message of the
+     *         other participant; the caller then records the message on that row instead
+     */
+    public boolean insertIfAbsent(Long low, Long high, Long messageId, Long senderId, String snippet,
+                                  LocalDateTime sentAt, int unreadLow, int unreadHigh) {
+        try {
+            jdbcTemplate.update(INSERT, low, high, messageId, senderId, snippet, Timestamp.valueOf(sentAt),
+                    unreadLow, unreadHigh);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.entity.Conversation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    Optional<Conversation> findByUserLowIdAndUserHighId(Long userLowId, Long userHighId);
+
+    // All threads of a user, newest first
+    @Query("SELECT c FROM Conversation c WHERE c.userLowId = :userId OR c.userHighId = :userId " +
+            "ORDER BY c.lastMessageAt DESC, c.lastMessageId DESC")
+    List<Conversation> findByParticipant(@Param("userId") Long userId);
+
+    // Unread messages addressed to the user, summed over their threads
+    @Query("SELECT COALESCE(SUM(CASE WHEN c.userLowId = :userId THEN c.unreadLow ELSE c.unreadHigh END), 0) " +
+            "FROM Conversation c WHERE c.userLowId = :userId OR c.userHighId = :userId")
+    long countUnread(@Param("userId") Long userId);
+
+    /**
+     * Bumps the receiver's unread counter for a newly sent message, and moves the pair's summary to it
+     * unless a newer message of the pair committed first.
+     * lastMessageId is assigned last: MySQL evaluates SET left to right, so the other comparisons
+     * must still see the old value.
+     *
+     * @return 0 if the pair has no conversation row yet
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.lastSenderId = CASE WHEN :messageId > c.lastMessageId THEN :senderId ELSE c.lastSenderId END, " +
+            "c.snippet = CASE WHEN :messageId > c.lastMessageId THEN :snippet ELSE c.snippet END, " +
+            "c.lastMessageAt = CASE WHEN :messageId > c.lastMessageId THEN :sentAt ELSE c.lastMessageAt END, " +
+            "c.unreadLow = c.unreadLow + CASE WHEN c.userLowId = :senderId THEN 0 ELSE 1 END, " +
+            "c.unreadHigh = c.unreadHigh + CASE WHEN c.userHighId = :senderId THEN 0 ELSE 1 END, " +
+            "c.lastMessageId = CASE WHEN :messageId > c.lastMessageId THEN :messageId ELSE c.lastMessageId END " +
+            "WHERE c.userLowId = :low AND c.userHighId = :high")
+    int recordMessage(@Param("low") Long low, @Param("high") Long high, @Param("messageId") Long messageId,
+                      @Param("senderId") Long senderId, @Param("snippet") String snippet,
+                      @Param("sentAt") LocalDateTime sentAt);
+
+    // Takes `count` messages off the reader's unread counter, never below zero
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.unreadLow = CASE WHEN c.userLowId = :readerId " +
+            "    THEN (CASE WHEN c.unreadLow > :count THEN c.unreadLow - :count ELSE 0 END) ELSE c.unreadLow END, " +
+            "c.unreadHigh = CASE WHEN c.userHighId = :readerId " +
+            "    THEN (CASE WHEN c.unreadHigh > :count THEN c.unreadHigh - :count ELSE 0 END) ELSE c.unreadHigh END " +
+            "WHERE c.userLowId = :low AND c.userHighId = :high")
+    int markRead(@Param("low") Long low, @Param("high") Long high, @Param("readerId") Long readerId,
+                 @Param("count") int count);
+}
@@ -3,6 +3,7 @@ package com.example.healthcare.repository;
 import com.example.healthcare.entity.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +11,6 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     List<Doctor> findAllByIsDeletedFalse();
     Optional<Doctor> findByIdAndIsDeletedFalse(Long id);
     Optional<Doctor> findByEmailAndIsDeletedFalse(String email);
+    List<Doctor> findBySpecialtyIgnoreCaseAndIsDeletedFalse(String specialty);
+    List<Doctor> findByIdInAndIsDeletedFalse(Collection<Long> ids);
 }
\ No newline at end of file
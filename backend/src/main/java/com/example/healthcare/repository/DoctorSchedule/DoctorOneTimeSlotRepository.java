@@ -2,8 +2,13 @@ package com.example.healthcare.repository.DoctorSchedule;
 
 import com.example.healthcare.entity.DoctorSchedule.DoctorOneTimeSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DoctorOneTimeSlotRepository extends JpaRepository<DoctorOneTimeSlot, Long> {
@@ -12,6 +17,35 @@ public interface DoctorOneTimeSlotRepository extends JpaRepository<DoctorOneTime
 
     List<DoctorOneTimeSlot> findByDoctorIdAndDateBetween(Long doctorId, LocalDate start, LocalDate end);
 
+    // Batched load for several doctors at once (bulk availability search)
+    List<DoctorOneTimeSlot> findByDoctorIdInAndDateBetween(Collection<Long> doctorIds, LocalDate start, LocalDate end);
+
     void deleteByDoctorId(Long doctorId);
+
+    // Overlap check on a single date, served by the (doctor_id, date) index
+    @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM DoctorOneTimeSlot s " +
+            "WHERE s.doctor.id = :doctorId AND s.date = :date " +
+            "AND s.startTime < :end AND s.endTime > :start AND (:excludeId IS NULL OR s.id <> :excludeId)")
+    boolean existsOverlappingOnDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+                                    @Param("start") LocalTime start, @Param("end") LocalTime end,
+                                    @Param("excludeId") Long excludeId);
+
+    // Overlap check against upcoming overrides falling on a weekday (see dayOfWeekNumber);
+    // the (doctor_id, date) index bounds the scan to dates from :from on
+    @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM DoctorOneTimeSlot s " +
+            "WHERE s.doctor.id = :doctorId AND s.date >= :from AND EXTRACT(DAY OF WEEK FROM s.date) = :dayOfWeek " +
+            "AND s.startTime < :end AND s.endTime > :start AND (:excludeId IS NULL OR s.id <> :excludeId)")
+    boolean existsOverlappingOnWeekday(@Param("doctorId") Long doctorId, @Param("from") LocalDate from,
+                                       @Param("dayOfWeek") int dayOfWeek,
+                                       @Param("start") LocalTime start, @Param("end") LocalTime end,
+                                       @Param("excludeId") Long excludeId);
+
+    /**
+     * The weekday as numbered by JPQL {@code EXTRACT(DAY OF WEEK ...)}: 1 = Sunday ... 7 = Saturday,
+     * where {@link DayOfWeek#getValue()} runs 1 = Monday ... 7 = Sunday.
+     */
+    static int dayOfWeekNumber(DayOfWeek day) {
+        return day.getValue() % 7 + 1;
+    }
 }
 
@@ -2,8 +2,12 @@ package com.example.healthcare.repository.DoctorSchedule;
 
 import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringBreak;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DoctorRecurringBreakRepository extends JpaRepository<DoctorRecurringBreak, Long> {
@@ -17,5 +21,14 @@ public interface DoctorRecurringBreakRepository extends JpaRepository<DoctorRecu
 
     List<DoctorRecurringBreak> findByDoctorIdAndDayOfWeekAndActiveTrue(Long doctorId, DayOfWeek dayOfWeek);
 
+    // Batched load for several doctors at once (bulk availability search)
+    List<DoctorRecurringBreak> findByDoctorIdInAndActiveTrue(Collection<Long> doctorIds);
 
+    // Overlap check scoped to one doctor-day, served by the (doctor_id, day_of_week, active) index
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM DoctorRecurringBreak b " +
+            "WHERE b.doctor.id = :doctorId AND b.dayOfWeek = :day AND b.active = true " +
+            "AND b.startTime < :end AND b.endTime > :start AND (:excludeId IS NULL OR b.id <> :excludeId)")
+    boolean existsOverlapping(@Param("doctorId") Long doctorId, @Param("day") DayOfWeek day,
+                              @Param("start") LocalTime start, @Param("end") LocalTime end,
+                              @Param("excludeId") Long excludeId);
 }
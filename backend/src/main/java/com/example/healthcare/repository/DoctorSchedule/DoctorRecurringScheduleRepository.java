@@ -3,9 +3,13 @@ package com.example.healthcare.repository.DoctorSchedule;
 
 import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringSchedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DoctorRecurringScheduleRepository extends JpaRepository<DoctorRecurringSchedule, Long> {
@@ -19,5 +23,16 @@ public interface DoctorRecurringScheduleRepository extends JpaRepository<DoctorR
     List<DoctorRecurringSchedule> findByDoctorIdAndActiveTrue(Long doctorId);
 
     List<DoctorRecurringSchedule> findByDoctorIdAndDayOfWeekAndActiveTrue(Long doctorId, DayOfWeek dayOfWeek);
+
+    // Batched load for several doctors at once (bulk availability search)
+    List<DoctorRecurringSchedule> findByDoctorIdInAndActiveTrue(Collection<Long> doctorIds);
+
+    // Overlap check scoped to one doctor-day, served by the (doctor_id, day_of_week, active) index
+    @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM DoctorRecurringSchedule s " +
+            "WHERE s.doctor.id = :doctorId AND s.dayOfWeek = :day AND s.active = true " +
+            "AND s.startTime < :end AND s.endTime > :start AND (:excludeId IS NULL OR s.id <> :excludeId)")
+    boolean existsOverlapping(@Param("doctorId") Long doctorId, @Param("day") DayOfWeek day,
+                              @Param("start") LocalTime start, @Param("end") LocalTime end,
+                              @Param("excludeId") Long excludeId);
 }
 
@@ -2,39 +2,62 @@ package com.example.healthcare.repository;
 
 import com.example.healthcare.entity.Message;
 import com.example.healthcare.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByReceiverOrderByTimestampDesc(User receiver);
     List<Message> findBySenderOrderByTimestampDesc(User sender);
 
-    @Query("SELECT m FROM Message m WHERE (m.sender.id = :me AND m.receiver.id = :other) OR (m.sender.id = :other AND m.receiver.id = :me)")
-    List<Message> findAllByParticipants(@Param("me") Long me, @Param("other") Long other);
+    /**
+     * Newest messages of a conversation first, strictly before the (time, id) cursor if one is given.
+     */
+    @Query("SELECT m FROM Message m WHERE m.userLowId = :low AND m.userHighId = :high " +
+            "AND (:beforeTime IS NULL OR m.timestamp < :beforeTime " +
+            "     OR (m.timestamp = :beforeTime AND m.id < :beforeId)) " +
+            "ORDER BY m.timestamp DESC, m.id DESC")
+    List<Message> findConversationBefore(@Param("low") Long low, @Param("high") Long high,
+                                         @Param("beforeTime") LocalDateTime beforeTime,
+                                         @Param("beforeId") Long beforeId, Limit limit);
+
+    /**
+     * Oldest messages of a conversation first, strictly after the (time, id) cursor.
+     */
+    @Query("SELECT m FROM Message m WHERE m.userLowId = :low AND m.userHighId = :high " +
+            "AND (m.timestamp > :afterTime OR (m.timestamp = :afterTime AND m.id > :afterId)) " +
+            "ORDER BY m.timestamp ASC, m.id ASC")
+    List<Message> findConversationAfter(@Param("low") Long low, @Param("high") Long high,
+                                        @Param("afterTime") LocalDateTime afterTime,
+                                        @Param("afterId") Long afterId, Limit limit);
 
     List<Message> findByReceiverIdOrderByTimestampDesc(Long receiverId);
 
-    List<Message> findBySenderIdAndReceiverIdAndIsReadFalse(Long senderId, Long receiverId);
+    /**
+     * Marks everything {@code senderId} sent to {@code receiverId} as read in one statement.
+     *
+     * @return the number of messages that were unread
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true " +
+            "WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId AND m.isRead = false")
+    int markReadFrom(@Param("senderId") Long senderId, @Param("receiverId") Long receiverId);
+
+    /**
+     * Marks one message read unless it already is, so concurrent calls count it once.
+     *
+     * @return 1 if this call marked it, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.id = :id AND m.isRead = false")
+    int markRead(@Param("id") Long id);
 
 
-    @Query(value =
-            "SELECT u.* FROM users u WHERE u.id IN (" +
-                    "   SELECT m.receiver_id FROM messages m WHERE m.sender_id = :userId " +
-                    "   UNION " +
-                    "   SELECT m.sender_id FROM messages m WHERE m.receiver_id = :userId" +
-                    ")",
-            nativeQuery = true)
-    List<User> findConversationPartners(Long userId);
-
-
-    // Get latest message between two users
-    @Query("SELECT m FROM Message m WHERE (m.sender.id = :userId1 AND m.receiver.id = :userId2) OR (m.sender.id = :userId2 AND m.receiver.id = :userId1) ORDER BY m.timestamp DESC")
-    List<Message> findConversation(Long userId1, Long userId2);
-
     long countByReceiverIdAndIsReadFalse(Long receiverId);
 
 }
\ No newline at end of file
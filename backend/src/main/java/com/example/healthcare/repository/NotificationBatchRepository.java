@@ -0,0 +1,46 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.entity.enums.NotificationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC inserts of one notification for many recipients.
+ * Runs on the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+
+    private static final String INSERT =
+            "INSERT INTO notifications (recipient_id, message, type, created_at, is_read, additional_data) " +
+            "VALUES (?, ?, ?, ?, false, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the same unread notification for every recipient in a single JDBC batch.
+     * {@code createdAt} is set here since entity callbacks do not run for these rows.
+     */
+    public void insertForRecipients(List<Long> recipientIds, String message, NotificationType type,
+                                    String additionalData, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT, recipientIds, recipientIds.size(), (ps, recipientId) -> {
+            ps.setLong(1, recipientId);
+            ps.setString(2, message);
+            ps.setString(3, type.name());
+            ps.setTimestamp(4, created);
+            if (additionalData != null) {
+                ps.setString(5, additionalData);
+            } else {
+                ps.setNull(5, Types.CLOB);
+            }
+        });
+    }
+}
@@ -2,9 +2,14 @@ package com.example.healthcare.repository;
 
 import com.example.healthcare.entity.Notification;
 import com.example.healthcare.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +19,30 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     // Retrieve only unread notifications for a user.
     List<Notification> findByRecipientAndIsReadFalse(User recipient);
+
+    long countByRecipientIdAndIsReadFalse(Long recipientId);
+
+    /**
+     * A user's notifications newest first, strictly before the (createdAt, id) cursor if one is given.
+     * The unfiltered list walks idx_notifications_recipient_time; with unreadOnly it walks
+     * idx_notifications_recipient_read_time instead.
+     */
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId " +
+            "AND (:unreadOnly = false OR n.isRead = false) " +
+            "AND (:beforeTime IS NULL OR n.createdAt < :beforeTime " +
+            "     OR (n.createdAt = :beforeTime AND n.id < :beforeId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBefore(@Param("recipientId") Long recipientId, @Param("unreadOnly") boolean unreadOnly,
+                                      @Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId,
+                                      Limit limit);
+
+    // Marks all of a user's unread notifications read in one statement; returns how many were unread.
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :recipientId AND n.isRead = false")
+    int markAllReadFor(@Param("recipientId") Long recipientId);
+
+    // Marks one notification read unless it already is; returns 1 only for the call that marked it.
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markRead(@Param("id") Long id);
 }
@@ -0,0 +1,31 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // Revocations recorded since the given time (by any instance)
+    List<RevokedToken> findByRevokedAtGreaterThanEqual(Instant since);
+
+    // Every revocation that still covers unexpired tokens
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    boolean existsByTokenId(String tokenId);
+
+    // Whether the user was revoked at or after the token's issue time
+    boolean existsByUserIdAndRevokedAtGreaterThanEqual(Long userId, Instant issuedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
@@ -3,6 +3,7 @@ package com.example.healthcare.repository;
 import com.example.healthcare.entity.Message;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.UserRole;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +25,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByCreatedAtAfter(LocalDateTime thirtyDaysAgo);
     List<User> findByRoleAndIsDeletedFalse(UserRole role);
 
+    // Keyset page of active user ids with the role, for fan-outs that must not load every user
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.isDeleted = false AND u.id > :afterId ORDER BY u.id")
+    List<Long> findActiveIdsByRoleAfter(@Param("role") UserRole role, @Param("afterId") Long afterId, Limit limit);
+
     // FIX: Use UserRole instead of String for role
     List<User> findAllByRole(UserRole role);
 
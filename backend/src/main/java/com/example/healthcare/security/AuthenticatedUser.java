@@ -0,0 +1,68 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.AccountStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.service.JwtService;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The security principal: just enough of a user to authorize a request.
+ * Controllers that need the full entity go through {@link SecurityUtils}.
+ *
+ * @param id            user id
+ * @param email         login email
+ * @param role          user role
+ * @param accountStatus account status at the time the principal was loaded
+ * @param dtype         entity type, e.g. "Patient" or "Doctor"
+ */
+public record AuthenticatedUser(Long id, String email, UserRole role, AccountStatus accountStatus, String dtype)
+        implements UserDetails {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(),
+                user.getAccountStatus(), user.getDtype());
+    }
+
+    /**
+     * Builds the principal from signed token claims; the token must carry uid, role, status and dtype.
+     *
+     * @return empty when a claim is missing or names a role or status this version does not know
+     */
+    public static Optional<AuthenticatedUser> fromClaims(JwtService.VerifiedToken token) {
+        if (token.userId() == null || token.role() == null || token.status() == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new AuthenticatedUser(token.userId(), token.subject(), UserRole.valueOf(token.role()),
+                    AccountStatus.valueOf(token.status()), token.dtype()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isActive() {
+        return accountStatus != AccountStatus.DEACTIVATED;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
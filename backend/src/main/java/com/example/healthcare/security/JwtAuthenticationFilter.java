@@ -1,8 +1,5 @@
 package com.example.healthcare.security;
 
-import com.example.healthcare.entity.User;
-import com.example.healthcare.entity.enums.AccountStatus;
-import com.example.healthcare.repository.UserRepository;
 import com.example.healthcare.service.JwtService;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
@@ -10,6 +7,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,11 +17,23 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    private final StreamTicketStore streamTickets;
+
+    private static final String STREAM_PATH = "/api/stream";
+
+    /**
+     * When true, tokens carrying uid/status/dtype claims are authorized from the claims alone;
+     * otherwise the principal comes from {@link PrincipalCache}. Revocation is checked either way.
+     */
+    @Value("${security.auth.stateless-claims:false}")
+    private boolean statelessClaims;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -34,20 +45,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 2) Extract and validate JWT
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        // The push stream is opened only with a single-use ticket, never with the JWT itself
+        if (STREAM_PATH.equals(request.getServletPath())) {
+            streamTickets.redeem(request.getParameter("ticket"))
+                    .filter(AuthenticatedUser::isActive)
+                    .ifPresent(user -> authenticate(user, request));
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = authHeader.substring(7);
-        System.out.println("AUTH FILTER: Raw JWT: " + token);
+        // 2) Extract and validate JWT
+        String token = extractToken(request);
+        if (token == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        String email;
+        // One parse per token lifetime: later requests with the same token hit the verified cache
+        JwtService.VerifiedToken verified;
         try {
-            email = jwtService.extractUsername(token);
-            System.out.println("AUTH FILTER: Extracted email from JWT: " + email);
+            verified = jwtService.verify(token);
         } catch (ExpiredJwtException e) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT expired");
             return;
@@ -55,39 +72,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
             return;
         }
+        String email = verified.subject();
+
+        // 3) Block logged out tokens and revoked users (a Bloom filter lookup unless it may match)
+        if (revocationList.isRevoked(verified)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revoked");
+            return;
+        }
 
-        // 3) Load user, block if deleted or deactivated
+        // 4) Resolve the principal (from claims or cached), block if deleted or deactivated
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByEmailAndIsDeletedFalse(email).orElse(null);
-            System.out.println("AUTH FILTER: user found? " + (user != null ? user.getId() : "NOT FOUND"));
-
-            if (user != null
-                    && user.getAccountStatus() != AccountStatus.DEACTIVATED
-                    && jwtService.validateToken(token)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                user, null, user.getAuthorities()
-                        );
-
-                // **DEBUG PRINT: LOG THE AUTHORITIES**
-                System.out.println(">>> AUTHORITIES FOR " + user.getEmail() + ":");
-                if (user.getAuthorities() != null) {
-                    for (var ga : user.getAuthorities()) {
-                        System.out.println("    - " + ga.getAuthority());
-                    }
-                } else {
-                    System.out.println("    - (No authorities!)");
-                }
-
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            AuthenticatedUser user = null;
+            if (statelessClaims && verified.userId() != null && verified.role() != null && verified.status() != null) {
+                user = AuthenticatedUser.fromClaims(verified).orElse(null);
+            }
+            if (user == null) {
+                // Claims off, incomplete (older tokens) or not understood: load the principal instead
+                user = principalCache.get(email).orElse(null);
+            }
+
+            if (user != null && user.isActive()) {
+                authenticate(user, request);
             }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(AuthenticatedUser user, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        user, null, user.getAuthorities()
+                );
+        log.debug("Authenticated {} with {}", user.email(), authToken.getAuthorities());
+
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 
+    private String extractToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of {@link AuthenticatedUser} principals by email, so an authenticated
+ * request does not need a user SELECT before it starts its real work.
+ * <p>
+ * Entries live for {@code security.principal-cache.ttl-seconds}. Services that delete,
+ * reactivate or edit a user call {@link #evict(String)}, which drops the entry immediately
+ * and once more after the surrounding transaction commits, so a request racing the
+ * update cannot re-cache the old state. Unknown or deleted emails are not cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    @Value("${security.principal-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(AuthenticatedUser principal, long expiresAt) {
+    }
+
+    /**
+     * Returns the principal for a non-deleted user, loading it on a miss or once the entry expires.
+     */
+    public Optional<AuthenticatedUser> get(String email) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            return Optional.of(entry.principal());
+        }
+        Optional<AuthenticatedUser> loaded = userRepository.findByEmailAndIsDeletedFalse(email)
+                .map(AuthenticatedUser::of);
+        if (loaded.isPresent()) {
+            put(email, new Entry(loaded.get(), now + ttlSeconds * 1000));
+        } else if (entry != null) {
+            entries.remove(email);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops a user's entry now and again after the current transaction (if any) commits.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(email);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void put(String email, Entry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(email)) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+            if (entries.size() >= maxEntries) {
+                return; // full of live entries; this user is loaded again next time
+            }
+        }
+        entries.put(email, entry);
+    }
+}
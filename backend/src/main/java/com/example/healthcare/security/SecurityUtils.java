@@ -3,20 +3,28 @@ package com.example.healthcare.security;
 import com.example.healthcare.entity.*;
 import com.example.healthcare.exception.UnauthorizedAccessException;
 import com.example.healthcare.service.UserService;
+import jakarta.persistence.DiscriminatorValue;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * Utility class for safely retrieving the authenticated user
  * and casting to appropriate roles: Patient, Admin, Doctor, Owner.
+ * <p>
+ * The entity is loaded by id at most once per request and kept as a request attribute;
+ * role mismatches are rejected from the principal before anything is loaded.
  */
 @Component
 @RequiredArgsConstructor
 public class SecurityUtils {
 
+    private static final String USER_ATTRIBUTE = SecurityUtils.class.getName() + ".user";
+
     private final UserService userService;
 
     /**
@@ -25,6 +33,21 @@ public class SecurityUtils {
     public User getAuthenticatedUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
+        if (principal instanceof AuthenticatedUser authenticated) {
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            if (request == null) {
+                return userService.getUserById(authenticated.id());
+            }
+            User user = (User) request.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (user == null) {
+                user = userService.getUserById(authenticated.id());
+                request.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+            }
+            return user;
+        }
+        if (principal instanceof User user) {
+            return user;
+        }
         if (principal instanceof UserDetails userDetails) {
             return userService.getUserByEmail(userDetails.getUsername());
         }
@@ -35,8 +58,7 @@ public class SecurityUtils {
      * Get authenticated Patient.
      */
     public Patient getAuthenticatedPatient() {
-        User user = getAuthenticatedUser();
-        if (user instanceof Patient patient) {
+        if (getAuthenticatedUser(Patient.class) instanceof Patient patient) {
             return patient;
         }
         throw new UnauthorizedAccessException("Only Patients can access this resource.");
@@ -46,8 +68,7 @@ public class SecurityUtils {
      * Get authenticated Admin.
      */
     public Admin getAuthenticatedAdmin() {
-        User user = getAuthenticatedUser();
-        if (user instanceof Admin admin) {
+        if (getAuthenticatedUser(Admin.class) instanceof Admin admin) {
             return admin;
         }
         throw new UnauthorizedAccessException("Only Admins can access this resource.");
@@ -57,8 +78,7 @@ public class SecurityUtils {
      * Get authenticated Doctor.
      */
     public Doctor getAuthenticatedDoctor() {
-        User user = getAuthenticatedUser();
-        if (user instanceof Doctor doctor) {
+        if (getAuthenticatedUser(Doctor.class) instanceof Doctor doctor) {
             return doctor;
         }
         throw new UnauthorizedAccessException("Only Doctors can access this resource.");
@@ -68,8 +88,7 @@ public class SecurityUtils {
      * Get authenticated Owner.
      */
     public Owner getAuthenticatedOwner() {
-        User user = getAuthenticatedUser();
-        if (user instanceof Owner owner) {
+        if (getAuthenticatedUser(Owner.class) instanceof Owner owner) {
             return owner;
         }
         throw new UnauthorizedAccessException("Only Owners can access this resource.");
@@ -80,7 +99,60 @@ public class SecurityUtils {
         if (auth == null || auth.getPrincipal() == null) {
             throw new RuntimeException("No authenticated user");
         }
+        if (auth.getPrincipal() instanceof AuthenticatedUser authenticated) {
+            return authenticated.id();
+        }
         User user = (User) auth.getPrincipal();
         return user.getId();
     }
+
+    /**
+     * Get the authenticated principal (id, email, role, status) without loading the user entity.
+     */
+    public AuthenticatedUser getPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = auth == null ? null : auth.getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticated) {
+            return authenticated;
+        }
+        if (principal instanceof User user) {
+            return AuthenticatedUser.of(user);
+        }
+        throw new UnauthorizedAccessException("Unauthorized: No valid user found.");
+    }
+
+    /**
+     * Get the authenticated Patient's id; for handlers that do not need the entity itself.
+     */
+    public Long getAuthenticatedPatientId() {
+        return requireType(Patient.class, "Only Patients can access this resource.").id();
+    }
+
+    /**
+     * Get the authenticated Doctor's id; for handlers that do not need the entity itself.
+     */
+    public Long getAuthenticatedDoctorId() {
+        return requireType(Doctor.class, "Only Doctors can access this resource.").id();
+    }
+
+    private AuthenticatedUser requireType(Class<? extends User> expected, String message) {
+        AuthenticatedUser principal = getPrincipal();
+        if (!isA(principal, expected)) {
+            throw new UnauthorizedAccessException(message);
+        }
+        return principal;
+    }
+
+    private static boolean isA(AuthenticatedUser principal, Class<? extends User> type) {
+        return type.getAnnotation(DiscriminatorValue.class).value().equals(principal.dtype());
+    }
+
+    // Skips the load when the principal already shows the caller is some other type
+    private User getAuthenticatedUser(Class<? extends User> expected) {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticated && !isA(authenticated, expected)) {
+            return null;
+        }
+        return getAuthenticatedUser();
+    }
 }
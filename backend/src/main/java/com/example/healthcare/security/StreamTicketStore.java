@@ -0,0 +1,79 @@
+package com.example.healthcare.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-use tickets that open the push stream ({@code GET /api/stream?ticket=}).
+ * <p>
+ * EventSource cannot send an Authorization header, and putting the JWT in the URL would leave a
+ * day-long credential in access logs and browser history. Instead an authenticated
+ * {@code POST /api/stream/ticket} gets a random ticket that is valid for {@code push.sse.ticket-ttl-ms}
+ * and is consumed by the first stream request presenting it. Tickets are held in this instance's
+ * memory, like the streams themselves.
+ */
+@Component
+public class StreamTicketStore {
+
+    private static final int TICKET_BYTES = 32;
+
+    @Value("${push.sse.ticket-ttl-ms:30000}")
+    private long ttlMs = 30_000;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private record Ticket(AuthenticatedUser principal, long expiresAt) {
+    }
+
+    public String issue(AuthenticatedUser principal) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(principal, System.currentTimeMillis() + ttlMs));
+        return ticket;
+    }
+
+    /**
+     * Consumes the ticket.
+     *
+     * @return the principal it was issued to; empty if unknown, already used or expired
+     */
+    public Optional<AuthenticatedUser> redeem(String ticket) {
+        if (ticket == null || ticket.isBlank()) {
+            return Optional.empty();
+        }
+        Ticket t = tickets.remove(ticket);
+        if (t == null || t.expiresAt() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(t.principal());
+    }
+
+    /**
+     * Drops the user's unredeemed tickets, so a revoked session cannot open a stream with one.
+     */
+    public void discard(Long userId) {
+        tickets.values().removeIf(t -> userId.equals(t.principal().id()));
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    /**
+     * Drops tickets that were never redeemed.
+     */
+    @Scheduled(fixedDelayString = "${push.sse.ticket-ttl-ms:30000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        tickets.values().removeIf(t -> t.expiresAt() < now);
+    }
+}
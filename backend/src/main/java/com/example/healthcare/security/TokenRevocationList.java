@@ -0,0 +1,238 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.entity.RevokedToken;
+import com.example.healthcare.repository.RevokedTokenRepository;
+import com.example.healthcare.service.JwtService;
+import com.example.healthcare.service.PushService;
+import com.example.healthcare.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked sessions (logout, by token id) and revoked users (deactivation, every token issued
+ * up to that moment), checked by {@link JwtAuthenticationFilter} on every request.
+ * <p>
+ * Revocations are stored in {@code revoked_tokens} and mirrored into an in-memory Bloom filter.
+ * A request whose token and user are not in the filter (nearly all of them) is answered without
+ * touching the database; a filter hit is confirmed against the table, so false positives cost one
+ * indexed lookup and never reject a valid token. Rows are purged once their tokens have expired.
+ * <p>
+ * Other instances learn about a revocation from the table: a request arriving when the filter was last
+ * synced more than {@code security.revocation.max-staleness-ms} ago syncs it first, so a revoked token
+ * is refused everywhere once that bound (100 ms by default, 0 to sync before every check) plus the
+ * sync query has passed. The scheduled {@link #sync()} only keeps idle instances current.
+ * <p>
+ * Push streams are authenticated once, when they open, so a revocation also closes the user's streams
+ * and unredeemed stream tickets: on the revoking instance after its transaction commits, on the others
+ * when their sync first sees the row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    // Re-read window of each sync, covering transactions that commit after a later sync ran
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository repository;
+    private final PushService pushService;
+    private final StreamTicketStore streamTickets;
+
+    @Value("${security.revocation.bloom-bits:1048576}")
+    private int bloomBits = 1 << 20;
+
+    @Value("${security.revocation.bloom-hashes:5}")
+    private int bloomHashes = 5;
+
+    @Value("${security.revocation.max-staleness-ms:100}")
+    private long maxStalenessMs = 100;
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    // Rows whose streams were already closed here, by id; kept for the sync overlap so re-reads skip them
+    private final Map<Long, Instant> handled = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+
+    /**
+     * Revokes one session, e.g. on logout.
+     *
+     * @param token the verified token; tokens without a jti claim revoke their user instead
+     */
+    public void revokeToken(JwtService.VerifiedToken token) {
+        if (token.tokenId() == null) {
+            revokeUser(token.userId());
+            return;
+        }
+        RevokedToken row = new RevokedToken();
+        row.setTokenId(token.tokenId());
+        row.setTokenUserId(token.userId());
+        row.setRevokedAt(Instant.now());
+        row.setExpiresAt(Instant.ofEpochMilli(token.expiresAt()));
+        repository.save(row);
+        filter().add(tokenKey(token.tokenId()));
+        markHandled(row);
+        closeStreamsAfterCommit(token.userId());
+    }
+
+    /**
+     * Revokes every token issued to the user up to now, e.g. on soft delete or deactivation.
+     * Tokens issued after a reactivation and a new login are accepted again.
+     */
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        RevokedToken row = new RevokedToken();
+        row.setUserId(userId);
+        row.setRevokedAt(now);
+        row.setExpiresAt(now.plusMillis(JwtService.EXPIRATION_TIME));
+        repository.save(row);
+        filter().add(userKey(userId));
+        markHandled(row);
+        closeStreamsAfterCommit(userId);
+    }
+
+    /**
+     * True when the token was logged out, or belongs to a user revoked at or after its issue time.
+     */
+    public boolean isRevoked(JwtService.VerifiedToken token) {
+        if (isStale()) {
+            syncIfStale();
+        }
+        BloomFilter current = filter();
+        boolean tokenHit = token.tokenId() != null && current.mightContain(tokenKey(token.tokenId()));
+        boolean userHit = token.userId() != null && current.mightContain(userKey(token.userId()));
+        if (!tokenHit && !userHit) {
+            return false;
+        }
+        if (tokenHit && repository.existsByTokenId(token.tokenId())) {
+            return true;
+        }
+        // iat has second precision, so a token issued in the same second as the revocation is rejected too
+        return userHit && repository.existsByUserIdAndRevokedAtGreaterThanEqual(
+                token.userId(), Instant.ofEpochMilli(token.issuedAt()));
+    }
+
+    /**
+     * Adds revocations recorded by any instance since the last sync to the local filter, and closes
+     * the push streams of users revoked elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:2000}")
+    public synchronized void sync() {
+        BloomFilter current = filter();
+        Instant now = Instant.now();
+        List<RevokedToken> rows = repository.findByRevokedAtGreaterThanEqual(lastSync.minus(SYNC_OVERLAP));
+        rows.forEach(row -> add(current, row));
+        lastSync = now;
+        for (RevokedToken row : rows) {
+            if (handled.putIfAbsent(row.getId(), row.getRevokedAt()) == null) {
+                closeStreams(row.getUserId() != null ? row.getUserId() : row.getTokenUserId());
+            }
+        }
+        Instant horizon = now.minus(SYNC_OVERLAP);
+        handled.values().removeIf(revokedAt -> revokedAt.isBefore(horizon));
+    }
+
+    /**
+     * Deletes rows whose tokens have all expired and rebuilds the filter without them.
+     */
+    @Scheduled(cron = "${security.revocation.purge-cron:0 20 * * * *}")
+    public void purge() {
+        int deleted = repository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired token revocation(s)", deleted);
+            rebuild();
+        }
+    }
+
+    private void markHandled(RevokedToken row) {
+        if (row.getId() != null) {
+            handled.put(row.getId(), row.getRevokedAt());
+        }
+    }
+
+    // A rolled back revocation leaves the streams open; closing before commit would let them reconnect unrevoked
+    private void closeStreamsAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    closeStreams(userId);
+                }
+            });
+        } else {
+            closeStreams(userId);
+        }
+    }
+
+    private void closeStreams(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        streamTickets.discard(userId);
+        pushService.disconnect(userId);
+    }
+
+    private boolean isStale() {
+        return Duration.between(lastSync, Instant.now()).toMillis() >= maxStalenessMs;
+    }
+
+    // One request syncs, the ones queued behind it find the filter current again
+    private synchronized void syncIfStale() {
+        if (isStale()) {
+            sync();
+        }
+    }
+
+    private synchronized void rebuild() {
+        Instant now = Instant.now();
+        BloomFilter fresh = new BloomFilter(bloomBits, bloomHashes);
+        repository.findByExpiresAtAfter(now).forEach(row -> add(fresh, row));
+        filter = fresh;
+        lastSync = now;
+    }
+
+    private BloomFilter filter() {
+        BloomFilter current = filter;
+        if (current == null) {
+            rebuild();
+            current = filter;
+        }
+        return current;
+    }
+
+    private static void add(BloomFilter filter, RevokedToken row) {
+        if (row.getTokenId() != null) {
+            filter.add(tokenKey(row.getTokenId()));
+        }
+        if (row.getUserId() != null) {
+            filter.add(userKey(row.getUserId()));
+        }
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "t:" + tokenId;
+    }
+
+    private static String userKey(Long userId) {
+        return "u:" + userId;
+    }
+}
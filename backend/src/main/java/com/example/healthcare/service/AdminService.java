@@ -5,6 +5,12 @@ package com.example.healthcare.service;
 
 import com.example.healthcare.entity.*;
 import com.example.healthcare.dto.Appointments.AppointmentDto;
+import com.example.healthcare.dto.Appointments.AppointmentExportFormat;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface AdminService {
@@ -15,11 +21,12 @@ public interface AdminService {
     List<Doctor> getAllDoctors(User admin);
     List<Patient> getAllPatients(User admin);
     List<AppointmentDto> getAllAppointments(User admin);
+    void exportAppointments(User admin, AppointmentExportFormat format, OutputStream out) throws IOException;
     void reactivateDoctor(User admin, Long doctorId);
     void updateAdminProfile(Long adminId, Admin updatedAdmin);
     void softDeleteDoctor(Admin admin, Long doctorId);
     void softDeletePatient(Admin admin, Long patientId);
-    List<AuditLog> getAuditLogs(Admin admin);
+    List<AuditLogDto> getAuditLogs(Admin admin, AuditLogQuery query);
 }
 
 
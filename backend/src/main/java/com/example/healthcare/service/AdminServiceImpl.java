@@ -4,12 +4,30 @@ import com.example.healthcare.entity.*;
 
 
 import com.example.healthcare.dto.Appointments.AppointmentDto;
-import com.example.healthcare.dto.Appointments.AppointmentMapper;
+import com.example.healthcare.dto.Appointments.AppointmentExportFormat;
+import com.example.healthcare.dto.Audit.AuditEvent;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
 import com.example.healthcare.exception.AdminNotFoundException;
 import com.example.healthcare.exception.UnauthorizedAccessException;
 import com.example.healthcare.repository.*;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.TokenRevocationList;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +43,14 @@ public class AdminServiceImpl implements AdminService
     private final AdminRepository adminRepository;
     private final AuditLogService auditLogService; // ✅ Injected Audit Log Service
     private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    private final EntityManager entityManager;
+
+    // Rows per round trip for the export cursor; MySQL streams row by row only with Integer.MIN_VALUE
+    @Value("${admin.export.fetch-size:-2147483648}")
+    private int exportFetchSize = Integer.MIN_VALUE;
 
     private void verifyActiveAdmin(User admin) {
         if (!admin.getRole().isAdmin()) {
@@ -42,9 +68,12 @@ public class AdminServiceImpl implements AdminService
         doctorRepository.save(doctor);
 
         // ✅ Log the action
-        auditLogService.logAction(
-                "Doctor Added", admin.getEmail(), "ADMIN",
-                "Doctor ID: " + doctor.getId(), null, doctor.toString()
+        auditLogService.record(
+                AuditEvent.of("Doctor Added", AuditEvent.DOCTOR, doctor.getId())
+                        .set("email", doctor.getEmail())
+                        .set("specialty", doctor.getSpecialty())
+                        .set("licenseNumber", doctor.getLicenseNumber()),
+                admin.getEmail(), "ADMIN"
         );
     }
 
@@ -54,9 +83,10 @@ public class AdminServiceImpl implements AdminService
         patient.setPassword(passwordEncoder.encode(patient.getPassword()));
         patientRepository.save(patient);
 
-        auditLogService.logAction(
-                "Patient Added", admin.getEmail(), "ADMIN",
-                "Patient ID: " + patient.getId(), null, patient.toString()
+        auditLogService.record(
+                AuditEvent.of("Patient Added", AuditEvent.PATIENT, patient.getId())
+                        .set("email", patient.getEmail()),
+                admin.getEmail(), "ADMIN"
         );
     }
 
@@ -67,10 +97,13 @@ public class AdminServiceImpl implements AdminService
                 .orElseThrow(() -> new IllegalArgumentException("Doctor not found."));
         doctor.setDeleted(true);
         doctorRepository.save(doctor);
+        principalCache.evict(doctor.getEmail());
+        revocationList.revokeUser(doctor.getId());
 
-        auditLogService.logAction(
-                "Doctor Removed", admin.getEmail(), "ADMIN",
-                "Doctor ID: " + doctorId, doctor.toString(), null
+        auditLogService.record(
+                AuditEvent.of("Doctor Removed", AuditEvent.DOCTOR, doctorId)
+                        .changed("deleted", false, true),
+                admin.getEmail(), "ADMIN"
         );
     }
 
@@ -81,10 +114,13 @@ public class AdminServiceImpl implements AdminService
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found."));
         patient.setDeleted(true);
         patientRepository.save(patient);
+        principalCache.evict(patient.getEmail());
+        revocationList.revokeUser(patient.getId());
 
-        auditLogService.logAction(
-                "Patient Removed", admin.getEmail(), "ADMIN",
-                "Patient ID: " + patientId, patient.toString(), null
+        auditLogService.record(
+                AuditEvent.of("Patient Removed", AuditEvent.PATIENT, patientId)
+                        .changed("deleted", false, true),
+                admin.getEmail(), "ADMIN"
         );
     }
 
@@ -100,9 +136,68 @@ public class AdminServiceImpl implements AdminService
 
     public List<AppointmentDto> getAllAppointments(User admin) {
         verifyActiveAdmin(admin);
-        return appointmentRepository.findAll().stream()
-                .map(AppointmentMapper::toDto)
-                .toList();
+        return appointmentRepository.findAllDtos();
+    }
+
+    /**
+     * Writes every appointment to {@code out} while reading them from a database cursor,
+     * so memory use does not grow with the table. Rows are not managed entities,
+     * hence nothing piles up in the persistence context either. The fetch size is set on
+     * this statement only, so other queries keep reading their (bounded) results in one go.
+     */
+    @Transactional(readOnly = true)
+    public void exportAppointments(User admin, AppointmentExportFormat format, OutputStream out) throws IOException {
+        verifyActiveAdmin(admin);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<AppointmentDto> rows = entityManager
+                .createQuery(AppointmentRepository.DTO_SELECT + "ORDER BY a.id", AppointmentDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .getResultStream()) {
+            if (format == AppointmentExportFormat.CSV) {
+                writeCsv(rows, writer);
+            } else {
+                writeNdjson(rows, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Stream<AppointmentDto> rows, Writer writer) throws IOException {
+        ObjectWriter json = objectMapper.writerFor(AppointmentDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (AppointmentDto dto : (Iterable<AppointmentDto>) rows::iterator) {
+            json.writeValue(writer, dto);
+            writer.write('\n');
+        }
+    }
+
+    private static void writeCsv(Stream<AppointmentDto> rows, Writer writer) throws IOException {
+        writer.write("id,appointmentTime,status,doctorName,specialty,doctorContact,patientName," +
+                "location,notes,cancelledByName,createdAt,updatedAt\n");
+        for (AppointmentDto dto : (Iterable<AppointmentDto>) rows::iterator) {
+            writer.write(csvRow(dto.getId(), dto.getAppointmentTime(), dto.getStatus(), dto.getDoctorName(),
+                    dto.getSpecialty(), dto.getDoctorContact(), dto.getPatientName(), dto.getLocation(),
+                    dto.getNotes(), dto.getCancelledByName(), dto.getCreatedAt(), dto.getUpdatedAt()));
+        }
+    }
+
+    private static String csvRow(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            if (values[i] == null) continue;
+            String v = values[i].toString();
+            // Spreadsheets evaluate cells starting with these as formulas; a leading ' keeps them text
+            if (!v.isEmpty() && "=+-@\t\r".indexOf(v.charAt(0)) >= 0) {
+                v = "'" + v;
+            }
+            if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+                sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(v);
+            }
+        }
+        return sb.append('\n').toString();
     }
 
     @Transactional
@@ -117,10 +212,12 @@ public class AdminServiceImpl implements AdminService
 
         doctor.setDeleted(false);
         doctorRepository.save(doctor);
+        principalCache.evict(doctor.getEmail());
 
-        auditLogService.logAction(
-                "Doctor Reactivated", admin.getEmail(), "ADMIN",
-                "Doctor ID: " + doctorId, null, doctor.toString()
+        auditLogService.record(
+                AuditEvent.of("Doctor Reactivated", AuditEvent.DOCTOR, doctorId)
+                        .changed("deleted", true, false),
+                admin.getEmail(), "ADMIN"
         );
     }
 
@@ -129,24 +226,25 @@ public class AdminServiceImpl implements AdminService
         Admin admin = adminRepository.findById(adminId)
                 .orElseThrow(() -> new AdminNotFoundException("Admin not found with ID: " + adminId));
 
-        String previousData = admin.toString();
+        AuditEvent event = AuditEvent.of("Admin Profile Updated", AuditEvent.ADMIN, adminId);
 
         if (updatedAdmin.getFirstName() != null) {
+            event.changed("firstName", admin.getFirstName(), updatedAdmin.getFirstName());
             admin.setFirstName(updatedAdmin.getFirstName());
         }
         if (updatedAdmin.getLastName() != null) {
+            event.changed("lastName", admin.getLastName(), updatedAdmin.getLastName());
             admin.setLastName(updatedAdmin.getLastName());
         }
         if (updatedAdmin.getPhoneNumber() != null) {
+            event.changed("phoneNumber", admin.getPhoneNumber(), updatedAdmin.getPhoneNumber());
             admin.setPhoneNumber(updatedAdmin.getPhoneNumber());
         }
 
         adminRepository.save(admin);
+        principalCache.evict(admin.getEmail());
 
-        auditLogService.logAction(
-                "Admin Profile Updated", admin.getEmail(), "ADMIN",
-                "Admin ID: " + adminId, previousData, admin.toString()
-        );
+        auditLogService.record(event, admin.getEmail(), "ADMIN");
     }
 
     @Transactional
@@ -163,15 +261,14 @@ public class AdminServiceImpl implements AdminService
 
         doctor.setDeleted(true);
         doctorRepository.save(doctor);
+        principalCache.evict(doctor.getEmail());
+        revocationList.revokeUser(doctor.getId());
 
         // ✅ Audit Log Entry
-        auditLogService.logAction(
-                "Doctor Soft Deleted",
-                admin.getEmail(),
-                admin.getRole().name(),
-                "Doctor ID: " + doctorId,
-                "Active",
-                "Deleted"
+        auditLogService.record(
+                AuditEvent.of("Doctor Soft Deleted", AuditEvent.DOCTOR, doctorId)
+                        .changed("deleted", false, true),
+                admin.getEmail(), admin.getRole().name()
         );
     }
 
@@ -189,24 +286,23 @@ public class AdminServiceImpl implements AdminService
 
         patient.setDeleted(true);
         patientRepository.save(patient);
+        principalCache.evict(patient.getEmail());
+        revocationList.revokeUser(patient.getId());
 
         // ✅ Audit Log Entry
-        auditLogService.logAction(
-                "Patient Soft Deleted",
-                admin.getEmail(),
-                admin.getRole().name(),
-                "Patient ID: " + patientId,
-                "Active",
-                "Deleted"
+        auditLogService.record(
+                AuditEvent.of("Patient Soft Deleted", AuditEvent.PATIENT, patientId)
+                        .changed("deleted", false, true),
+                admin.getEmail(), admin.getRole().name()
         );
     }
 
-    public List<AuditLog> getAuditLogs(Admin admin)
+    public List<AuditLogDto> getAuditLogs(Admin admin, AuditLogQuery query)
     {
         verifyActiveAdmin(admin); // ✅ Ensure Admin is Active & Not Deleted
 
-        // ✅ Fetch all audit logs (Admins can view full logs)
-        return auditLogService.getAllLogs();
+        // ✅ Admins can search the full logs, one page at a time
+        return auditLogService.search(query);
     }
 }
 
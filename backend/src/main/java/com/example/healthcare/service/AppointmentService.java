@@ -1,22 +1,26 @@
 package com.example.healthcare.service;
 
 import com.example.healthcare.dto.Appointments.AppointmentDto;
-import com.example.healthcare.dto.Appointments.AppointmentMapper;
+import com.example.healthcare.dto.Appointments.RecurringAppointmentRequest;
+import com.example.healthcare.dto.Audit.AuditEvent;
 import com.example.healthcare.entity.*;
 import com.example.healthcare.entity.enums.AppointmentStatus;
+import com.example.healthcare.exception.AppointmentConflictException;
 import com.example.healthcare.exception.AppointmentNotFoundException;
 import com.example.healthcare.exception.UnauthorizedAccessException;
+import com.example.healthcare.repository.AppointmentBatchRepository;
 import com.example.healthcare.repository.AppointmentRepository;
 import com.example.healthcare.repository.DoctorRepository;
 import com.example.healthcare.repository.PatientRepository;
 import com.example.healthcare.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +32,13 @@ public class AppointmentService {
     private final UserRepository      userRepository;
     private final AuditLogService     auditLogService; // ✅ Injected Audit Log Service
     private final DoctorScheduleService doctorScheduleService;
+    private final AppointmentBatchRepository appointmentBatchRepository;
+
+    private static final String SLOT_TAKEN = "This time slot is already booked.";
+    private static final String PATIENT_BUSY = "You already have an appointment at this time.";
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
 
     // ✅ Patient Books an Appointment
     @Transactional
@@ -49,12 +60,13 @@ public class AppointmentService {
                 AppointmentStatus.RESCHEDULED
         );
 
+        // Fast path for the common case; the unique slot keys on appointments close the race below
         if (appointmentRepository.existsByDoctorIdAndAppointmentTimeAndStatusIn(doctorId, appointmentTime, activeStatuses)) {
-            throw new IllegalArgumentException("This time slot is already booked.");
+            throw new AppointmentConflictException(SLOT_TAKEN);
         }
 
         if (appointmentRepository.existsByPatientIdAndAppointmentTimeAndStatusIn(patientId, appointmentTime, activeStatuses)) {
-            throw new IllegalArgumentException("You already have an appointment at this time.");
+            throw new AppointmentConflictException(PATIENT_BUSY);
         }
 
         // --- Check doctor's schedule availability ---
@@ -76,17 +88,84 @@ public class AppointmentService {
         appointment.setNotes("");    // empty string instead of null
 
         // --- Persist to DB ---
-        appointmentRepository.save(appointment);
+        // Flushed here so a concurrent booking of the same slot fails on the unique key inside this call
+        try {
+            appointmentRepository.save(appointment);
+            appointmentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw toSlotConflict(e);
+        }
 
         // --- Audit log ---
-        auditLogService.logAction(
-                "Appointment Booked",
+        auditLogService.record(
+                AuditEvent.of("Appointment Booked", AuditEvent.APPOINTMENT, appointment.getId())
+                        .set("doctorId", doctorId)
+                        .set("appointmentTime", appointmentTime),
                 patient.getEmail(),
-                "PATIENT",
-                "Doctor ID: " + doctorId,
-                null,
-                "Appointment Time: " + appointmentTime
+                "PATIENT"
+        );
+    }
+
+    // ✅ Patient Books a Series of Appointments (all or nothing)
+    @Transactional
+    public List<LocalDateTime> bookRecurringAppointments(Long patientId, RecurringAppointmentRequest request) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new IllegalArgumentException("Patient not found."));
+        Long doctorId = request.getDoctorId();
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found.");
+        }
+
+        List<LocalDateTime> times = request.appointmentTimes();
+        if (times.isEmpty()) {
+            throw new IllegalArgumentException("At least one appointment is required.");
+        }
+        if (times.get(0).isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("You cannot book an appointment in the past.");
+        }
+
+        // --- Validate the whole series: schedule from the availability index, then one query for clashes ---
+        List<LocalDateTime> unavailable = doctorScheduleService.findUnavailableTimes(doctorId, times);
+        if (!unavailable.isEmpty()) {
+            throw new IllegalArgumentException("Doctor's schedule is not available for: " + unavailable);
+        }
+        List<LocalDateTime> taken = appointmentRepository.findTakenTimes(doctorId, patientId, times,
+                List.of(AppointmentStatus.BOOKED, AppointmentStatus.RESCHEDULED));
+        if (!taken.isEmpty()) {
+            throw new AppointmentConflictException("These time slots are already booked: " + taken.stream().sorted().toList());
+        }
+
+        // --- Insert all rows in one JDBC batch; any slot-key violation rolls back the whole series ---
+        try {
+            appointmentBatchRepository.insertBooked(doctorId, patientId, times);
+        } catch (DataIntegrityViolationException e) {
+            RuntimeException conflict = toSlotConflict(e);
+            throw conflict instanceof AppointmentConflictException
+                    ? new AppointmentConflictException("One or more time slots of the series were just booked.")
+                    : conflict;
+        }
+
+        auditLogService.record(
+                AuditEvent.of("Appointment Series Booked", AuditEvent.DOCTOR, doctorId)
+                        .set("patientId", patientId)
+                        .set("appointments", times.size())
+                        .set("intervalWeeks", request.getIntervalWeeks())
+                        .set("first", times.get(0))
+                        .set("last", times.get(times.size() - 1)),
+                patient.getEmail(), "PATIENT"
         );
+        return times;
+    }
+
+    private static RuntimeException toSlotConflict(DataIntegrityViolationException e) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (detail.contains(Appointment.DOCTOR_SLOT_CONSTRAINT)) {
+            return new AppointmentConflictException(SLOT_TAKEN);
+        }
+        if (detail.contains(Appointment.PATIENT_SLOT_CONSTRAINT)) {
+            return new AppointmentConflictException(PATIENT_BUSY);
+        }
+        return e;
     }
 
     // ✅ Cancel Appointment (Patients & Admins)
@@ -106,19 +185,13 @@ public class AppointmentService {
         if (appointment.getPatient().getId().equals(userId) ||
                 appointment.getDoctor().getId().equals(userId)) {
 
-            String previousData = appointment.toString();
+            AuditEvent event = AuditEvent.of("Appointment Cancelled", AuditEvent.APPOINTMENT, appointmentId)
+                    .changed("status", appointment.getStatus(), AppointmentStatus.CANCELLED);
             appointment.setStatus(AppointmentStatus.CANCELLED);
             appointment.setCancelledBy(user);
             appointmentRepository.save(appointment);
 
-            auditLogService.logAction(
-                    "Appointment Cancelled",
-                    user.getEmail(),
-                    user.getRole().name(),
-                    "Appointment ID: " + appointmentId,
-                    previousData,
-                    "Status: CANCELLED"
-            );
+            auditLogService.record(event, user.getEmail(), user.getRole().name());
         } else {
             throw new UnauthorizedAccessException(
                     "Only the assigned doctor or patient can cancel this appointment.");
@@ -154,18 +227,12 @@ public class AppointmentService {
             throw new IllegalStateException("You cannot complete a future appointment.");
         }
 
-        String previousData = appointment.toString();
+        AuditEvent event = AuditEvent.of("Appointment Completed", AuditEvent.APPOINTMENT, appointmentId)
+                .changed("status", appointment.getStatus(), AppointmentStatus.COMPLETED);
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
 
-        auditLogService.logAction(
-                "Appointment Completed",
-                appointment.getDoctor().getEmail(),
-                "DOCTOR",
-                "Appointment ID: " + appointmentId,
-                previousData,
-                "Status: COMPLETED"
-        );
+        auditLogService.record(event, appointment.getDoctor().getEmail(), "DOCTOR");
     }
 
     // ✅ Other methods unchanged...
@@ -193,40 +260,53 @@ public class AppointmentService {
     public List<Appointment> getPastAppointments(User doctor) {
         return appointmentRepository.findByDoctorIdAndAppointmentTimeBefore(doctor.getId(), LocalDateTime.now());
     }
-    public List<AppointmentDto> getUpcomingAppointmentsDto(Long userId, boolean isDoctor) {
+    /**
+     * One page of upcoming, non-cancelled appointments in (appointment_time, id) order.
+     * Pass the time and id of the last row of the previous page to continue after it; both null for the first page.
+     */
+    public List<AppointmentDto> getUpcomingAppointmentsDto(Long userId, boolean isDoctor,
+                                                           LocalDateTime afterTime, Long afterId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        requireCursor(afterTime, afterId);
+        LocalDateTime cursorTime = afterTime != null ? afterTime : now;
+        long cursorId = afterId != null ? afterId : Long.MAX_VALUE;
+        Limit page = Limit.of(pageSize(limit));
         return (isDoctor
-                ? appointmentRepository.findByDoctorIdAndAppointmentTimeAfter(userId, LocalDateTime.now())
-                : appointmentRepository.findByPatientIdAndAppointmentTimeAfter(userId, LocalDateTime.now()))
-                .stream()
-                .filter(a -> !a.isDeleted() && a.getStatus() != AppointmentStatus.CANCELLED)
-                .map(AppointmentMapper::toDto)
-                .collect(Collectors.toList());
+                ? appointmentRepository.findUpcomingPageForDoctor(userId, now, cursorTime, cursorId, page)
+                : appointmentRepository.findUpcomingPageForPatient(userId, now, cursorTime, cursorId, page));
     }
 
-    public List<AppointmentDto> getPastAppointmentsDto(Long userId, boolean isDoctor) {
+    /**
+     * One page of past, non-cancelled appointments, newest first, optionally only those after {@code since}.
+     * Pass the time and id of the last row of the previous page to continue before it; both null for the first page.
+     */
+    public List<AppointmentDto> getPastAppointmentsDto(Long userId, boolean isDoctor, LocalDateTime since,
+                                                       LocalDateTime beforeTime, Long beforeId, int limit) {
+        requireCursor(beforeTime, beforeId);
+        LocalDateTime cursorTime = beforeTime != null ? beforeTime : LocalDateTime.now();
+        long cursorId = beforeId != null ? beforeId : Long.MIN_VALUE;
+        Limit page = Limit.of(pageSize(limit));
         return (isDoctor
-                ? appointmentRepository.findByDoctorIdAndAppointmentTimeBefore(userId, LocalDateTime.now())
-                : appointmentRepository.findByPatientIdAndAppointmentTimeBefore(userId, LocalDateTime.now()))
-                .stream()
-                .filter(a -> !a.isDeleted() && a.getStatus() != AppointmentStatus.CANCELLED)
-                .map(AppointmentMapper::toDto)
-                .collect(Collectors.toList());
+                ? appointmentRepository.findHistoryPageForDoctor(userId, since, cursorTime, cursorId, page)
+                : appointmentRepository.findHistoryPageForPatient(userId, since, cursorTime, cursorId, page));
+    }
+
+    private static int pageSize(int limit) {
+        return limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static void requireCursor(LocalDateTime time, Long id) {
+        if ((time == null) != (id == null)) {
+            throw new IllegalArgumentException("A page cursor needs both a time and an id.");
+        }
     }
 
     public List<AppointmentDto> getCancelledAppointmentsDto(Long patientId) {
-        return appointmentRepository
-                .findByPatientIdAndStatus(patientId, AppointmentStatus.CANCELLED)
-                .stream()
-                .map(AppointmentMapper::toDto)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDtosByPatientIdAndStatus(patientId, AppointmentStatus.CANCELLED);
     }
 
     public List<AppointmentDto> getCancelledAppointmentsForDoctor(Long doctorId) {
-        return appointmentRepository
-                .findByDoctorIdAndStatus(doctorId, AppointmentStatus.CANCELLED)
-                .stream()
-                .map(AppointmentMapper::toDto)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDtosByDoctorIdAndStatus(doctorId, AppointmentStatus.CANCELLED);
     }
 
 
@@ -0,0 +1,290 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Audit.AuditArchiveEntry;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves whole months of audit logs older than the retention window out of {@code audit_logs}
+ * into gzip NDJSON files under {@code <storage.filesystem.path>/audit-archive}, listed in a manifest.
+ * <p>
+ * A month is written to a file first, then recorded in the manifest, and only then deleted from the
+ * table, so a crash in between leaves rows in both places rather than in neither. Rows logged late into
+ * an already archived month end up in an extra part file on the next run. Archived rows are still found
+ * by {@link AuditLogService#search}, which merges {@link #search} results into its pages.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditArchiveService {
+
+    static final String ARCHIVE_DIR = "audit-archive";
+    static final String MANIFEST = "manifest.json";
+
+    private static final Comparator<AuditLogDto> NEWEST_FIRST =
+            Comparator.comparing(AuditLogDto::getTimestamp).thenComparing(AuditLogDto::getId).reversed();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${storage.filesystem.path}")
+    private String storagePath;
+
+    @Value("${audit.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${audit.archive.retention-months:12}")
+    private int retentionMonths = 12;
+
+    @Value("${audit.archive.delete-batch:5000}")
+    private int deleteBatch = 5000;
+
+    private volatile List<AuditArchiveEntry> manifest;
+
+    /**
+     * Nightly run; archives every month that lies entirely before the retention window.
+     */
+    @Scheduled(cron = "${audit.archive.cron:0 30 3 * * *}")
+    public void archiveExpiredMonths() {
+        if (!enabled) return;
+        List<AuditArchiveEntry> archived = archiveBefore(YearMonth.now().minusMonths(retentionMonths));
+        if (!archived.isEmpty()) {
+            log.info("Archived {} audit log file(s)", archived.size());
+        }
+    }
+
+    /**
+     * Archives all audit logs of months before {@code cutoff} and removes them from the table.
+     *
+     * @return the manifest entries written by this call
+     */
+    public synchronized List<AuditArchiveEntry> archiveBefore(YearMonth cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs", Timestamp.class);
+        List<AuditArchiveEntry> written = new ArrayList<>();
+        if (oldest == null) return written;
+        try {
+            for (YearMonth m = YearMonth.from(oldest.toLocalDateTime()); m.isBefore(cutoff); m = m.plusMonths(1)) {
+                AuditArchiveEntry entry = archiveMonth(m);
+                if (entry != null) written.add(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit archival failed", e);
+        }
+        return written;
+    }
+
+    /**
+     * Whether any month has been archived, i.e. whether searches need to look at archive files.
+     */
+    public boolean hasArchives() {
+        return !manifest().isEmpty();
+    }
+
+    public List<AuditArchiveEntry> getManifest() {
+        return List.copyOf(manifest());
+    }
+
+    /**
+     * Up to {@code limit} archived entries matching {@code query}, newest first.
+     * Months are visited newest first and scanning stops once older months cannot make the page.
+     */
+    public List<AuditLogDto> search(AuditLogQuery query, int limit) {
+        // Min-heap on recency: the head is the oldest entry kept so far
+        PriorityQueue<AuditLogDto> kept = new PriorityQueue<>(NEWEST_FIRST.reversed());
+        TreeMap<YearMonth, List<AuditArchiveEntry>> byMonth = new TreeMap<>(Comparator.reverseOrder());
+        for (AuditArchiveEntry e : manifest()) {
+            byMonth.computeIfAbsent(e.getMonth(), k -> new ArrayList<>()).add(e);
+        }
+        for (Map.Entry<YearMonth, List<AuditArchiveEntry>> month : byMonth.entrySet()) {
+            LocalDateTime start = month.getKey().atDay(1).atStartOfDay();
+            LocalDateTime end = month.getKey().plusMonths(1).atDay(1).atStartOfDay();
+            if (query.getTo() != null && !start.isBefore(query.getTo())) continue;
+            if (query.getBeforeTime() != null && start.isAfter(query.getBeforeTime())) continue;
+            if (query.getFrom() != null && !end.isAfter(query.getFrom())) break;
+            if (kept.size() >= limit && !end.isAfter(kept.peek().getTimestamp())) break;
+            for (AuditArchiveEntry file : month.getValue()) {
+                scan(file, query, limit, kept);
+            }
+        }
+        List<AuditLogDto> result = new ArrayList<>(kept);
+        result.sort(NEWEST_FIRST);
+        if (!query.isDetail()) {
+            result.forEach(dto -> {
+                dto.setPreviousData(null);
+                dto.setNewData(null);
+            });
+        }
+        return result;
+    }
+
+    private void scan(AuditArchiveEntry file, AuditLogQuery query, int limit, PriorityQueue<AuditLogDto> kept) {
+        Path path = archiveDir().resolve(file.getFile());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AuditLogDto dto = objectMapper.readValue(line, AuditLogDto.class);
+                if (!matches(dto, query)) continue;
+                if (kept.size() < limit) {
+                    kept.add(dto);
+                } else if (NEWEST_FIRST.compare(dto, kept.peek()) < 0) {
+                    kept.poll();
+                    kept.add(dto);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit archive " + path, e);
+        }
+    }
+
+    private static boolean matches(AuditLogDto dto, AuditLogQuery q) {
+        LocalDateTime t = dto.getTimestamp();
+        return (isBlank(q.getPerformedBy()) || q.getPerformedBy().equals(dto.getPerformedBy()))
+                && (isBlank(q.getRole()) || q.getRole().equals(dto.getRole()))
+                && (isBlank(q.getAction()) || q.getAction().equals(dto.getAction()))
+                && (isBlank(q.getAffectedEntity()) || q.getAffectedEntity().equals(dto.getAffectedEntity()))
+                && (isBlank(q.getEntityType()) || q.getEntityType().equals(dto.getEntityType()))
+                && (q.getEntityId() == null || q.getEntityId().equals(dto.getEntityId()))
+                && (q.getFrom() == null || !t.isBefore(q.getFrom()))
+                && (q.getTo() == null || t.isBefore(q.getTo()))
+                && (q.getBeforeTime() == null || t.isBefore(q.getBeforeTime())
+                    || (t.equals(q.getBeforeTime()) && dto.getId() < q.getBeforeId()));
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private AuditArchiveEntry archiveMonth(YearMonth month) throws IOException {
+        Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        // Rows up to the highest id already archived for this month are in a file; only newer ones need one
+        long archivedUpTo = manifest().stream()
+                .filter(e -> e.getMonth().equals(month))
+                .mapToLong(AuditArchiveEntry::getMaxId)
+                .max().orElse(0);
+        int part = (int) manifest().stream().filter(e -> e.getMonth().equals(month)).count() + 1;
+
+        AuditArchiveEntry entry = null;
+        String fileName = "audit-" + month + (part > 1 ? "." + part : "") + ".ndjson.gz";
+        Path dir = archiveDir();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(fileName + ".tmp");
+        long[] stats = writeMonth(tmp, start, end, archivedUpTo);   // rows, minId, maxId
+        if (stats[0] > 0) {
+            Files.move(tmp, dir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            entry = new AuditArchiveEntry(month, fileName, stats[0], stats[1], stats[2], LocalDateTime.now());
+            List<AuditArchiveEntry> updated = new ArrayList<>(manifest());
+            updated.add(entry);
+            writeManifest(updated);
+            archivedUpTo = stats[2];
+        } else {
+            Files.deleteIfExists(tmp);
+        }
+
+        if (archivedUpTo > 0) {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(
+                        "DELETE FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id <= ? LIMIT ?",
+                        start, end, archivedUpTo, deleteBatch);
+            } while (deleted == deleteBatch);
+        }
+        return entry;
+    }
+
+    private long[] writeMonth(Path file, Timestamp start, Timestamp end, long afterId) throws IOException {
+        long[] stats = {0, Long.MAX_VALUE, Long.MIN_VALUE};
+        ObjectWriter json = objectMapper.writerFor(AuditLogDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(
+                        "SELECT id, action, performed_by, role, timestamp, affected_entity, entity_type, entity_id, " +
+                        "previous_data, new_data " +
+                        "FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id > ? ORDER BY timestamp, id");
+                ps.setTimestamp(1, start);
+                ps.setTimestamp(2, end);
+                ps.setLong(3, afterId);
+                ps.setFetchSize(500);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                AuditLogDto dto = new AuditLogDto(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getTimestamp(5).toLocalDateTime(), rs.getString(6), rs.getString(7),
+                        rs.getObject(8, Long.class), rs.getString(9), rs.getString(10));
+                try {
+                    json.writeValue(out, dto);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                stats[0]++;
+                stats[1] = Math.min(stats[1], dto.getId());
+                stats[2] = Math.max(stats[2], dto.getId());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return stats;
+    }
+
+    private List<AuditArchiveEntry> manifest() {
+        List<AuditArchiveEntry> m = manifest;
+        if (m == null) {
+            synchronized (this) {
+                if (manifest == null) {
+                    manifest = readManifest();
+                }
+                m = manifest;
+            }
+        }
+        return m;
+    }
+
+    private List<AuditArchiveEntry> readManifest() {
+        Path path = archiveDir().resolve(MANIFEST);
+        if (!Files.exists(path)) return List.of();
+        try {
+            return List.copyOf(objectMapper.readValue(path.toFile(), new TypeReference<List<AuditArchiveEntry>>() {}));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit archive manifest " + path, e);
+        }
+    }
+
+    private void writeManifest(List<AuditArchiveEntry> entries) throws IOException {
+        Path dir = archiveDir();
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), entries);
+        Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        manifest = List.copyOf(entries);
+    }
+
+    private Path archiveDir() {
+        return Paths.get(storagePath).resolve(ARCHIVE_DIR);
+    }
+}
@@ -1,22 +1,41 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Audit.AuditEvent;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
 import com.example.healthcare.entity.AuditLog;
 import com.example.healthcare.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditArchiveService auditArchiveService;
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+
+    private static final String TRUNCATED = "...[truncated]";
+
+    private static final Pattern ENTITY_LABEL = Pattern.compile("(\\w+) ID: (\\d+)");
 
     /**
      * Logs an action performed by a user.
+     * The entry is written asynchronously by {@link AuditLogWriter} (after the surrounding
+     * transaction commits) unless the writer is disabled, in which case it is inserted right away.
      *
      * @param action The action performed (e.g., "Admin Added", "Profile Updated")
      * @param performedBy The email of the user who performed the action
@@ -25,7 +44,6 @@ public class AuditLogService {
      * @param previousData The previous state of the data (if applicable)
      * @param newData The new state of the data (if applicable)
      */
-    @Transactional
     public void logAction(String action, String performedBy, String role, String affectedEntity, String previousData, String newData) {
         AuditLog log = new AuditLog();
         log.setAction(action);
@@ -34,8 +52,92 @@ public class AuditLogService {
         log.setAffectedEntity(affectedEntity);
         log.setPreviousData(previousData);
         log.setNewData(newData);
+        // "Doctor ID: 5" style labels also fill the indexed entity columns
+        Matcher m = affectedEntity == null ? null : ENTITY_LABEL.matcher(affectedEntity);
+        if (m != null && m.matches()) {
+            log.setEntityType(m.group(1));
+            log.setEntityId(Long.parseLong(m.group(2)));
+        }
+        write(log);
+    }
+
+    /**
+     * Logs a structured event: the entity reference plus only the fields that changed.
+     *
+     * @param event The event (action, entity and changed fields)
+     * @param performedBy The email of the user who performed the action
+     * @param role The role of the user (Owner, Admin, Doctor, Patient)
+     */
+    public void record(AuditEvent event, String performedBy, String role) {
+        AuditLog log = new AuditLog();
+        log.setAction(event.getAction());
+        log.setPerformedBy(performedBy);
+        log.setRole(role);
+        log.setAffectedEntity(event.getAffectedEntity());
+        log.setEntityType(event.getEntityType());
+        log.setEntityId(event.getEntityId());
+        log.setPreviousData(event.getPreviousData());
+        log.setNewData(event.getNewData());
+        write(log);
+    }
+
+    private void write(AuditLog log) {
         log.setTimestamp(LocalDateTime.now()); // ✅ Automatically sets timestamp
-        auditLogRepository.save(log);
+        log.setPreviousData(truncate(log.getPreviousData()));
+        log.setNewData(truncate(log.getNewData()));
+        if (auditLogWriter.isEnabled()) {
+            auditLogWriter.submit(log);
+        } else {
+            auditLogRepository.save(log);
+        }
+    }
+
+    // A too long payload would fail the insert (and its batch); keep its head and mark the cut
+    static String truncate(String data) {
+        if (data == null || data.length() <= AuditLog.DATA_LENGTH) {
+            return data;
+        }
+        int end = AuditLog.DATA_LENGTH - TRUNCATED.length();
+        if (Character.isHighSurrogate(data.charAt(end - 1))) {
+            end--;
+        }
+        return data.substring(0, end) + TRUNCATED;
+    }
+
+    /**
+     * Searches audit logs with the filters and page cursor of {@code query}, newest first.
+     * previousData/newData are only loaded when {@code query.isDetail()}.
+     * Pages that run past the rows still in the table continue into the archived months.
+     */
+    public List<AuditLogDto> search(AuditLogQuery query) {
+        if ((query.getBeforeTime() == null) != (query.getBeforeId() == null)) {
+            throw new IllegalArgumentException("A page cursor needs both beforeTime and beforeId.");
+        }
+        int size = query.getLimit() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(query.getLimit(), MAX_PAGE_SIZE);
+        Limit limit = Limit.of(size);
+        List<AuditLogDto> page = query.isDetail()
+                ? auditLogRepository.searchDetails(blankToNull(query.getPerformedBy()), blankToNull(query.getRole()),
+                        blankToNull(query.getAction()), blankToNull(query.getAffectedEntity()),
+                        blankToNull(query.getEntityType()), query.getEntityId(),
+                        query.getFrom(), query.getTo(), query.getBeforeTime(), query.getBeforeId(), limit)
+                : auditLogRepository.searchSummaries(blankToNull(query.getPerformedBy()), blankToNull(query.getRole()),
+                        blankToNull(query.getAction()), blankToNull(query.getAffectedEntity()),
+                        blankToNull(query.getEntityType()), query.getEntityId(),
+                        query.getFrom(), query.getTo(), query.getBeforeTime(), query.getBeforeId(), limit);
+        if (page.size() >= size || !auditArchiveService.hasArchives()) {
+            return page;
+        }
+        Map<Long, AuditLogDto> merged = new LinkedHashMap<>();
+        page.forEach(dto -> merged.put(dto.getId(), dto));
+        auditArchiveService.search(query, size).forEach(dto -> merged.putIfAbsent(dto.getId(), dto));
+        return merged.values().stream()
+                .sorted(Comparator.comparing(AuditLogDto::getTimestamp).thenComparing(AuditLogDto::getId).reversed())
+                .limit(size)
+                .toList();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 
     /**
@@ -0,0 +1,209 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.entity.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes audit entries off the request path.
+ * <p>
+ * Entries go onto a bounded queue and a single background thread inserts them in JDBC batches,
+ * either when {@code max-batch} entries are waiting or every {@code flush-interval-ms}.
+ * With {@code after-commit} on, an entry logged inside a transaction is only queued once that
+ * transaction commits, so rolled-back work leaves no audit trail (as with the old in-transaction insert).
+ * When the queue stays full for {@code offer-timeout-ms} the caller writes its entry itself,
+ * which slows producers down instead of dropping events. Shutdown drains the queue before returning.
+ * <p>
+ * Each batch is inserted in its own transaction, so a failing batch leaves nothing behind. It is retried
+ * once, then written row by row, so a bad entry is logged and rejected on its own instead of taking
+ * the rest of its batch with it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditLogWriter {
+
+    private static final String INSERT =
+            "INSERT INTO audit_logs (action, performed_by, role, timestamp, affected_entity, entity_type, entity_id, " +
+            "previous_data, new_data) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${audit.writer.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${audit.writer.after-commit:true}")
+    private boolean afterCommit = true;
+
+    @Value("${audit.writer.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${audit.writer.max-batch:500}")
+    private int maxBatch = 500;
+
+    @Value("${audit.writer.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    @Value("${audit.writer.offer-timeout-ms:100}")
+    private long offerTimeoutMs = 100;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder callerWrites = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private BlockingQueue<AuditLog> queue;
+    private TransactionTemplate ownTransaction;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!enabled) return;
+        running = true;
+        worker = Thread.ofPlatform().name("audit-log-writer").start(this::run);
+    }
+
+    /**
+     * Queues {@code entry} for insertion, after the current transaction commits if configured so.
+     */
+    public void submit(AuditLog entry) {
+        if (afterCommit && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * Whether entries are handed to the background thread; if not, callers insert synchronously.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getCallerWriteCount() {
+        return callerWrites.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void enqueue(AuditLog entry) {
+        boolean queued;
+        try {
+            queued = running && queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            // Backpressure: the writer is behind (or stopped), so this caller pays for its own insert.
+            // A new transaction, since after commit the caller's finished one may still be bound.
+            callerWrites.increment();
+            ownTransaction.executeWithoutResult(status -> insert(List.of(entry)));
+        }
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            try {
+                ownTransaction.executeWithoutResult(status -> insert(batch));
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Audit batch of {} entries failed (attempt {})", batch.size(), attempt, e);
+            }
+        }
+        // Still failing: isolate the offending rows so the others are kept
+        for (AuditLog entry : batch) {
+            try {
+                ownTransaction.executeWithoutResult(status -> insert(List.of(entry)));
+            } catch (RuntimeException e) {
+                rejected.increment();
+                log.error("Audit entry rejected: action={}, performedBy={}, affectedEntity={}, timestamp={}",
+                        entry.getAction(), entry.getPerformedBy(), entry.getAffectedEntity(), entry.getTimestamp(), e);
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> entries) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, e) -> {
+            ps.setString(1, e.getAction());
+            ps.setString(2, e.getPerformedBy());
+            ps.setString(3, e.getRole());
+            ps.setTimestamp(4, Timestamp.valueOf(e.getTimestamp()));
+            ps.setString(5, e.getAffectedEntity());
+            ps.setString(6, e.getEntityType());
+            ps.setObject(7, e.getEntityId(), Types.BIGINT);
+            ps.setString(8, e.getPreviousData());
+            ps.setString(9, e.getNewData());
+        });
+        written.add(entries.size());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        if (worker == null) return;
+        // Not interrupted: the worker notices within one flush interval and must not be cut off mid-batch
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+        // Anything the worker could not get to (or offered concurrently with shutdown) is written here
+        List<AuditLog> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) write(rest);
+    }
+}
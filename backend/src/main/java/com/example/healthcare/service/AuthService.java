@@ -1,5 +1,6 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Audit.AuditEvent;
 import com.example.healthcare.dto.Authorization.AuthRequest;
 import com.example.healthcare.dto.Authorization.AuthResponse;
 import com.example.healthcare.entity.Patient;
@@ -8,6 +9,7 @@ import com.example.healthcare.entity.enums.AccountStatus;
 import com.example.healthcare.entity.enums.UserRole;
 import com.example.healthcare.exception.UserNotFoundException;
 import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -23,6 +25,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuditLogService auditLogService;
     private final JwtService jwtService;
+    private final TokenRevocationList revocationList;
 
     public void registerUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -43,6 +46,7 @@ public class AuthService {
         }
 
         user.setPassword(passwordEncoder.encode(user.getPassword()));
+        Long patientId = null;
         if (user.getRole() == UserRole.PATIENT) {
             Patient patient = new Patient();
             patient.setFirstName(user.getFirstName());
@@ -52,11 +56,13 @@ public class AuthService {
             patient.setPhoneNumber(user.getPhoneNumber());
             patient.setRole(UserRole.PATIENT);
             userRepository.save(patient);
+            patientId = patient.getId();
         }
 
-        auditLogService.logAction(
-                "Patient Registered", user.getEmail(), user.getRole().name(),
-                "New patient account created", null, user.toString()
+        auditLogService.record(
+                AuditEvent.of("Patient Registered", AuditEvent.PATIENT, patientId)
+                        .set("email", user.getEmail()),
+                user.getEmail(), user.getRole().name()
         );
     }
 
@@ -138,4 +144,19 @@ public class AuthService {
                 user
         );
     }
+
+    /**
+     * Revokes the presented token so it stops working on every instance, while the user's
+     * other sessions stay logged in.
+     */
+    public void logout(String authHeader) {
+        String token = authHeader.replace("Bearer ", "");
+        JwtService.VerifiedToken verified = jwtService.verify(token);
+        revocationList.revokeToken(verified);
+
+        auditLogService.logAction(
+                "User Logged Out", verified.subject(), verified.role(),
+                "Session revoked", null, null
+        );
+    }
 }
@@ -0,0 +1,139 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Appointments.BookingLockStatsDto;
+import com.example.healthcare.dto.Appointments.RecurringAppointmentRequest;
+import com.example.healthcare.exception.BookingBusyException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes bookings per doctor in front of {@link AppointmentService}.
+ * <p>
+ * Doctors are mapped onto a fixed set of lock stripes, so bursts on one doctor queue up in
+ * memory instead of piling onto the same database rows, while bookings for doctors on other
+ * stripes run in parallel. {@link ReentrantLock} parks waiting virtual threads without pinning
+ * their carrier. The lock is held around the whole transactional call, i.e. until commit.
+ * The database unique slot keys remain the source of truth; this only reduces contention.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingCoordinator {
+
+    private final AppointmentService appointmentService;
+
+    @Value("${booking.lock.stripes:64}")
+    private int stripeCount = 64;
+
+    @Value("${booking.lock.timeout-ms:5000}")
+    private long timeoutMs = 5000;
+
+    private Stripe[] stripes;
+
+    @PostConstruct
+    void init() {
+        stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe();
+    }
+
+    /**
+     * Books through {@link AppointmentService#bookAppointment} while holding the doctor's stripe.
+     */
+    public void bookAppointment(Long patientId, Long doctorId, LocalDateTime appointmentTime) {
+        withDoctorLock(doctorId, () -> {
+            appointmentService.bookAppointment(patientId, doctorId, appointmentTime);
+            return null;
+        });
+    }
+
+    /**
+     * Books a whole series through {@link AppointmentService#bookRecurringAppointments} under one stripe.
+     */
+    public List<LocalDateTime> bookRecurringAppointments(Long patientId, RecurringAppointmentRequest request) {
+        return withDoctorLock(request.getDoctorId(),
+                () -> appointmentService.bookRecurringAppointments(patientId, request));
+    }
+
+    /**
+     * Runs {@code action} while holding the lock stripe of {@code doctorId}.
+     * Throws 503 if the stripe cannot be acquired within the configured timeout.
+     */
+    public <T> T withDoctorLock(Long doctorId, Supplier<T> action) {
+        Stripe stripe = stripes[stripeOf(doctorId)];
+        stripe.acquire(timeoutMs);
+        try {
+            return action.get();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Per-stripe counters for stripes that have been used at least once.
+     */
+    public List<BookingLockStatsDto> getStats() {
+        List<BookingLockStatsDto> stats = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe s = stripes[i];
+            long acquisitions = s.acquisitions.sum();
+            if (acquisitions == 0 && s.timeouts.sum() == 0) continue;
+            double avgWait = acquisitions == 0 ? 0 : s.waitNanos.sum() / (double) acquisitions / 1_000_000;
+            stats.add(new BookingLockStatsDto(i, acquisitions, s.contended.sum(), s.timeouts.sum(),
+                    avgWait, s.maxWaitNanos.get() / 1_000_000.0, s.lock.getQueueLength()));
+        }
+        return stats;
+    }
+
+    int stripeOf(Long doctorId) {
+        int h = Long.hashCode(doctorId);
+        h ^= (h >>> 16);   // spread sequential IDs across stripes
+        return Math.floorMod(h * 0x9E3779B9, stripes.length);
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder contended = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+        void acquire(long timeoutMs) {
+            if (lock.tryLock()) {
+                acquisitions.increment();
+                return;
+            }
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw busy();
+            }
+            long waited = System.nanoTime() - start;
+            if (!acquired) {
+                timeouts.increment();
+                throw busy();
+            }
+            acquisitions.increment();
+            contended.increment();
+            waitNanos.add(waited);
+            maxWaitNanos.accumulate(waited);
+        }
+
+        private static BookingBusyException busy() {
+            return new BookingBusyException("Too many bookings for this doctor right now, please retry.");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.entity.Conversation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Startup backfill for databases that held messages before the conversation structures existed:
+ * fills the ordered participant pair of older messages, and builds the {@code conversations}
+ * summary of every pair that has messages but no summary yet. Afterwards new rows get both from
+ * {@link com.example.healthcare.entity.Message#prePersist()} and {@link MessageServiceImpl}.
+ * <p>
+ * It runs once all singletons exist (the schema is up to date) and before the web server starts,
+ * so no request races it on this instance. Each pair is inserted on its own and only when it has
+ * no summary, so reruns, other instances and live sends never duplicate or skip a pair.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationBackfill implements SmartInitializingSingleton {
+
+    private static final String MISSING_PAIRS =
+            "SELECT DISTINCT m.user_low_id, m.user_high_id FROM messages m " +
+            "WHERE m.user_low_id IS NOT NULL AND NOT EXISTS (" +
+            "   SELECT 1 FROM conversations c WHERE c.user_low_id = m.user_low_id AND c.user_high_id = m.user_high_id)";
+
+    // Parameters: low, high, low, high (unread of low), low, high (unread of high), low, high (last message), low, high
+    private static final String BACKFILL_PAIR =
+            "INSERT INTO conversations (user_low_id, user_high_id, last_message_id, last_sender_id, snippet, " +
+            "last_message_at, unread_low, unread_high) " +
+            "SELECT ?, ?, m.id, m.sender_id, SUBSTRING(m.content, 1, " + Conversation.SNIPPET_LENGTH + "), m.timestamp, " +
+            "       (SELECT COUNT(*) FROM messages u WHERE u.user_low_id = ? AND u.user_high_id = ? " +
+            "           AND u.is_read = false AND u.receiver_id = u.user_low_id), " +
+            "       (SELECT COUNT(*) FROM messages u WHERE u.user_low_id = ? AND u.user_high_id = ? " +
+            "           AND u.is_read = false AND u.receiver_id = u.user_high_id) " +
+            "FROM messages m " +
+            "WHERE m.id = (SELECT MAX(l.id) FROM messages l WHERE l.user_low_id = ? AND l.user_high_id = ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM conversations c WHERE c.user_low_id = ? AND c.user_high_id = ?)";
+
+    private static final String BACKFILL_PAIRS =
+            "UPDATE messages SET user_low_id = LEAST(sender_id, receiver_id), " +
+            "user_high_id = GREATEST(sender_id, receiver_id) WHERE user_low_id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${messaging.conversations.backfill-on-startup:true}")
+    private boolean enabled = true;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) return;
+        try {
+            backfillMessagePairs();
+            backfillConversations();
+        } catch (DataAccessException e) {
+            // Not fatal: the next start resumes with whatever is still missing
+            log.warn("Conversation backfill stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of messages given their participant pair
+     */
+    public int backfillMessagePairs() {
+        int updated = jdbcTemplate.update(BACKFILL_PAIRS);
+        if (updated > 0) {
+            log.info("Backfilled the participant pair of {} messages", updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Creates the summary of each pair that has messages but no conversation row.
+     *
+     * @return the number of conversations created
+     */
+    public int backfillConversations() {
+        List<long[]> pairs = jdbcTemplate.query(MISSING_PAIRS, (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        int created = 0;
+        for (long[] pair : pairs) {
+            long low = pair[0], high = pair[1];
+            try {
+                created += jdbcTemplate.update(BACKFILL_PAIR, low, high, low, high, low, high, low, high, low, high);
+            } catch (DuplicateKeyException e) {
+                // A send or another instance created this pair's row meanwhile; that row is kept
+            }
+        }
+        if (created > 0) {
+            log.info("Backfilled {} conversation summaries from messages", created);
+        }
+        return created;
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.entity.DoctorSchedule.DoctorOneTimeSlot;
+import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringBreak;
+import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringSchedule;
+import com.example.healthcare.repository.DoctorSchedule.DoctorOneTimeSlotRepository;
+import com.example.healthcare.repository.DoctorSchedule.DoctorRecurringBreakRepository;
+import com.example.healthcare.repository.DoctorSchedule.DoctorRecurringScheduleRepository;
+import com.example.healthcare.util.MinuteRanges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory availability index, one entry per doctor.
+ * <p>
+ * Recurring slots and breaks are kept per day of week and one-time overrides per date,
+ * all as normalized {@link MinuteRanges} sets.
+ * Entries are built on first use and dropped by {@link DoctorScheduleService} on every
+ * schedule write, so slot lookups on the booking path do not go to the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorAvailabilityIndex {
+
+    private final DoctorRecurringScheduleRepository recurringRepo;
+    private final DoctorOneTimeSlotRepository oneTimeRepo;
+    private final DoctorRecurringBreakRepository breakRepo;
+
+    /**
+     * How many days ahead one-time overrides are preloaded when a doctor is indexed.
+     * Dates outside the window are loaded lazily, one date at a time.
+     */
+    @Value("${schedule.index.one-time-horizon-days:90}")
+    private int oneTimeHorizonDays = 90;
+
+    private final Map<Long, DoctorAvailability> byDoctor = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; loads only cache what they read if it did not move.
+    private final AtomicLong generation = new AtomicLong();
+
+    // Makes a load's generation check and its put atomic with respect to invalidations
+    private final Object publishLock = new Object();
+
+    /**
+     * Returns the indexed availability for a doctor, loading it on first use.
+     * The load runs outside the map, so it blocks no lookups of other doctors.
+     */
+    public DoctorAvailability get(Long doctorId) {
+        DoctorAvailability cached = byDoctor.get(doctorId);
+        if (cached != null) return cached;
+        long seen = generation.get();
+        return publish(doctorId, seen, load(doctorId));
+    }
+
+    /**
+     * Returns the indexed availability for several doctors, with one-time overrides
+     * available for every date in {@code [from, to]}. Doctors and dates that are not
+     * indexed yet are loaded with one batched query per schedule table instead of
+     * one query per doctor and date.
+     */
+    public Map<Long, DoctorAvailability> getAll(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<Long, DoctorAvailability> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long id : doctorIds) {
+            DoctorAvailability cached = byDoctor.get(id);
+            if (cached != null) result.put(id, cached);
+            else missing.add(id);
+        }
+
+        if (!missing.isEmpty()) {
+            long seen = generation.get();
+            LocalDate windowStart = LocalDate.now();
+            LocalDate windowEnd = windowEnd(windowStart);
+            Map<Long, List<DoctorRecurringSchedule>> recurring = new HashMap<>();
+            for (DoctorRecurringSchedule slot : recurringRepo.findByDoctorIdInAndActiveTrue(missing)) {
+                recurring.computeIfAbsent(slot.getDoctor().getId(), k -> new ArrayList<>()).add(slot);
+            }
+            Map<Long, List<DoctorRecurringBreak>> breaks = new HashMap<>();
+            for (DoctorRecurringBreak brk : breakRepo.findByDoctorIdInAndActiveTrue(missing)) {
+                breaks.computeIfAbsent(brk.getDoctor().getId(), k -> new ArrayList<>()).add(brk);
+            }
+            Map<Long, List<DoctorOneTimeSlot>> oneTime = new HashMap<>();
+            for (DoctorOneTimeSlot slot : oneTimeRepo.findByDoctorIdInAndDateBetween(missing, windowStart, windowEnd)) {
+                oneTime.computeIfAbsent(slot.getDoctor().getId(), k -> new ArrayList<>()).add(slot);
+            }
+            for (Long id : missing) {
+                DoctorAvailability loaded = build(id, windowStart, windowEnd,
+                        recurring.getOrDefault(id, List.of()),
+                        breaks.getOrDefault(id, List.of()),
+                        oneTime.getOrDefault(id, List.of()));
+                result.put(id, publish(id, seen, loaded));
+            }
+        }
+
+        prefetchOverrides(result.values(), from, to);
+        return result;
+    }
+
+    /**
+     * Drops the cached entry for a doctor. When called inside a transaction the entry is
+     * dropped again once the transaction completes, so a reader that rebuilt it from
+     * uncommitted state does not keep stale data around.
+     */
+    public void invalidate(Long doctorId) {
+        if (doctorId == null) return;
+        drop(doctorId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(doctorId);
+                }
+            });
+        }
+    }
+
+    private void drop(Long doctorId) {
+        synchronized (publishLock) {
+            generation.incrementAndGet();
+            byDoctor.remove(doctorId);
+        }
+    }
+
+    /**
+     * Caches an entry loaded while the generation was {@code seen}, unless an invalidation ran since
+     * or another reader got there first.
+     *
+     * @return the entry to use for this lookup
+     */
+    private DoctorAvailability publish(Long doctorId, long seen, DoctorAvailability loaded) {
+        synchronized (publishLock) {
+            if (generation.get() != seen) return loaded;
+            DoctorAvailability raced = byDoctor.putIfAbsent(doctorId, loaded);
+            return raced != null ? raced : loaded;
+        }
+    }
+
+    private DoctorAvailability load(Long doctorId) {
+        LocalDate from = LocalDate.now();
+        LocalDate to = windowEnd(from);
+        return build(doctorId, from, to,
+                recurringRepo.findByDoctorIdAndActiveTrue(doctorId),
+                breakRepo.findByDoctorIdAndActiveTrue(doctorId),
+                oneTimeRepo.findByDoctorIdAndDateBetween(doctorId, from, to));
+    }
+
+    private DoctorAvailability build(Long doctorId, LocalDate from, LocalDate to,
+                                     List<DoctorRecurringSchedule> recurringSlots,
+                                     List<DoctorRecurringBreak> recurringBreaks,
+                                     List<DoctorOneTimeSlot> oneTimeSlots) {
+        MinuteRanges.Builder[] recurring = emptyWeek();
+        for (DoctorRecurringSchedule slot : recurringSlots) {
+            recurring[slot.getDayOfWeek().ordinal()].add(slot.getStartTime(), slot.getEndTime());
+        }
+        MinuteRanges.Builder[] breaks = emptyWeek();
+        for (DoctorRecurringBreak brk : recurringBreaks) {
+            breaks[brk.getDayOfWeek().ordinal()].add(brk.getStartTime(), brk.getEndTime());
+        }
+
+        DoctorAvailability availability = new DoctorAvailability(doctorId, buildWeek(recurring), buildWeek(breaks), from, to);
+        Map<LocalDate, List<DoctorOneTimeSlot>> oneTimeByDate = new HashMap<>();
+        for (DoctorOneTimeSlot slot : oneTimeSlots) {
+            oneTimeByDate.computeIfAbsent(slot.getDate(), d -> new ArrayList<>()).add(slot);
+        }
+        oneTimeByDate.forEach((date, slots) -> availability.oneTimeByDate.put(date, DateOverrides.of(slots)));
+        return availability;
+    }
+
+    /**
+     * Fills one-time overrides for dates of {@code [from, to]} that fall outside the
+     * preloaded window of some doctors, using a single batched query.
+     */
+    private void prefetchOverrides(Collection<DoctorAvailability> availabilities, LocalDate from, LocalDate to) {
+        Set<Long> needed = new HashSet<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (DoctorAvailability availability : availabilities) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (availability.isResolved(date)) continue;
+                needed.add(availability.doctorId);
+                if (first == null || date.isBefore(first)) first = date;
+                if (last == null || date.isAfter(last)) last = date;
+            }
+        }
+        if (needed.isEmpty()) return;
+
+        Map<Long, Map<LocalDate, List<DoctorOneTimeSlot>>> byDoctorAndDate = new HashMap<>();
+        for (DoctorOneTimeSlot slot : oneTimeRepo.findByDoctorIdInAndDateBetween(needed, first, last)) {
+            byDoctorAndDate.computeIfAbsent(slot.getDoctor().getId(), k -> new HashMap<>())
+                    .computeIfAbsent(slot.getDate(), k -> new ArrayList<>()).add(slot);
+        }
+        for (DoctorAvailability availability : availabilities) {
+            if (!needed.contains(availability.doctorId)) continue;
+            Map<LocalDate, List<DoctorOneTimeSlot>> dates = byDoctorAndDate.getOrDefault(availability.doctorId, Map.of());
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                if (availability.isResolved(date)) continue;
+                availability.oneTimeByDate.putIfAbsent(date, DateOverrides.of(dates.getOrDefault(date, List.of())));
+            }
+        }
+    }
+
+    private LocalDate windowEnd(LocalDate windowStart) {
+        return windowStart.plusDays(Math.max(oneTimeHorizonDays, 0));
+    }
+
+    private static MinuteRanges.Builder[] emptyWeek() {
+        MinuteRanges.Builder[] week = new MinuteRanges.Builder[7];
+        for (int i = 0; i < 7; i++) week[i] = MinuteRanges.builder();
+        return week;
+    }
+
+    private static int[][] buildWeek(MinuteRanges.Builder[] week) {
+        int[][] built = new int[7][];
+        for (int i = 0; i < 7; i++) built[i] = week[i].build();
+        return built;
+    }
+
+    /**
+     * Indexed schedule of a single doctor. Recurring data is immutable; one-time overrides
+     * outside the preloaded window are filled in lazily.
+     */
+    public final class DoctorAvailability {
+        private final Long doctorId;
+        private final int[][] recurringByDay;
+        private final int[][] breaksByDay;
+        private final LocalDate windowStart;
+        private final LocalDate windowEnd;
+        private final Map<LocalDate, DateOverrides> oneTimeByDate = new ConcurrentHashMap<>();
+
+        private DoctorAvailability(Long doctorId, int[][] recurringByDay, int[][] breaksByDay,
+                                   LocalDate windowStart, LocalDate windowEnd) {
+            this.doctorId = doctorId;
+            this.recurringByDay = recurringByDay;
+            this.breaksByDay = breaksByDay;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+
+        /** Working ranges from active recurring slots on that day. */
+        public int[] recurring(DayOfWeek day) {
+            return recurringByDay[day.ordinal()];
+        }
+
+        /** Ranges from active recurring breaks on that day. */
+        public int[] breaks(DayOfWeek day) {
+            return breaksByDay[day.ordinal()];
+        }
+
+        /** One-time overrides (extra working time and blocks) for a date. */
+        public DateOverrides overrides(LocalDate date) {
+            DateOverrides cached = oneTimeByDate.get(date);
+            if (cached != null) return cached;
+            if (inWindow(date)) return DateOverrides.NONE;
+            DateOverrides loaded = DateOverrides.of(oneTimeRepo.findByDoctorIdAndDate(doctorId, date));
+            DateOverrides raced = oneTimeByDate.putIfAbsent(date, loaded);
+            return raced != null ? raced : loaded;
+        }
+
+        private boolean inWindow(LocalDate date) {
+            return !date.isBefore(windowStart) && !date.isAfter(windowEnd);
+        }
+
+        private boolean isResolved(LocalDate date) {
+            return inWindow(date) || oneTimeByDate.containsKey(date);
+        }
+
+        /**
+         * Same rules as {@link DoctorScheduleService#isAppointmentTimeAvailable}:
+         * one-time overrides win, otherwise the time must fall in a recurring slot and outside breaks.
+         */
+        public boolean isAvailableAt(LocalDate date, LocalTime time) {
+            int minute = MinuteRanges.toMinute(time);
+            DateOverrides overrides = overrides(date);
+            if (MinuteRanges.contains(overrides.blocked(), minute)) return false;
+            if (MinuteRanges.contains(overrides.extra(), minute)) return true;
+            DayOfWeek day = date.getDayOfWeek();
+            return MinuteRanges.contains(recurring(day), minute) && !MinuteRanges.contains(breaks(day), minute);
+        }
+    }
+
+    /**
+     * One-time overrides of a single date, split into extra working time and blocked time.
+     */
+    public record DateOverrides(int[] extra, int[] blocked) {
+        static final DateOverrides NONE = new DateOverrides(MinuteRanges.EMPTY, MinuteRanges.EMPTY);
+
+        static DateOverrides of(List<DoctorOneTimeSlot> slots) {
+            if (slots.isEmpty()) return NONE;
+            MinuteRanges.Builder extra = MinuteRanges.builder();
+            MinuteRanges.Builder blocked = MinuteRanges.builder();
+            for (DoctorOneTimeSlot slot : slots) {
+                (slot.isAvailable() ? extra : blocked).add(slot.getStartTime(), slot.getEndTime());
+            }
+            return new DateOverrides(extra.build(), blocked.build());
+        }
+    }
+}
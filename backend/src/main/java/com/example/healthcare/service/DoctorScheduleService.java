@@ -1,5 +1,6 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Audit.AuditEvent;
 import com.example.healthcare.dto.DoctorSchedule.*;
 import com.example.healthcare.dto.Profiles.DoctorProfileDto;
 import com.example.healthcare.entity.Doctor;
@@ -7,6 +8,7 @@ import com.example.healthcare.entity.DoctorSchedule.*;
 import com.example.healthcare.repository.DoctorSchedule.*;
 import com.example.healthcare.repository.DoctorRepository;
 import com.example.healthcare.service.AuditLogService;
+import com.example.healthcare.util.MinuteRanges;
 import com.example.healthcare.util.ScheduleValidationUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,6 +18,7 @@ import com.example.healthcare.entity.Appointment;
 import com.example.healthcare.entity.enums.AppointmentStatus;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,6 +33,13 @@ public class DoctorScheduleService {
     private final SlotRemovalRequestRepository slotRemovalRequestRepository;
     private final AuditLogService auditLogService;
     private final AppointmentRepository appointmentRepository;
+    private final DoctorAvailabilityIndex availabilityIndex;
+
+    private static final List<AppointmentStatus> ACTIVE_APPOINTMENT_STATUSES =
+            List.of(AppointmentStatus.BOOKED, AppointmentStatus.RESCHEDULED);
+
+    // Upper bound on the bulk slot search window
+    private static final int MAX_SEARCH_DAYS = 31;
 
     // === Availability Check for Overlaps (Used in All Add/Update Ops) ===
     /**
@@ -38,27 +48,19 @@ public class DoctorScheduleService {
      * - For one-time: checks same date one-time slots & recurring for the day.
      * - excludeId: skip an existing slot/break ID (for update ops).
      * - type: "RECURRING", "ONE_TIME", "BREAK"
+     * Each check is a day- or date-scoped existence query, so the cost does not grow with schedule history.
      */
     public boolean isAvailable(Long doctorId, DayOfWeek day, LocalTime start, LocalTime end, Long excludeId, String type) {
         // Check recurring slots
-        for (DoctorRecurringSchedule slot : recurringRepo.findByDoctorIdAndActiveTrue(doctorId)) {
-            if (!slot.getDayOfWeek().equals(day)) continue;
-            if (excludeId != null && slot.getId().equals(excludeId) && "RECURRING".equals(type)) continue;
-            if (ScheduleValidationUtils.isTimeOverlap(start, end, slot.getStartTime(), slot.getEndTime())) return false;
-        }
+        if (recurringRepo.existsOverlapping(doctorId, day, start, end,
+                "RECURRING".equals(type) ? excludeId : null)) return false;
         // Check recurring breaks
-        for (DoctorRecurringBreak brk : breakRepo.findByDoctorIdAndActiveTrue(doctorId)) {
-            if (!brk.getDayOfWeek().equals(day)) continue;
-            if (excludeId != null && brk.getId().equals(excludeId) && "BREAK".equals(type)) continue;
-            if (ScheduleValidationUtils.isTimeOverlap(start, end, brk.getStartTime(), brk.getEndTime())) return false;
-        }
-        // Check one-time slots ON THAT DAY
-        for (DoctorOneTimeSlot slot : oneTimeRepo.findByDoctorId(doctorId)) {
-            if (!slot.getDate().getDayOfWeek().equals(day)) continue;
-            if (excludeId != null && slot.getId().equals(excludeId) && "ONE_TIME".equals(type)) continue;
-            if (ScheduleValidationUtils.isTimeOverlap(start, end, slot.getStartTime(), slot.getEndTime())) return false;
-        }
-        return true;
+        if (breakRepo.existsOverlapping(doctorId, day, start, end,
+                "BREAK".equals(type) ? excludeId : null)) return false;
+        // Check upcoming one-time slots ON THAT DAY (past overrides cannot clash with a recurring entry any more)
+        return !oneTimeRepo.existsOverlappingOnWeekday(doctorId, LocalDate.now(),
+                DoctorOneTimeSlotRepository.dayOfWeekNumber(day), start, end,
+                "ONE_TIME".equals(type) ? excludeId : null);
     }
 
     /**
@@ -66,24 +68,11 @@ public class DoctorScheduleService {
      */
     public boolean isAvailableOneTime(Long doctorId, LocalDate date, LocalTime start, LocalTime end, Long excludeId) {
         // 1. Check one-time slots for that date
-        for (DoctorOneTimeSlot slot : oneTimeRepo.findByDoctorId(doctorId)) {
-            if (!slot.getDate().equals(date)) continue;
-            if (excludeId != null && slot.getId().equals(excludeId)) continue;
-            if (ScheduleValidationUtils.isTimeOverlap(start, end, slot.getStartTime(), slot.getEndTime())) return false;
-        }
+        if (oneTimeRepo.existsOverlappingOnDate(doctorId, date, start, end, excludeId)) return false;
         // 2. Check recurring slots/breaks for that day of week
         DayOfWeek day = date.getDayOfWeek();
-        // Recurring slots
-        for (DoctorRecurringSchedule slot : recurringRepo.findByDoctorIdAndActiveTrue(doctorId)) {
-            if (!slot.getDayOfWeek().equals(day)) continue;
-            if (ScheduleValidationUtils.isTimeOverlap(start, end, slot.getStartTime(), slot.getEndTime())) return false;
-        }
-        // Recurring breaks
-        for (DoctorRecurringBreak brk : breakRepo.findByDoctorIdAndActiveTrue(doctorId)) {
-            if (!brk.getDayOfWeek().equals(day)) continue;
-            if (ScheduleValidationUtils.isTimeOverlap(start, end, brk.getStartTime(), brk.getEndTime())) return false;
-        }
-        return true;
+        return !recurringRepo.existsOverlapping(doctorId, day, start, end, null)
+                && !breakRepo.existsOverlapping(doctorId, day, start, end, null);
     }
 
 
@@ -110,15 +99,14 @@ public class DoctorScheduleService {
         slot.setEndTime(end);
 
         DoctorRecurringSchedule saved = recurringRepo.save(slot);
+        availabilityIndex.invalidate(doctorId);
 
         // Audit log
-        auditLogService.logAction(
-                "Recurring Slot Added",
+        auditLogService.record(
+                AuditEvent.of("Recurring Slot Added", AuditEvent.RECURRING_SLOT, saved.getId())
+                        .set("dayOfWeek", day).set("startTime", start).set("endTime", end),
                 doctor.getEmail(),
-                doctor.getRole().name(),
-                String.format("Added recurring slot: %s %s-%s", day, start, end),
-                null,
-                saved.toString()
+                doctor.getRole().name()
         );
         return saved;
     }
@@ -134,21 +122,19 @@ public class DoctorScheduleService {
         }
         DoctorRecurringSchedule slot = recurringRepo.findById(slotId).orElseThrow();
         if (!Objects.equals(slot.getDoctor().getId(), doctorId)) throw new RuntimeException("Unauthorized");
+        AuditEvent event = AuditEvent.of("Recurring Slot Updated", AuditEvent.RECURRING_SLOT, slotId)
+                .changed("dayOfWeek", slot.getDayOfWeek(), day)
+                .changed("startTime", slot.getStartTime(), start)
+                .changed("endTime", slot.getEndTime(), end);
         slot.setDayOfWeek(day);
         slot.setStartTime(start);
         slot.setEndTime(end);
 
         DoctorRecurringSchedule saved = recurringRepo.save(slot);
+        availabilityIndex.invalidate(doctorId);
 
         // Audit log
-        auditLogService.logAction(
-                "Recurring Slot Updated",
-                slot.getDoctor().getEmail(),
-                slot.getDoctor().getRole().name(),
-                String.format("Updated recurring slot ID %d to: %s %s-%s", slotId, day, start, end),
-                null,
-                saved.toString()
-        );
+        auditLogService.record(event, slot.getDoctor().getEmail(), slot.getDoctor().getRole().name());
         return saved;
     }
 
@@ -159,15 +145,16 @@ public class DoctorScheduleService {
             throw new IllegalArgumentException("Cannot delete a recurring slot in the past.");
         }
         recurringRepo.deleteById(slotId);
+        availabilityIndex.invalidate(slot.getDoctor().getId());
 
         // Audit log
-        auditLogService.logAction(
-                "Recurring Slot Deleted",
+        auditLogService.record(
+                AuditEvent.of("Recurring Slot Deleted", AuditEvent.RECURRING_SLOT, slotId)
+                        .was("dayOfWeek", slot.getDayOfWeek())
+                        .was("startTime", slot.getStartTime())
+                        .was("endTime", slot.getEndTime()),
                 slot.getDoctor().getEmail(),
-                slot.getDoctor().getRole().name(),
-                String.format("Deleted recurring slot ID %d", slotId),
-                null,
-                slot.toString()
+                slot.getDoctor().getRole().name()
         );
     }
 
@@ -195,15 +182,15 @@ public class DoctorScheduleService {
         slot.setAvailable(available);
 
         DoctorOneTimeSlot saved = oneTimeRepo.save(slot);
+        availabilityIndex.invalidate(doctorId);
 
         // Audit log
-        auditLogService.logAction(
-                "One-Time Slot Added",
+        auditLogService.record(
+                AuditEvent.of("One-Time Slot Added", AuditEvent.ONE_TIME_SLOT, saved.getId())
+                        .set("date", date).set("startTime", start).set("endTime", end)
+                        .set("available", available),
                 doctor.getEmail(),
-                doctor.getRole().name(),
-                String.format("Added one-time slot: %s %s-%s", date, start, end),
-                null,
-                saved.toString()
+                doctor.getRole().name()
         );
         return saved;
     }
@@ -219,22 +206,21 @@ public class DoctorScheduleService {
         }
         DoctorOneTimeSlot slot = oneTimeRepo.findById(slotId).orElseThrow();
         if (!Objects.equals(slot.getDoctor().getId(), doctorId)) throw new RuntimeException("Unauthorized");
+        AuditEvent event = AuditEvent.of("One-Time Slot Updated", AuditEvent.ONE_TIME_SLOT, slotId)
+                .changed("date", slot.getDate(), date)
+                .changed("startTime", slot.getStartTime(), start)
+                .changed("endTime", slot.getEndTime(), end)
+                .changed("available", slot.isAvailable(), available);
         slot.setDate(date);
         slot.setStartTime(start);
         slot.setEndTime(end);
         slot.setAvailable(available);
 
         DoctorOneTimeSlot saved = oneTimeRepo.save(slot);
+        availabilityIndex.invalidate(doctorId);
 
         // Audit log
-        auditLogService.logAction(
-                "One-Time Slot Updated",
-                slot.getDoctor().getEmail(),
-                slot.getDoctor().getRole().name(),
-                String.format("Updated one-time slot ID %d: %s %s-%s", slotId, date, start, end),
-                null,
-                saved.toString()
-        );
+        auditLogService.record(event, slot.getDoctor().getEmail(), slot.getDoctor().getRole().name());
         return saved;
     }
 
@@ -245,15 +231,16 @@ public class DoctorScheduleService {
             throw new IllegalArgumentException("Cannot delete a one-time slot in the past.");
         }
         oneTimeRepo.deleteById(slotId);
+        availabilityIndex.invalidate(slot.getDoctor().getId());
 
         // Audit log
-        auditLogService.logAction(
-                "One-Time Slot Deleted",
+        auditLogService.record(
+                AuditEvent.of("One-Time Slot Deleted", AuditEvent.ONE_TIME_SLOT, slotId)
+                        .was("date", slot.getDate())
+                        .was("startTime", slot.getStartTime())
+                        .was("endTime", slot.getEndTime()),
                 slot.getDoctor().getEmail(),
-                slot.getDoctor().getRole().name(),
-                String.format("Deleted one-time slot ID %d", slotId),
-                null,
-                slot.toString()
+                slot.getDoctor().getRole().name()
         );
     }
 
@@ -280,15 +267,14 @@ public class DoctorScheduleService {
         brk.setEndTime(end);
 
         DoctorRecurringBreak saved = breakRepo.save(brk);
+        availabilityIndex.invalidate(doctorId);
 
         // Audit log
-        auditLogService.logAction(
-                "Recurring Break Added",
+        auditLogService.record(
+                AuditEvent.of("Recurring Break Added", AuditEvent.RECURRING_BREAK, saved.getId())
+                        .set("dayOfWeek", day).set("startTime", start).set("endTime", end),
                 doctor.getEmail(),
-                doctor.getRole().name(),
-                String.format("Added recurring break: %s %s-%s", day, start, end),
-                null,
-                saved.toString()
+                doctor.getRole().name()
         );
         return saved;
     }
@@ -304,21 +290,19 @@ public class DoctorScheduleService {
         }
         DoctorRecurringBreak brk = breakRepo.findById(breakId).orElseThrow();
         if (!Objects.equals(brk.getDoctor().getId(), doctorId)) throw new RuntimeException("Unauthorized");
+        AuditEvent event = AuditEvent.of("Recurring Break Updated", AuditEvent.RECURRING_BREAK, breakId)
+                .changed("dayOfWeek", brk.getDayOfWeek(), day)
+                .changed("startTime", brk.getStartTime(), start)
+                .changed("endTime", brk.getEndTime(), end);
         brk.setDayOfWeek(day);
         brk.setStartTime(start);
         brk.setEndTime(end);
 
         DoctorRecurringBreak saved = breakRepo.save(brk);
+        availabilityIndex.invalidate(doctorId);
 
         // Audit log
-        auditLogService.logAction(
-                "Recurring Break Updated",
-                brk.getDoctor().getEmail(),
-                brk.getDoctor().getRole().name(),
-                String.format("Updated recurring break ID %d: %s %s-%s", breakId, day, start, end),
-                null,
-                saved.toString()
-        );
+        auditLogService.record(event, brk.getDoctor().getEmail(), brk.getDoctor().getRole().name());
         return saved;
     }
 
@@ -329,15 +313,16 @@ public class DoctorScheduleService {
             throw new IllegalArgumentException("Cannot delete a recurring break in the past.");
         }
         breakRepo.deleteById(brk.getId());
+        availabilityIndex.invalidate(brk.getDoctor().getId());
 
         // Audit log
-        auditLogService.logAction(
-                "Recurring Break Deleted",
+        auditLogService.record(
+                AuditEvent.of("Recurring Break Deleted", AuditEvent.RECURRING_BREAK, breakId)
+                        .was("dayOfWeek", brk.getDayOfWeek())
+                        .was("startTime", brk.getStartTime())
+                        .was("endTime", brk.getEndTime()),
                 brk.getDoctor().getEmail(),
-                brk.getDoctor().getRole().name(),
-                String.format("Deleted recurring break ID %d", breakId),
-                null,
-                brk.toString()
+                brk.getDoctor().getRole().name()
         );
     }
 
@@ -369,16 +354,16 @@ public class DoctorScheduleService {
     @Transactional
     public void replaceWeek(Long doctorId, List<RecurringSlotDto> weekSchedule) {
         recurringRepo.deleteByDoctorId(doctorId);
+        availabilityIndex.invalidate(doctorId);
         for (RecurringSlotDto dto : weekSchedule) {
             addRecurringSlot(doctorId, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime());
         }
-        auditLogService.logAction(
-                "Week Schedule Replaced",
+        // Each slot is already audited by addRecurringSlot; only the size of the week goes here
+        auditLogService.record(
+                AuditEvent.of("Week Schedule Replaced", AuditEvent.DOCTOR, doctorId)
+                        .set("recurringSlots", weekSchedule.size()),
                 doctorRepository.findById(doctorId).map(Doctor::getEmail).orElse("UNKNOWN"),
-                "DOCTOR",
-                "Replaced all recurring slots for the week.",
-                null,
-                weekSchedule.toString()
+                "DOCTOR"
         );
     }
 
@@ -388,6 +373,7 @@ public class DoctorScheduleService {
         recurringRepo.deleteByDoctorId(doctorId);
         oneTimeRepo.deleteByDoctorId(doctorId);
         breakRepo.deleteByDoctorId(doctorId);
+        availabilityIndex.invalidate(doctorId);
 
         if (dto.getRecurringSlots() != null) {
             dto.getRecurringSlots().forEach(slot -> {
@@ -410,13 +396,13 @@ public class DoctorScheduleService {
                 breakRepo.save(brk);
             });
         }
-        auditLogService.logAction(
-                "Schedule Template Imported",
+        auditLogService.record(
+                AuditEvent.of("Schedule Template Imported", AuditEvent.DOCTOR, doctorId)
+                        .set("recurringSlots", sizeOf(dto.getRecurringSlots()))
+                        .set("oneTimeSlots", sizeOf(dto.getOneTimeSlots()))
+                        .set("recurringBreaks", sizeOf(dto.getRecurringBreaks())),
                 doctor.getEmail(),
-                doctor.getRole().name(),
-                "Imported a schedule template.",
-                null,
-                dto.toString()
+                doctor.getRole().name()
         );
         return getFullSchedule(doctorId);
     }
@@ -448,6 +434,7 @@ public class DoctorScheduleService {
         req.setStatus("PENDING");
         req.setRequestedAt(LocalDateTime.now());
         // Immediately mark the targeted slot/break as inactive
+        availabilityIndex.invalidate(doctorId);
         switch (dto.getSlotType()) {
             case "RECURRING" -> {
                 DoctorRecurringSchedule slot = recurringRepo.findById(dto.getSlotId()).orElseThrow();
@@ -467,22 +454,22 @@ public class DoctorScheduleService {
 
         try {
             slotRemovalRequestRepository.save(req);
-            auditLogService.logAction(
-                    "Slot Removal Requested",
+            auditLogService.record(
+                    AuditEvent.of("Slot Removal Requested", AuditEvent.SLOT_REMOVAL_REQUEST, req.getId())
+                            .set("slotType", dto.getSlotType())
+                            .set("slotId", dto.getSlotId())
+                            .set("reason", dto.getReason()),
                     doctor.getEmail(),
-                    doctor.getRole().name(),
-                    String.format("Requested removal for %s slot (ID: %d)", dto.getSlotType(), dto.getSlotId()),
-                    null,
-                    req.toString()
+                    doctor.getRole().name()
             );
         } catch (Exception e) {
-            auditLogService.logAction(
-                    "Slot Removal Request Failed",
+            auditLogService.record(
+                    AuditEvent.of("Slot Removal Request Failed", AuditEvent.DOCTOR, doctorId)
+                            .set("slotType", dto.getSlotType())
+                            .set("slotId", dto.getSlotId())
+                            .set("error", e.getMessage()),
                     doctor.getEmail(),
-                    doctor.getRole().name(),
-                    "Doctor attempted to request slot removal.",
-                    e.getMessage(),
-                    dto.toString()
+                    doctor.getRole().name()
             );
             throw e;
         }
@@ -494,6 +481,10 @@ public class DoctorScheduleService {
                 .stream().map(this::toDto).toList();
     }
 
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
     private SlotRemovalRequestDto toDto(SlotRemovalRequest req) {
         SlotRemovalRequestDto dto = new SlotRemovalRequestDto();
         dto.setId(req.getId());
@@ -526,127 +517,123 @@ public class DoctorScheduleService {
 
     /**
      * Determine if the doctor is available for an appointment at the given time.
-     * This checks one-time overrides, recurring working slots and recurring breaks.
+     * This checks one-time overrides, recurring working slots and recurring breaks,
+     * served from the in-memory {@link DoctorAvailabilityIndex}.
      */
     public boolean isAppointmentTimeAvailable(Long doctorId, LocalDateTime dateTime) {
-        LocalDate date = dateTime.toLocalDate();
-        LocalTime time = dateTime.toLocalTime();
-
-        // ----- One-time slots have highest priority -----
-        List<DoctorOneTimeSlot> oneTimes = oneTimeRepo.findByDoctorIdAndDate(doctorId, date);
-        for (DoctorOneTimeSlot slot : oneTimes) {
-            if (!time.isBefore(slot.getStartTime()) && time.isBefore(slot.getEndTime())) {
-                return slot.isAvailable();
-            }
-        }
-
-        // ----- Recurring working slots -----
-        boolean inWorkingSlot = false;
-        for (DoctorRecurringSchedule slot : recurringRepo
-                .findByDoctorIdAndDayOfWeekAndActiveTrue(doctorId, date.getDayOfWeek())) {
-            if (!time.isBefore(slot.getStartTime()) && time.isBefore(slot.getEndTime())) {
-                inWorkingSlot = true;
-                break;
-            }
-        }
-        if (!inWorkingSlot) return false;
-
-        // ----- Recurring breaks -----
-        for (DoctorRecurringBreak brk : breakRepo.findByDoctorIdAndActiveTrue(doctorId)) {
-            if (!brk.getDayOfWeek().equals(date.getDayOfWeek())) continue;
-            if (!time.isBefore(brk.getStartTime()) && time.isBefore(brk.getEndTime())) {
-                return false;
-            }
-        }
+        return availabilityIndex.get(doctorId)
+                .isAvailableAt(dateTime.toLocalDate(), dateTime.toLocalTime());
+    }
 
-        return true;
+    /**
+     * Series version of {@link #isAppointmentTimeAvailable}: returns the times outside the doctor's schedule.
+     * One-time overrides for the whole span are resolved in a single batched index load.
+     */
+    public List<LocalDateTime> findUnavailableTimes(Long doctorId, List<LocalDateTime> times) {
+        if (times.isEmpty()) return List.of();
+        LocalDate first = times.stream().map(LocalDateTime::toLocalDate).min(Comparator.naturalOrder()).get();
+        LocalDate last = times.stream().map(LocalDateTime::toLocalDate).max(Comparator.naturalOrder()).get();
+        DoctorAvailabilityIndex.DoctorAvailability availability =
+                availabilityIndex.getAll(List.of(doctorId), first, last).get(doctorId);
+        return times.stream()
+                .filter(t -> !availability.isAvailableAt(t.toLocalDate(), t.toLocalTime()))
+                .toList();
     }
     /**
      * Generate available appointment start times for a doctor on a given date.
      * This accounts for recurring slots, breaks, one-time overrides and existing appointments.
+     * Schedule data comes from the availability index; only appointments are read from the database.
      */
     public List<LocalTime> getAvailableSlots(Long doctorId, LocalDate date, Duration apptLength) {
-        DayOfWeek day = date.getDayOfWeek();
-
-        // Base working intervals from recurring slots
-        List<TimeRange> working = new ArrayList<>();
-        for (DoctorRecurringSchedule slot : recurringRepo
-                .findByDoctorIdAndDayOfWeekAndActiveTrue(doctorId, day)) {
-            working.add(new TimeRange(slot.getStartTime(), slot.getEndTime()));
-        }
-
-        // One-time overrides for the date
-        List<TimeRange> blocked = new ArrayList<>();
-        for (DoctorOneTimeSlot slot : oneTimeRepo.findByDoctorIdAndDate(doctorId, date)) {
-            TimeRange tr = new TimeRange(slot.getStartTime(), slot.getEndTime());
-            if (slot.isAvailable()) {
-                working.add(tr);
-            } else {
-                blocked.add(tr);
-            }
-        }
-
-        // Recurring breaks
-        for (DoctorRecurringBreak brk : breakRepo
-                .findByDoctorIdAndDayOfWeekAndActiveTrue(doctorId, day)) {
-            blocked.add(new TimeRange(brk.getStartTime(), brk.getEndTime()));
-        }
-
-        // Existing appointments block time
+        List<LocalTime> booked = new ArrayList<>();
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1);
         for (Appointment appt : appointmentRepository
                 .findByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay)) {
-            if (appt.getStatus() == AppointmentStatus.BOOKED ||
-                    appt.getStatus() == AppointmentStatus.RESCHEDULED) {
-                LocalTime start = appt.getAppointmentTime().toLocalTime();
-                blocked.add(new TimeRange(start, start.plus(apptLength)));
+            if (ACTIVE_APPOINTMENT_STATUSES.contains(appt.getStatus())) {
+                booked.add(appt.getAppointmentTime().toLocalTime());
             }
         }
-
-        // Remove blocked intervals from working times
-        List<TimeRange> available = subtractRanges(working, blocked);
-
-        // Generate slot start times
-        Set<LocalTime> result = new TreeSet<>();
-        for (TimeRange tr : available) {
-            LocalTime t = tr.start;
-            while (!t.plus(apptLength).isAfter(tr.end)) {
-                result.add(t);
-                t = t.plus(apptLength);
-            }
-        }
-        return new ArrayList<>(result);
+        return computeSlots(availabilityIndex.get(doctorId), date, booked, apptLength);
     }
 
-    private static List<TimeRange> subtractRanges(List<TimeRange> bases, List<TimeRange> blocks) {
-        List<TimeRange> result = new ArrayList<>(bases);
-        for (TimeRange block : blocks) {
-            List<TimeRange> updated = new ArrayList<>();
-            for (TimeRange base : result) {
-                updated.addAll(subtract(base, block));
+    /**
+     * Bulk version of {@link #getAvailableSlots(Long, LocalDate, Duration)}: open slots for several
+     * doctors over a date range, chosen either by ID or by specialty.
+     * Schedules are resolved through the availability index in one batched pass and existing
+     * appointments are read with a single range query for all doctors.
+     */
+    public List<DoctorAvailableSlotsDto> searchAvailableSlots(Collection<Long> doctorIds, String specialty,
+                                                              LocalDate from, LocalDate to, Duration apptLength) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A valid date range is required.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_SEARCH_DAYS) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_SEARCH_DAYS + " days.");
+        }
+        if (apptLength.isZero() || apptLength.isNegative()) {
+            throw new IllegalArgumentException("Appointment length must be positive.");
+        }
+
+        List<Doctor> doctors;
+        if (doctorIds != null && !doctorIds.isEmpty()) {
+            doctors = doctorRepository.findByIdInAndIsDeletedFalse(doctorIds);
+        } else if (specialty != null && !specialty.isBlank()) {
+            doctors = doctorRepository.findBySpecialtyIgnoreCaseAndIsDeletedFalse(specialty.trim());
+        } else {
+            throw new IllegalArgumentException("Either doctor IDs or a specialty is required.");
+        }
+        if (doctors.isEmpty()) return List.of();
+
+        List<Long> ids = doctors.stream().map(Doctor::getId).toList();
+        Map<Long, DoctorAvailabilityIndex.DoctorAvailability> availability = availabilityIndex.getAll(ids, from, to);
+
+        // doctorId -> date -> booked start times
+        Map<Long, Map<LocalDate, List<LocalTime>>> booked = new HashMap<>();
+        for (Appointment appt : appointmentRepository.findByDoctorIdInAndAppointmentTimeBetweenAndStatusIn(
+                ids, from.atStartOfDay(), to.plusDays(1).atStartOfDay(), ACTIVE_APPOINTMENT_STATUSES)) {
+            booked.computeIfAbsent(appt.getDoctor().getId(), k -> new HashMap<>())
+                    .computeIfAbsent(appt.getAppointmentTime().toLocalDate(), k -> new ArrayList<>())
+                    .add(appt.getAppointmentTime().toLocalTime());
+        }
+
+        List<DoctorAvailableSlotsDto> result = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            Map<LocalDate, List<LocalTime>> bookedByDate = booked.getOrDefault(doctor.getId(), Map.of());
+            Map<LocalDate, List<LocalTime>> slots = new TreeMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                List<LocalTime> open = computeSlots(availability.get(doctor.getId()), date,
+                        bookedByDate.getOrDefault(date, List.of()), apptLength);
+                if (!open.isEmpty()) slots.put(date, open);
             }
-            result = updated;
+            result.add(new DoctorAvailableSlotsDto(doctor.getId(), doctor.getFullName(), doctor.getSpecialty(), slots));
         }
         return result;
     }
 
-    private static List<TimeRange> subtract(TimeRange base, TimeRange block) {
-        if (block.end.isBefore(base.start) || !block.start.isBefore(base.end)) {
-            return List.of(base);
-        }
-        if (block.start.compareTo(base.start) <= 0 && block.end.compareTo(base.end) >= 0) {
-            return List.of();
-        }
-        if (block.start.compareTo(base.start) <= 0) {
-            return List.of(new TimeRange(block.end, base.end));
-        }
-        if (block.end.compareTo(base.end) >= 0) {
-            return List.of(new TimeRange(base.start, block.start));
-        }
-        return List.of(new TimeRange(base.start, block.start), new TimeRange(block.end, base.end));
+    private static List<LocalTime> computeSlots(DoctorAvailabilityIndex.DoctorAvailability availability,
+                                                LocalDate date, List<LocalTime> booked, Duration apptLength) {
+        DayOfWeek day = date.getDayOfWeek();
+        DoctorAvailabilityIndex.DateOverrides overrides = availability.overrides(date);
+        int length = (int) apptLength.toMinutes();
+
+        // Base working intervals from recurring slots, plus one-time extra time
+        int[] working = MinuteRanges.builder()
+                .addAll(availability.recurring(day))
+                .addAll(overrides.extra())
+                .build();
+        if (working.length == 0) return List.of();
+
+        // One-time blocks, recurring breaks and existing appointments
+        MinuteRanges.Builder blocked = MinuteRanges.builder()
+                .addAll(overrides.blocked())
+                .addAll(availability.breaks(day));
+        for (LocalTime start : booked) {
+            blocked.addLength(start, length);
+        }
+
+        // Remove blocked intervals from working times and generate slot start times in one sweep
+        return MinuteRanges.toTimes(MinuteRanges.slotStarts(working, blocked.build(), length));
     }
 
-    private record TimeRange(LocalTime start, LocalTime end) {}
-
 }
@@ -1,18 +1,21 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Audit.AuditEvent;
 import com.example.healthcare.dto.Profiles.PatientProfileDto;
 import com.example.healthcare.entity.*;
 import com.example.healthcare.entity.enums.AppointmentStatus;
 import com.example.healthcare.exception.AppointmentNotFoundException;
 import com.example.healthcare.exception.UnauthorizedAccessException;
 import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.ConversationRepository;
 import com.example.healthcare.repository.DoctorRepository;
-import com.example.healthcare.repository.MessageRepository;
 import com.example.healthcare.repository.PrescriptionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.TokenRevocationList;
 import com.example.healthcare.exception.PatientNotFoundException;
 
 import java.time.LocalDateTime;
@@ -27,44 +30,50 @@ public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final PrescriptionRepository prescriptionRepository;
-    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
     private final AuditLogService auditLogService; // ✅ Injected Audit Log Service
     private final PatientRepository patientRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
 
     @Transactional
     public void updateDoctorProfile(Doctor doctor, Doctor updatedDoctor) {
-        String previousData = doctor.toString();
+        AuditEvent event = AuditEvent.of("Doctor Profile Updated", AuditEvent.DOCTOR, doctor.getId());
 
         if (updatedDoctor.getFirstName() != null) {
+            event.changed("firstName", doctor.getFirstName(), updatedDoctor.getFirstName());
             doctor.setFirstName(updatedDoctor.getFirstName());
         }
         if (updatedDoctor.getLastName() != null) {
+            event.changed("lastName", doctor.getLastName(), updatedDoctor.getLastName());
             doctor.setLastName(updatedDoctor.getLastName());
         }
         if (updatedDoctor.getSpecialty() != null) {
+            event.changed("specialty", doctor.getSpecialty(), updatedDoctor.getSpecialty());
             doctor.setSpecialty(updatedDoctor.getSpecialty());
         }
         if (updatedDoctor.getPhoneNumber() != null) {
+            event.changed("phoneNumber", doctor.getPhoneNumber(), updatedDoctor.getPhoneNumber());
             doctor.setPhoneNumber(updatedDoctor.getPhoneNumber());
         }
 
         doctorRepository.save(doctor);
 
-        auditLogService.logAction(
-                "Doctor Profile Updated", doctor.getEmail(), "DOCTOR",
-                "Doctor ID: " + doctor.getId(), previousData, doctor.toString()
-        );
+        auditLogService.record(event, doctor.getEmail(), "DOCTOR");
     }
 
     @Transactional
     public void softDeleteDoctor(Doctor doctor) {
         doctor.setDeleted(true);
         doctorRepository.save(doctor);
+        principalCache.evict(doctor.getEmail());
+        revocationList.revokeUser(doctor.getId());
 
-        auditLogService.logAction(
-                "Doctor Account Deleted", doctor.getEmail(), "DOCTOR",
-                "Doctor ID: " + doctor.getId(), doctor.toString(), null
+        auditLogService.record(
+                AuditEvent.of("Doctor Account Deleted", AuditEvent.DOCTOR, doctor.getId())
+                        .changed("deleted", false, true),
+                doctor.getEmail(), "DOCTOR"
         );
     }
 
@@ -93,12 +102,14 @@ public class DoctorService {
             throw new UnauthorizedAccessException("Doctors can only mark their own appointments.");
         }
 
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
 
-        auditLogService.logAction(
-                "Appointment Marked as Completed", doctor.getEmail(), "DOCTOR",
-                "Appointment ID: " + appointmentId, "BOOKED", "COMPLETED"
+        auditLogService.record(
+                AuditEvent.of("Appointment Marked as Completed", AuditEvent.APPOINTMENT, appointmentId)
+                        .changed("status", previousStatus, AppointmentStatus.COMPLETED),
+                doctor.getEmail(), "DOCTOR"
         );
     }
 
@@ -138,7 +149,7 @@ public class DoctorService {
     }
 
     public long countUnreadMessages(Long doctorId) {
-        return messageRepository.countByReceiverIdAndIsReadFalse(doctorId);
+        return conversationRepository.countUnread(doctorId);
     }
 
 
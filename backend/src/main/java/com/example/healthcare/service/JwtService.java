@@ -1,15 +1,25 @@
 package com.example.healthcare.service;
 
 import com.example.healthcare.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service responsible for handling JWT (JSON Web Token) operations,
@@ -31,20 +41,71 @@ public class JwtService {
      * Token expiration time in milliseconds.
      * Currently set to 1 day (86400000 ms).
      */
-    private static final long EXPIRATION_TIME = 86400000; // 1 day
+    public static final long EXPIRATION_TIME = 86400000; // 1 day
+
+    /**
+     * Upper bound on cached verified tokens.
+     */
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries = 10000;
+
+    private Key signingKey;
+    private JwtParser parser;
 
     /**
-     * Generates the signing key from the configured secret key.
+     * Verified tokens by SHA-256 of the token text, least recently used first. Beyond
+     * {@code jwt.cache.max-entries} the least recently used token is evicted, so a full cache
+     * still admits new tokens at constant cost. Guarded by its own monitor.
+     * The raw bearer token itself is never held on to.
+     */
+    private final Map<String, VerifiedToken> verified = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > cacheMaxEntries;
+        }
+    };
+
+    /**
+     * The claims the application reads from a token, extracted in one parse.
+     * {@code userId}, {@code status}, {@code dtype} and {@code tokenId} are null for tokens
+     * issued before those claims existed.
+     *
+     * @param subject   the user's email
+     * @param role      the role claim
+     * @param userId    the "uid" claim
+     * @param status    the "status" claim (account status at login)
+     * @param dtype     the "dtype" claim, e.g. "Doctor"
+     * @param tokenId   the "jti" claim, a random id that lets this one token be revoked
+     * @param issuedAt  issue time in epoch milliseconds
+     * @param expiresAt expiry in epoch milliseconds
+     */
+    public record VerifiedToken(String subject, String role, Long userId, String status, String dtype,
+                                String tokenId, long issuedAt, long expiresAt) {
+    }
+
+    /**
+     * Builds the signing key and parser once; both are immutable and thread-safe.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * Returns the signing key built from the configured secret key.
      *
      * @return Key object for signing/verifying JWT tokens
      */
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        return signingKey;
     }
 
     /**
      * Generates a JWT token for an authenticated user.
-     * The token includes the user's email as subject and role as a claim.
+     * The token includes the user's email as subject, and role, id, account status
+     * and entity type as claims, which is all a request needs to be authorized, plus a
+     * random token id (jti) so a single session can be revoked on logout.
      *
      * @param user The authenticated user for whom the token is generated
      * @return Signed JWT token as a String
@@ -53,6 +114,10 @@ public class JwtService {
         return Jwts.builder()
                 .setSubject(user.getEmail())
                 .claim("role", user.getRole().name())
+                .claim("uid", user.getId())
+                .claim("status", user.getAccountStatus().name())
+                .claim("dtype", user.getDtype())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -67,16 +132,82 @@ public class JwtService {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            verify(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Verifies a token and returns its claims, parsing it at most once for its lifetime.
+     * A token seen before and not yet expired is answered from the cache without checking
+     * the signature again: it can only be in the cache if it verified with this key.
+     *
+     * @param token JWT token
+     * @return the token's claims
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws JwtException if the token is malformed or its signature does not match
+     */
+    public VerifiedToken verify(String token) {
+        String hash = sha256(token);
+        VerifiedToken cached;
+        synchronized (verified) {
+            cached = verified.get(hash);
+        }
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                return cached;
+            }
+            // Expired: drop it and let the parser raise ExpiredJwtException as before
+            synchronized (verified) {
+                verified.remove(hash);
+            }
+        }
+        VerifiedToken fresh = parse(token);
+        synchronized (verified) {
+            verified.put(hash, fresh);
+        }
+        return fresh;
+    }
+
+    /**
+     * Parses and verifies a token without consulting the cache.
+     *
+     * @param token JWT token
+     * @return the token's claims
+     */
+    public VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("uid", Long.class),
+                claims.get("status", String.class),
+                claims.get("dtype", String.class),
+                claims.getId(),
+                issuedAt == null ? 0 : issuedAt.getTime(),
+                expiration == null ? Long.MAX_VALUE : expiration.getTime()
+        );
+    }
+
+    int cachedTokenCount() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Extracts the username (email) from the JWT token.
      *
@@ -84,12 +215,7 @@ public class JwtService {
      * @return Email (subject) stored in the token
      */
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
     }
 
     /**
@@ -99,11 +225,6 @@ public class JwtService {
      * @return Role value stored in the token
      */
     public String extractRole(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("role", String.class);
+        return verify(token).role();
     }
 }
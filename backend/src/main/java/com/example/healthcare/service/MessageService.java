@@ -14,11 +14,13 @@ public interface MessageService
     List<MessageDto> getSent(Long userId);
     void markAsRead(Long userId, Long messageId);
 
-    List<MessageDto> getMessagesWithUser(Long me, Long userId);
+    List<MessageDto> getMessagesWithUser(Long me, Long userId, Long beforeId, Long afterId, int limit);
 
-    void markConversationAsRead(Long me, Long userId);
+    int markConversationAsRead(Long me, Long userId);
 
     List<UserProfileDto> getMessagingPartners(Long me);
 
     List<MessageThreadDto> getMessageThreads(Long userId);
+
+    long countUnreadMessages(Long userId);
 }
@@ -5,14 +5,21 @@ import com.example.healthcare.dto.Message.MessageMapper;
 import com.example.healthcare.dto.Message.MessageThreadDto;
 import com.example.healthcare.dto.Message.SendMessageRequest;
 import com.example.healthcare.dto.Profiles.UserProfileDto;
+import com.example.healthcare.dto.Push.MessageSentEvent;
+import com.example.healthcare.dto.Push.MessagesReadEvent;
+import com.example.healthcare.entity.Conversation;
 import com.example.healthcare.entity.Message;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.UserRole;
 import com.example.healthcare.exception.UnauthorizedAccessException;
 import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.ConversationJdbcRepository;
+import com.example.healthcare.repository.ConversationRepository;
 import com.example.healthcare.repository.MessageRepository;
 import com.example.healthcare.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +31,15 @@ import java.util.stream.Collectors;
 public class MessageServiceImpl implements MessageService {
 
     private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationJdbcRepository conversationInserts;
     private final UserService userService;
     private final UserRepository userRepository;
     private final AppointmentRepository appointmentRepository;
+    private final ApplicationEventPublisher events;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
 
 
     @Override
@@ -44,8 +57,11 @@ public class MessageServiceImpl implements MessageService {
         msg.setReceiver(receiver);
         msg.setContent(req.getContent());
         messageRepository.save(msg);
+        recordInConversation(msg);
 
-        return MessageMapper.toDto(msg);
+        MessageDto dto = MessageMapper.toDto(msg);
+        events.publishEvent(new MessageSentEvent(dto));
+        return dto;
     }
 
     @Override
@@ -75,32 +91,65 @@ public class MessageServiceImpl implements MessageService {
         if (!msg.getReceiver().getId().equals(userId)) {
             throw new UnauthorizedAccessException("Only the receiver can mark as read.");
         }
-        msg.setRead(true);
-        messageRepository.save(msg);
+        // Conditional UPDATE: of two concurrent calls only one gets 1 back and moves the counter
+        int read = messageRepository.markRead(messageId);
+        if (read > 0) {
+            Long senderId = msg.getSender().getId();
+            conversationRepository.markRead(Math.min(userId, senderId), Math.max(userId, senderId), userId, read);
+            events.publishEvent(new MessagesReadEvent(userId, senderId, read));
+        }
     }
 
+    /**
+     * One page of the conversation with {@code userId}, oldest message first.
+     * Without a cursor this is the latest page; {@code beforeId} scrolls back from a message and
+     * {@code afterId} fetches what came after one. Each page is a single range read of the pair index.
+     */
     @Override
-    public List<MessageDto> getMessagesWithUser(Long me, Long userId) {
-        // Fetch all messages where (sender=me and receiver=userId) OR (sender=userId and receiver=me)
-        List<Message> messages = messageRepository
-                .findAllByParticipants(me, userId); // You may need to define this in your repo
-        // Sort messages by timestamp ASC
-        messages.sort(Comparator.comparing(Message::getTimestamp));
+    public List<MessageDto> getMessagesWithUser(Long me, Long userId, Long beforeId, Long afterId, int limit) {
+        if (beforeId != null && afterId != null) {
+            throw new IllegalArgumentException("Pass either beforeId or afterId, not both.");
+        }
+        Long low = Math.min(me, userId);
+        Long high = Math.max(me, userId);
+        Limit page = Limit.of(limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE));
+
+        List<Message> messages;
+        if (afterId != null) {
+            Message cursor = cursorIn(low, high, afterId);
+            messages = messageRepository.findConversationAfter(low, high, cursor.getTimestamp(), cursor.getId(), page);
+        } else {
+            Message cursor = beforeId != null ? cursorIn(low, high, beforeId) : null;
+            messages = new ArrayList<>(messageRepository.findConversationBefore(low, high,
+                    cursor != null ? cursor.getTimestamp() : null,
+                    cursor != null ? cursor.getId() : null, page));
+            Collections.reverse(messages);
+        }
 
         return messages.stream()
                 .map(MessageMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    private Message cursorIn(Long low, Long high, Long messageId) {
+        return messageRepository.findById(messageId)
+                .filter(m -> low.equals(m.getUserLowId()) && high.equals(m.getUserHighId()))
+                .orElseThrow(() -> new IllegalArgumentException("Message " + messageId + " is not in this conversation."));
+    }
+
+    /**
+     * Marks every message from {@code userId} to {@code me} read with one UPDATE and takes exactly
+     * that many off {@code me}'s unread counter, so messages arriving meanwhile stay counted.
+     */
     @Override
     @Transactional
-    public void markConversationAsRead(Long me, Long userId) {
-        // Find all messages where receiver = me and sender = userId and read = false
-        List<Message> unread = messageRepository.findBySenderIdAndReceiverIdAndIsReadFalse(userId, me);
-        for (Message msg : unread) {
-            msg.setRead(true);
+    public int markConversationAsRead(Long me, Long userId) {
+        int read = messageRepository.markReadFrom(userId, me);
+        if (read > 0) {
+            conversationRepository.markRead(Math.min(me, userId), Math.max(me, userId), me, read);
+            events.publishEvent(new MessagesReadEvent(me, userId, read));
         }
-        messageRepository.saveAll(unread);
+        return read;
     }
 
     @Override
@@ -143,40 +192,62 @@ public class MessageServiceImpl implements MessageService {
         }).collect(Collectors.toList());
     }
 
-    // MessageServiceImpl.java
     @Override
     public List<MessageThreadDto> getMessageThreads(Long userId) {
-        List<User> partners = messageRepository.findConversationPartners(userId);
+        // Maintained summaries: one row per thread plus one lookup for the partners' names
+        List<Conversation> conversations = conversationRepository.findByParticipant(userId);
+        Map<Long, User> partners = userRepository.findAllById(
+                        conversations.stream().map(c -> c.partnerOf(userId)).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
 
         List<MessageThreadDto> threads = new ArrayList<>();
-        for (User partner : partners) {
-            // Last message
-            List<Message> convo = messageRepository.findConversation(userId, partner.getId());
-            Message last = convo.isEmpty() ? null : convo.get(0);
-            // Unread count (messages sent by partner to user, unread)
-            int unread = (int) convo.stream().filter(m -> !m.isRead() && m.getReceiver().getId().equals(userId)).count();
-
-            MessageThreadDto thread = new MessageThreadDto();
+        for (Conversation c : conversations) {
+            User partner = partners.get(c.partnerOf(userId));
+            if (partner == null) {
+                continue;
+            }
             UserProfileDto dto = new UserProfileDto();
             dto.setId(partner.getId());
             dto.setFirstName(partner.getFirstName());
             dto.setLastName(partner.getLastName());
             dto.setRole(String.valueOf(partner.getRole()));
-            thread.setUser(dto);
 
-            if (last != null) {
-                thread.setLastMessage(last.getContent());
-                thread.setLastMessageIsMine(last.getSender().getId().equals(userId));
-                thread.setLastMessageTime(last.getTimestamp());
-            }
-            thread.setUnreadCount(unread);
+            MessageThreadDto thread = new MessageThreadDto();
+            thread.setUser(dto);
+            thread.setLastMessage(c.getSnippet());
+            thread.setLastMessageIsMine(c.getLastSenderId().equals(userId));
+            thread.setLastMessageTime(c.getLastMessageAt());
+            thread.setUnreadCount(c.unreadFor(userId));
             threads.add(thread);
         }
-        // Optional: sort by latest message
-        threads.sort(Comparator.comparing(MessageThreadDto::getLastMessageTime, Comparator.nullsLast(Comparator.reverseOrder())));
         return threads;
     }
 
+    @Override
+    public long countUnreadMessages(Long userId) {
+        return conversationRepository.countUnread(userId);
+    }
+
+    /**
+     * Updates the pair's conversation row for a just inserted message, creating it for the first message.
+     * Runs in the sender's transaction, so the summary commits or rolls back with the message.
+     */
+    private void recordInConversation(Message msg) {
+        Long senderId = msg.getSender().getId();
+        Long receiverId = msg.getReceiver().getId();
+        Long low = Math.min(senderId, receiverId);
+        Long high = Math.max(senderId, receiverId);
+        String snippet = Conversation.snippetOf(msg.getContent());
+
+        int updated = conversationRepository.recordMessage(low, high, msg.getId(), senderId, snippet, msg.getTimestamp());
+        if (updated == 0 && !conversationInserts.insertIfAbsent(low, high, msg.getId(), senderId, snippet,
+                msg.getTimestamp(), receiverId.equals(low) ? 1 : 0, receiverId.equals(high) ? 1 : 0)) {
+            // The other participant's first message created the row meanwhile
+            conversationRepository.recordMessage(low, high, msg.getId(), senderId, snippet, msg.getTimestamp());
+        }
+    }
+
 
 
 
@@ -0,0 +1,191 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Notification.FanOutRequest;
+import com.example.healthcare.dto.Notification.FanOutStatusDto;
+import com.example.healthcare.dto.Notification.FanOutStatusDto.State;
+import com.example.healthcare.dto.Push.NotificationCreatedEvent;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.NotificationBatchRepository;
+import com.example.healthcare.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends one notification to a whole group of users in the background.
+ * <p>
+ * Recipients come from a {@link RecipientQuery} that pages their ids in ascending order, so only one
+ * chunk of {@code chunk-size} ids is held at a time however large the group is. Each chunk is written
+ * with a single JDBC batch in its own transaction, then pushed to connected recipients. A failed job
+ * keeps what it already committed; its status tells how far it got ({@code lastRecipientId}).
+ * Job statuses are kept in memory for the last {@code retained-jobs} jobs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationFanOutService {
+
+    /**
+     * A recipient group, read as keyset pages of user ids.
+     */
+    @FunctionalInterface
+    public interface RecipientQuery {
+        /**
+         * @return up to {@code limit} recipient ids greater than {@code afterId}, ascending
+         */
+        List<Long> idsAfter(Long afterId, Limit limit);
+    }
+
+    private final NotificationBatchRepository notificationBatchRepository;
+    private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher events;
+
+    @Value("${notifications.fan-out.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${notifications.fan-out.threads:2}")
+    private int threads = 2;
+
+    @Value("${notifications.fan-out.retained-jobs:100}")
+    private int retainedJobs = 100;
+
+    private final Map<String, FanOutStatusDto> jobs = new LinkedHashMap<>();
+
+    private ExecutorService executor;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                Thread.ofPlatform().name("notification-fan-out-", 0).factory());
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Notifies every active user with {@code role}, e.g. all admins.
+     */
+    public FanOutStatusDto notifyRole(Long requestedBy, UserRole role, FanOutRequest request) {
+        return fanOut(requestedBy, (afterId, limit) -> userRepository.findActiveIdsByRoleAfter(role, afterId, limit), request);
+    }
+
+    /**
+     * Notifies every patient the doctor has (non-deleted) appointments with, e.g. when a day is cancelled.
+     */
+    public FanOutStatusDto notifyPatientsOfDoctor(Long doctorId, FanOutRequest request) {
+        return fanOut(doctorId, (afterId, limit) -> appointmentRepository.findPatientIdsByDoctorIdAfter(doctorId, afterId, limit), request);
+    }
+
+    /**
+     * Starts a fan-out job and returns its initial status right away.
+     */
+    public FanOutStatusDto fanOut(Long requestedBy, RecipientQuery recipients, FanOutRequest request) {
+        FanOutStatusDto job = new FanOutStatusDto();
+        job.setId(UUID.randomUUID().toString());
+        job.setRequestedBy(requestedBy);
+        job.setState(State.QUEUED);
+        job.setStartedAt(LocalDateTime.now());
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            evictFinished();
+        }
+        executor.execute(() -> run(job, recipients, request));
+        return snapshot(job);
+    }
+
+    public FanOutStatusDto getStatus(String jobId) {
+        synchronized (jobs) {
+            FanOutStatusDto job = jobs.get(jobId);
+            if (job == null) {
+                throw new IllegalArgumentException("Unknown notification fan-out: " + jobId);
+            }
+            return snapshot(job);
+        }
+    }
+
+    private void run(FanOutStatusDto job, RecipientQuery recipients, FanOutRequest request) {
+        update(job, () -> job.setState(State.RUNNING));
+        Long afterId = 0L;
+        try {
+            List<Long> chunk;
+            while (!(chunk = recipients.idsAfter(afterId, Limit.of(chunkSize))).isEmpty()) {
+                LocalDateTime createdAt = LocalDateTime.now();
+                List<Long> ids = chunk;
+                chunkTransaction.executeWithoutResult(status -> notificationBatchRepository.insertForRecipients(
+                        ids, request.getMessage(), request.getType(), request.getAdditionalData(), createdAt));
+
+                afterId = ids.get(ids.size() - 1);
+                Long last = afterId;
+                update(job, () -> {
+                    job.setDelivered(job.getDelivered() + ids.size());
+                    job.setChunks(job.getChunks() + 1);
+                    job.setLastRecipientId(last);
+                });
+                // Batch inserts do not return ids; clients refetch the list when the badge moves
+                for (Long recipientId : ids) {
+                    events.publishEvent(new NotificationCreatedEvent(recipientId, null, request.getMessage(),
+                            request.getType(), createdAt));
+                }
+            }
+            update(job, () -> {
+                job.setState(State.COMPLETED);
+                job.setFinishedAt(LocalDateTime.now());
+            });
+            log.info("Notification fan-out {} delivered {} notifications", job.getId(), job.getDelivered());
+        } catch (RuntimeException e) {
+            log.error("Notification fan-out {} failed after {} notifications", job.getId(), job.getDelivered(), e);
+            update(job, () -> {
+                job.setState(State.FAILED);
+                job.setError(e.getMessage());
+                job.setFinishedAt(LocalDateTime.now());
+            });
+        }
+    }
+
+    private void update(FanOutStatusDto job, Runnable change) {
+        synchronized (jobs) {
+            change.run();
+        }
+    }
+
+    // Caller holds the jobs lock; running jobs are never evicted
+    private void evictFinished() {
+        Iterator<FanOutStatusDto> it = jobs.values().iterator();
+        while (jobs.size() > retainedJobs && it.hasNext()) {
+            FanOutStatusDto job = it.next();
+            if (job.getState() == State.COMPLETED || job.getState() == State.FAILED) {
+                it.remove();
+            }
+        }
+    }
+
+    private static FanOutStatusDto snapshot(FanOutStatusDto job) {
+        return new FanOutStatusDto(job.getId(), job.getRequestedBy(), job.getState(), job.getDelivered(),
+                job.getChunks(), job.getLastRecipientId(), job.getStartedAt(), job.getFinishedAt(), job.getError());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.healthcare.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes read notifications older than {@code notifications.retention.read-days}.
+ * Unread notifications are kept however old they are. Rows go in batches of {@code delete-batch},
+ * each its own short statement on the (is_read, created_at) index, so the purge never holds
+ * long locks on a table that request threads write to.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+    private static final String DELETE_READ_BEFORE =
+            "DELETE FROM notifications WHERE is_read = true AND created_at < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notifications.retention.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notifications.retention.read-days:90}")
+    private int readDays = 90;
+
+    @Value("${notifications.retention.delete-batch:5000}")
+    private int deleteBatch = 5000;
+
+    @Scheduled(cron = "${notifications.retention.cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        if (!enabled) return;
+        int deleted = purgeReadBefore(LocalDateTime.now().minusDays(readDays));
+        if (deleted > 0) {
+            log.info("Purged {} read notification(s) older than {} days", deleted, readDays);
+        }
+    }
+
+    /**
+     * @return the number of read notifications created before {@code cutoff} that were deleted
+     */
+    public int purgeReadBefore(LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_READ_BEFORE, before, deleteBatch);
+            total += deleted;
+        } while (deleted == deleteBatch);
+        return total;
+    }
+}
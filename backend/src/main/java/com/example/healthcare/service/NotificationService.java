@@ -1,10 +1,16 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Notification.NotificationDto;
+import com.example.healthcare.dto.Notification.NotificationMapper;
+import com.example.healthcare.dto.Push.NotificationCreatedEvent;
+import com.example.healthcare.dto.Push.NotificationsReadEvent;
 import com.example.healthcare.entity.Notification;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.NotificationType;
 import com.example.healthcare.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +21,10 @@ import java.util.List;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final ApplicationEventPublisher events;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
 
     /**
      * Creates and sends a notification to a recipient.
@@ -26,7 +36,10 @@ public class NotificationService {
         notification.setType(type);
         notification.setAdditionalData(additionalData);
         // createdAt is set automatically via @PrePersist
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        events.publishEvent(new NotificationCreatedEvent(recipient.getId(), saved.getId(), saved.getMessage(),
+                saved.getType(), saved.getCreatedAt()));
+        return saved;
     }
 
     /**
@@ -44,24 +57,58 @@ public class NotificationService {
     }
 
     /**
-     * Marks a specific notification as read.
+     * One page of a user's notifications, newest first, optionally unread only.
+     * Without {@code beforeId} this is the latest page; pass the last id of a page to get the next one.
+     */
+    public List<NotificationDto> getNotificationsPage(Long userId, boolean unreadOnly, Long beforeId, int limit) {
+        Notification cursor = null;
+        if (beforeId != null) {
+            cursor = notificationRepository.findById(beforeId)
+                    .filter(n -> n.getRecipient().getId().equals(userId))
+                    .orElseThrow(() -> new IllegalArgumentException("Notification " + beforeId + " is not in this list."));
+        }
+        Limit page = Limit.of(limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE));
+        return notificationRepository.findPageBefore(userId, unreadOnly,
+                        cursor != null ? cursor.getCreatedAt() : null,
+                        cursor != null ? cursor.getId() : null, page)
+                .stream()
+                .map(NotificationMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Number of unread notifications, counted in the index without loading them.
+     */
+    public long countUnread(Long userId) {
+        return notificationRepository.countByRecipientIdAndIsReadFalse(userId);
+    }
+
+    /**
+     * Marks a specific notification as read. A conditional UPDATE, so when the same notification is
+     * marked concurrently only one call publishes the badge decrease.
      */
     @Transactional
     public void markNotificationAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        int read = notificationRepository.markRead(notificationId);
+        if (read > 0) {
+            events.publishEvent(new NotificationsReadEvent(notification.getRecipient().getId(), read));
+        }
     }
 
     /**
-     * Marks all notifications for a user as read.
+     * Marks all notifications for a user as read with a single UPDATE.
+     *
+     * @return the number of notifications that were unread
      */
     @Transactional
-    public void markAllNotificationsAsRead(User user) {
-        List<Notification> unread = notificationRepository.findByRecipientAndIsReadFalse(user);
-        unread.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(unread);
+    public int markAllNotificationsAsRead(User user) {
+        int read = notificationRepository.markAllReadFor(user.getId());
+        if (read > 0) {
+            events.publishEvent(new NotificationsReadEvent(user.getId(), read));
+        }
+        return read;
     }
 
     /**
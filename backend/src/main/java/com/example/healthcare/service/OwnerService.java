@@ -1,10 +1,15 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Audit.AuditEvent;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
 import com.example.healthcare.entity.*;
 import com.example.healthcare.entity.enums.UserRole;
 import com.example.healthcare.exception.AdminNotFoundException;
 import com.example.healthcare.exception.UnauthorizedAccessException;
 import com.example.healthcare.repository.*;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -21,6 +26,8 @@ public class OwnerService {
     private final PasswordEncoder passwordEncoder;
     private final DoctorRepository doctorRepository;
     private final AuditLogService auditLogService; // ✅ Injected Audit Log Service
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
     @Transactional
     public void addAdmin(Owner owner, Admin admin) {
@@ -32,9 +39,10 @@ public class OwnerService {
         admin.setPassword(passwordEncoder.encode(admin.getPassword()));
         adminRepository.save(admin);
 
-        auditLogService.logAction(
-                "Admin Added", owner.getEmail(), "OWNER",
-                "Admin ID: " + admin.getId(), null, admin.toString()
+        auditLogService.record(
+                AuditEvent.of("Admin Added", AuditEvent.ADMIN, admin.getId())
+                        .set("email", admin.getEmail()),
+                owner.getEmail(), "OWNER"
         );
     }
 
@@ -53,10 +61,13 @@ public class OwnerService {
 
         admin.setDeleted(true);
         adminRepository.save(admin);
+        principalCache.evict(admin.getEmail());
+        revocationList.revokeUser(admin.getId());
 
-        auditLogService.logAction(
-                "Admin Removed", owner.getEmail(), "OWNER",
-                "Admin ID: " + adminId, admin.toString(), null
+        auditLogService.record(
+                AuditEvent.of("Admin Removed", AuditEvent.ADMIN, adminId)
+                        .changed("deleted", false, true),
+                owner.getEmail(), "OWNER"
         );
     }
 
@@ -70,27 +81,31 @@ public class OwnerService {
             throw new UnauthorizedAccessException("Only Owners can update their profile.");
         }
 
-        String previousData = owner.toString();
+        AuditEvent event = AuditEvent.of("Owner Profile Updated", AuditEvent.OWNER, owner.getId());
 
         if (updatedOwner.getFirstName() != null) {
+            event.changed("firstName", owner.getFirstName(), updatedOwner.getFirstName());
             owner.setFirstName(updatedOwner.getFirstName());
         }
         if (updatedOwner.getLastName() != null) {
+            event.changed("lastName", owner.getLastName(), updatedOwner.getLastName());
             owner.setLastName(updatedOwner.getLastName());
         }
         if (updatedOwner.getEmail() != null) {
+            event.changed("email", owner.getEmail(), updatedOwner.getEmail());
+            principalCache.evict(owner.getEmail());
+            revocationList.revokeUser(owner.getId());
             owner.setEmail(updatedOwner.getEmail());
         }
         if (updatedOwner.getPhoneNumber() != null) {
+            event.changed("phoneNumber", owner.getPhoneNumber(), updatedOwner.getPhoneNumber());
             owner.setPhoneNumber(updatedOwner.getPhoneNumber());
         }
 
         userRepository.save(owner);
+        principalCache.evict(owner.getEmail());
 
-        auditLogService.logAction(
-                "Owner Profile Updated", owner.getEmail(), "OWNER",
-                "Owner ID: " + owner.getId(), previousData, owner.toString()
-        );
+        auditLogService.record(event, owner.getEmail(), "OWNER");
     }
 
     @Transactional
@@ -108,10 +123,12 @@ public class OwnerService {
 
         admin.setDeleted(false);
         adminRepository.save(admin);
+        principalCache.evict(admin.getEmail());
 
-        auditLogService.logAction(
-                "Admin Reactivated", owner.getEmail(), "OWNER",
-                "Admin ID: " + adminId, null, admin.toString()
+        auditLogService.record(
+                AuditEvent.of("Admin Reactivated", AuditEvent.ADMIN, adminId)
+                        .changed("deleted", true, false),
+                owner.getEmail(), "OWNER"
         );
     }
 
@@ -121,24 +138,25 @@ public class OwnerService {
         Admin admin = adminRepository.findById(adminId)
                 .orElseThrow(() -> new AdminNotFoundException("Admin not found with ID: " + adminId));
 
-        String previousData = admin.toString();
+        AuditEvent event = AuditEvent.of("Admin Updated", AuditEvent.ADMIN, adminId);
 
         if (updatedAdmin.getFirstName() != null) {
+            event.changed("firstName", admin.getFirstName(), updatedAdmin.getFirstName());
             admin.setFirstName(updatedAdmin.getFirstName());
         }
         if (updatedAdmin.getLastName() != null) {
+            event.changed("lastName", admin.getLastName(), updatedAdmin.getLastName());
             admin.setLastName(updatedAdmin.getLastName());
         }
         if (updatedAdmin.getPhoneNumber() != null) {
+            event.changed("phoneNumber", admin.getPhoneNumber(), updatedAdmin.getPhoneNumber());
             admin.setPhoneNumber(updatedAdmin.getPhoneNumber());
         }
 
         adminRepository.save(admin);
+        principalCache.evict(admin.getEmail());
 
-        auditLogService.logAction(
-                "Admin Updated", "OWNER", "OWNER",
-                "Admin ID: " + adminId, previousData, admin.toString()
-        );
+        auditLogService.record(event, "OWNER", "OWNER");
     }
 
     // ✅ Retrieve a Specific Admin by ID
@@ -149,11 +167,11 @@ public class OwnerService {
     }
 
     // ✅ Retrieve Audit Logs for the Owner
-    public List<AuditLog> getAuditLogs(Owner owner) {
+    public List<AuditLogDto> getAuditLogs(Owner owner, AuditLogQuery query) {
         if (!owner.getRole().isOwner()) {
             throw new UnauthorizedAccessException("Only Owners can view audit logs.");
         }
-        return auditLogService.getAllLogs(); // Owners have full access to logs
+        return auditLogService.search(query); // Owners have full access to logs
     }
 
     // ✅ Reactivate a Soft-Deleted Doctor
@@ -172,10 +190,12 @@ public class OwnerService {
 
         doctor.setDeleted(false);
         doctorRepository.save(doctor);
+        principalCache.evict(doctor.getEmail());
 
-        auditLogService.logAction(
-                "Doctor Reactivated", owner.getEmail(), "OWNER",
-                "Doctor ID: " + doctorId, null, doctor.toString()
+        auditLogService.record(
+                AuditEvent.of("Doctor Reactivated", AuditEvent.DOCTOR, doctorId)
+                        .changed("deleted", true, false),
+                owner.getEmail(), "OWNER"
         );
     }
 }
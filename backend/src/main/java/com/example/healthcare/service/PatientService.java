@@ -1,9 +1,12 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Audit.AuditEvent;
 import com.example.healthcare.entity.Patient;
 import com.example.healthcare.exception.PatientNotFoundException;
 import com.example.healthcare.repository.PatientRepository;
 import com.example.healthcare.repository.PrescriptionRepository;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,6 +22,8 @@ public class PatientService {
     private final AuditLogService auditLogService; // ✅ Injected Audit Log Service
     private final PasswordEncoder passwordEncoder;
     private final PrescriptionRepository prescriptionRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
     public Patient getPatientById(Long id) {
         return patientRepository.findByIdAndIsDeletedFalse(id)
@@ -28,27 +33,28 @@ public class PatientService {
     @Transactional
     public void updatePatient(Long id, Patient updatedPatient) {
         Patient existing = getPatientById(id);
-        String previousData = existing.toString();
+        AuditEvent event = AuditEvent.of("Patient Profile Updated", AuditEvent.PATIENT, id);
 
         if (updatedPatient.getFirstName() != null) {
+            event.changed("firstName", existing.getFirstName(), updatedPatient.getFirstName());
             existing.setFirstName(updatedPatient.getFirstName());
         }
         if (updatedPatient.getLastName() != null) {
+            event.changed("lastName", existing.getLastName(), updatedPatient.getLastName());
             existing.setLastName(updatedPatient.getLastName());
         }
         if (updatedPatient.getPhoneNumber() != null) {
+            event.changed("phoneNumber", existing.getPhoneNumber(), updatedPatient.getPhoneNumber());
             existing.setPhoneNumber(updatedPatient.getPhoneNumber());
         }
         if (updatedPatient.getInsuranceProvider() != null) {
+            event.changed("insuranceProvider", existing.getInsuranceProvider(), updatedPatient.getInsuranceProvider());
             existing.setInsuranceProvider(updatedPatient.getInsuranceProvider());
         }
 
         patientRepository.save(existing);
 
-        auditLogService.logAction(
-                "Patient Profile Updated", existing.getEmail(), "PATIENT",
-                "Patient ID: " + id, previousData, existing.toString()
-        );
+        auditLogService.record(event, existing.getEmail(), "PATIENT");
     }
 
     @Transactional
@@ -56,10 +62,13 @@ public class PatientService {
         Patient patient = getPatientById(id);
         patient.setDeleted(true);
         patientRepository.save(patient);
+        principalCache.evict(patient.getEmail());
+        revocationList.revokeUser(patient.getId());
 
-        auditLogService.logAction(
-                "Patient Account Deleted", patient.getEmail(), "PATIENT",
-                "Patient ID: " + id, patient.toString(), null
+        auditLogService.record(
+                AuditEvent.of("Patient Account Deleted", AuditEvent.PATIENT, id)
+                        .changed("deleted", false, true),
+                patient.getEmail(), "PATIENT"
         );
     }
 
@@ -122,21 +131,15 @@ public class PatientService {
             throw new IllegalArgumentException("Current password is incorrect.");
         }
 
-        // Audit previous hash (optional—be mindful of GDPR/security)
-        String previousHash = patient.getPassword();
-
         // Encode and set new password
         patient.setPassword(passwordEncoder.encode(newPassword));
         patientRepository.save(patient);
 
-        // Log the change
-        auditLogService.logAction(
-                "Patient Password Changed",
-                patient.getEmail(),
-                "PATIENT",
-                "Patient ID: " + id,
-                previousHash,
-                patient.getPassword()
+        // Log the change; hashes never go into the audit trail
+        auditLogService.record(
+                AuditEvent.of("Patient Password Changed", AuditEvent.PATIENT, id)
+                        .set("password", AuditEvent.REDACTED),
+                patient.getEmail(), "PATIENT"
         );
     }
 
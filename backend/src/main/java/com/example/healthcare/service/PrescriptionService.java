@@ -1,5 +1,6 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Audit.AuditEvent;
 import com.example.healthcare.entity.*;
 import com.example.healthcare.entity.enums.UserRole;
 import com.example.healthcare.repository.AppointmentRepository;
@@ -71,15 +72,13 @@ public class PrescriptionService {
         Prescription saved = prescriptionRepository.save(prescription);
 
         // 5. Audit Logging for creation
-        String detail = String.format("Medication: %s, Dosage: %s, Refills: %d",
-                medicationName, dosage, refillsLeft);
-        auditLogService.logAction(
-                "Prescription Created",
+        auditLogService.record(
+                AuditEvent.of("Prescription Created", AuditEvent.PRESCRIPTION, saved.getId())
+                        .set("medicationName", medicationName)
+                        .set("dosage", dosage)
+                        .set("refillsLeft", refillsLeft),
                 prescribingDoctor.getEmail(),                  // performedBy (doctor's email)
-                prescribingDoctor.getRole().name(),           // role (e.g., "DOCTOR")
-                "Prescription ID: " + saved.getId(),
-                null,                                         // no previous data (new record)
-                detail                                        // new data summary
+                prescribingDoctor.getRole().name()            // role (e.g., "DOCTOR")
         );
         return saved;
     }
@@ -179,15 +178,13 @@ public class PrescriptionService {
         prescriptionRepository.save(prescription);
 
         // Log the cancellation action
-        String prevData = String.format("Medication: %s, Dosage: %s, RefillsLeft: %d (active)",
-                prescription.getMedicationName(), prescription.getDosage(), prescription.getRefillsLeft());
-        auditLogService.logAction(
-                "Prescription Cancelled",
+        auditLogService.record(
+                AuditEvent.of("Prescription Cancelled", AuditEvent.PRESCRIPTION, prescriptionId)
+                        .changed("deleted", false, true)
+                        .was("medicationName", prescription.getMedicationName())
+                        .was("refillsLeft", prescription.getRefillsLeft()),
                 currentUser.getEmail(),
-                currentUser.getRole().name(),
-                "Prescription ID: " + prescriptionId,
-                prevData,
-                null   // after cancellation, prescription is considered deleted (no new data state)
+                currentUser.getRole().name()
         );
     }
 
@@ -201,17 +198,15 @@ public class PrescriptionService {
         if (Boolean.TRUE.equals(prescription.isRefillRequested()) && "PENDING".equals(prescription.getRefillStatus()))
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Refill already requested and pending.");
 
+        String previousStatus = prescription.getRefillStatus();
         prescription.setRefillRequested(true);
         prescription.setRefillStatus("PENDING");
         prescription.setRefillRequestDate(LocalDateTime.now());
         prescriptionRepository.save(prescription);
-        auditLogService.logAction(
-                "Refill Requested",
-                patient.getEmail(),
-                patient.getRole().name(),
-                "Prescription ID: " + prescriptionId,
-                null,
-                "Refill requested"
+        auditLogService.record(
+                AuditEvent.of("Refill Requested", AuditEvent.PRESCRIPTION, prescriptionId)
+                        .changed("refillStatus", previousStatus, "PENDING"),
+                patient.getEmail(), patient.getRole().name()
         );
     }
 
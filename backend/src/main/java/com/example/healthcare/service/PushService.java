@@ -0,0 +1,148 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Push.MessageSentEvent;
+import com.example.healthcare.dto.Push.MessagesReadEvent;
+import com.example.healthcare.dto.Push.NotificationCreatedEvent;
+import com.example.healthcare.dto.Push.NotificationsReadEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent event push to connected users, replacing badge and thread polling.
+ * <p>
+ * Services publish {@code dto.Push} events; they are delivered here only after their transaction
+ * commits, as SSE events named "message", "messages-read", "notification" and "notifications-read"
+ * carrying the event record as JSON. An open stream holds no request thread (the servlet request is
+ * async), and writes run on virtual threads so a slow client never holds up the committing request.
+ * <p>
+ * Streams live in this instance's memory: with several instances, a user only receives events
+ * raised on the instance their stream is connected to.
+ */
+@Slf4j
+@Service
+public class PushService {
+
+    @Value("${push.sse.timeout-ms:1800000}")
+    private long timeoutMs = 1_800_000;
+
+    @Value("${push.sse.max-streams-per-user:5}")
+    private int maxStreamsPerUser = 5;
+
+    private final Map<Long, Set<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Opens a stream for the user; the browser's EventSource reconnects when it times out.
+     * Beyond {@code push.sse.max-streams-per-user} the oldest stream of the user is closed.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Set<SseEmitter> userStreams = streams.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>());
+        userStreams.add(emitter);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+        while (userStreams.size() > maxStreamsPerUser) {
+            SseEmitter oldest = userStreams.iterator().next();
+            remove(userId, oldest);
+            oldest.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Closes the user's streams, e.g. once their session or account is revoked. A browser that is
+     * still logged in reconnects with a new ticket; a revoked one cannot get one.
+     */
+    public void disconnect(Long userId) {
+        Set<SseEmitter> userStreams = streams.remove(userId);
+        if (userStreams != null) {
+            userStreams.forEach(SseEmitter::complete);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        send(event.message().getReceiverId(), "message", event);
+        send(event.message().getSenderId(), "message", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessagesRead(MessagesReadEvent event) {
+        send(event.partnerId(), "messages-read", event);
+        send(event.readerId(), "messages-read", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        send(event.recipientId(), "notification", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        send(event.recipientId(), "notifications-read", event);
+    }
+
+    /**
+     * Keeps idle streams open through proxies and finds connections that went away.
+     */
+    @Scheduled(fixedDelayString = "${push.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.forEach((userId, userStreams) -> userStreams.forEach(emitter ->
+                senders.execute(() -> write(userId, emitter, SseEmitter.event().comment("ping")))));
+    }
+
+    public int connectedUsers() {
+        return streams.size();
+    }
+
+    private void send(Long userId, String name, Object data) {
+        Set<SseEmitter> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (SseEmitter emitter : userStreams) {
+            senders.execute(() -> write(userId, emitter, SseEmitter.event().name(name).data(data)));
+        }
+    }
+
+    private void write(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or stream already completed
+            remove(userId, emitter);
+            log.debug("Dropped push stream of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        streams.computeIfPresent(userId, (id, userStreams) -> {
+            userStreams.remove(emitter);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    List<SseEmitter> streamsOf(Long userId) {
+        return List.copyOf(streams.getOrDefault(userId, Set.of()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+}
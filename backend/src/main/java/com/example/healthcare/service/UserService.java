@@ -4,6 +4,8 @@ import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.UserRole;
 import com.example.healthcare.exception.UserNotFoundException;
 import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +18,8 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
     public User getUser(Long id) {
         return userRepository.findByIdAndIsDeletedFalse(id)
@@ -30,14 +34,18 @@ public class UserService {
         User existing = getUser(id);
         existing.setFirstName(updated.getFirstName());
         existing.setLastName(updated.getLastName());
+        principalCache.evict(existing.getEmail());
         existing.setEmail(updated.getEmail());
         userRepository.save(existing);
+        principalCache.evict(existing.getEmail());
     }
 
     public void deleteUser(Long id) {
         User user = getUser(id);
         user.setDeleted(true); // Soft deletion
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        revocationList.revokeUser(user.getId());
     }
 
     public List<User> getUsersCreatedLast30Days() {
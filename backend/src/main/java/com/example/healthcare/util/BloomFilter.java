@@ -0,0 +1,71 @@
+package com.example.healthcare.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings: {@link #mightContain} never returns false for an added key,
+ * and returns true for a key never added with a probability set by the size and the number of keys.
+ * <p>
+ * Bits live in an {@link AtomicLongArray}, so adds and lookups are safe from any thread without
+ * locking. Keys cannot be removed; rebuild a new filter instead.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final int bits;
+    private final int hashes;
+
+    /**
+     * @param bits   filter size in bits (rounded up to a multiple of 64)
+     * @param hashes bit positions set per key
+     */
+    public BloomFilter(int bits, int hashes) {
+        if (bits <= 0 || hashes <= 0) {
+            throw new IllegalArgumentException("Bloom filter needs a positive size and hash count");
+        }
+        this.words = new AtomicLongArray((bits + 63) / 64);
+        this.bits = words.length() * 64;
+        this.hashes = hashes;
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the UTF-8 bytes, then the SplitMix64 finalizer to spread both halves
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
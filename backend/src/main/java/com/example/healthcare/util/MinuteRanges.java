@@ -0,0 +1,187 @@
+package com.example.healthcare.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interval arithmetic on time-of-day ranges encoded as minutes of the day.
+ *
+ * A range set is a packed {@code int[]} of {@code [start0, end0, start1, end1, ...]} half-open
+ * ranges. Sets produced by {@link Builder#build()} are normalized: sorted, non-empty and with
+ * overlapping or touching ranges merged, which lets every operation below run as a single
+ * linear sweep (or a binary search) without boxing.
+ */
+public final class MinuteRanges {
+
+    public static final int[] EMPTY = new int[0];
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Bits reserved for the end minute when sorting (start, end) pairs as one int
+    private static final int END_BITS = 11;
+    private static final int END_MASK = (1 << END_BITS) - 1;
+
+    private MinuteRanges() {
+    }
+
+    public static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public static LocalTime toTime(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    /**
+     * True if {@code [start, end)} intersects any range of a normalized set.
+     */
+    public static boolean overlaps(int[] ranges, int start, int end) {
+        if (end <= start) return false;
+        // First range whose end is after start; ends are strictly increasing in a normalized set
+        int lo = 0;
+        int hi = ranges.length / 2;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ranges[2 * mid + 1] > start) hi = mid;
+            else lo = mid + 1;
+        }
+        return lo < ranges.length / 2 && ranges[2 * lo] < end;
+    }
+
+    /**
+     * True if {@code minute} falls inside a range of a normalized set.
+     */
+    public static boolean contains(int[] ranges, int minute) {
+        return overlaps(ranges, minute, minute + 1);
+    }
+
+    /**
+     * {@code base} minus {@code blocks}, both normalized. The result is normalized.
+     */
+    public static int[] subtract(int[] base, int[] blocks) {
+        int[] out = new int[base.length + blocks.length];
+        int n = 0;
+        int b = 0;
+        for (int i = 0; i < base.length; i += 2) {
+            int start = base[i];
+            int end = base[i + 1];
+            while (b < blocks.length && blocks[b + 1] <= start) b += 2;
+            int j = b;
+            while (j < blocks.length && blocks[j] < end) {
+                if (blocks[j] > start) {
+                    out[n++] = start;
+                    out[n++] = blocks[j];
+                }
+                start = Math.max(start, blocks[j + 1]);
+                j += 2;
+            }
+            if (start < end) {
+                out[n++] = start;
+                out[n++] = end;
+            }
+        }
+        return n == 0 ? EMPTY : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Start minutes of every slot of {@code length} minutes that fits in {@code working}
+     * without touching {@code blocked}. Slots are aligned to the start of each free range.
+     * Both sets must be normalized; the subtraction and enumeration happen in one sweep.
+     */
+    public static int[] slotStarts(int[] working, int[] blocked, int length) {
+        if (length <= 0) throw new IllegalArgumentException("Slot length must be positive.");
+        int capacity = 0;
+        for (int i = 0; i < working.length; i += 2) {
+            capacity += (working[i + 1] - working[i]) / length;
+        }
+        if (capacity == 0) return EMPTY;
+
+        int[] out = new int[capacity];
+        int n = 0;
+        int b = 0;
+        for (int i = 0; i < working.length; i += 2) {
+            int start = working[i];
+            int end = working[i + 1];
+            while (b < blocked.length && blocked[b + 1] <= start) b += 2;
+            int j = b;
+            while (start < end) {
+                int freeEnd = end;
+                if (j < blocked.length && blocked[j] < end) {
+                    freeEnd = Math.max(start, blocked[j]);
+                }
+                for (int t = start; t + length <= freeEnd; t += length) {
+                    out[n++] = t;
+                }
+                if (freeEnd == end) break;
+                start = blocked[j + 1];
+                j += 2;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    public static List<LocalTime> toTimes(int[] minutes) {
+        List<LocalTime> times = new ArrayList<>(minutes.length);
+        for (int minute : minutes) times.add(toTime(minute));
+        return times;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects ranges in any order and produces a normalized set.
+     * Ranges are clamped to the day; empty ranges are ignored.
+     */
+    public static final class Builder {
+        private int[] keys = new int[8];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(int start, int end) {
+            start = Math.max(start, 0);
+            end = Math.min(end, MINUTES_PER_DAY);
+            if (end <= start) return this;
+            if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+            keys[size++] = (start << END_BITS) | end;
+            return this;
+        }
+
+        public Builder add(LocalTime start, LocalTime end) {
+            return add(toMinute(start), toMinute(end));
+        }
+
+        /** Adds a range of {@code length} minutes starting at {@code start}, cut at midnight. */
+        public Builder addLength(LocalTime start, int length) {
+            int from = toMinute(start);
+            return add(from, from + length);
+        }
+
+        public Builder addAll(int[] ranges) {
+            for (int i = 0; i < ranges.length; i += 2) add(ranges[i], ranges[i + 1]);
+            return this;
+        }
+
+        public int[] build() {
+            if (size == 0) return EMPTY;
+            Arrays.sort(keys, 0, size);
+            int[] out = new int[size * 2];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int start = keys[i] >>> END_BITS;
+                int end = keys[i] & END_MASK;
+                if (n > 0 && start <= out[n - 1]) {
+                    out[n - 1] = Math.max(out[n - 1], end);
+                } else {
+                    out[n++] = start;
+                    out[n++] = end;
+                }
+            }
+            return n == out.length ? out : Arrays.copyOf(out, n);
+        }
+    }
+}
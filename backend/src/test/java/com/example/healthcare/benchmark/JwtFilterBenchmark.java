@@ -0,0 +1,126 @@
+package com.example.healthcare.benchmark;
+
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.RevokedTokenRepository;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.JwtAuthenticationFilter;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.StreamTicketStore;
+import com.example.healthcare.security.TokenRevocationList;
+import com.example.healthcare.service.JwtService;
+import com.example.healthcare.service.PushService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the JWT filter for a client repeating the same bearer token:
+ * the previous path (fresh HMAC key and a full parse twice, extractUsername then
+ * validateToken) against {@link JwtAuthenticationFilter} with the verified-token cache,
+ * plus a single uncached parse for reference. The user lookup is an in-memory stub
+ * (behind the principal cache) so only the token handling is measured.
+ *
+ * Run {@link #main} from the IDE, or after {@code mvn test-compile}:
+ *   java -cp target/test-classes:target/classes:$(test classpath) org.openjdk.jmh.Main JwtFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "BenchmarkOnlyJwtSecretKeyForHealthcare12345";
+    private static final FilterChain NO_OP = (req, res) -> { };
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private UserRepository userRepository;
+    private User user;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        user = new Doctor();
+        user.setId(1L);
+        user.setEmail("doc@example.com");
+        user.setRole(UserRole.DOCTOR);
+        userRepository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> method.getName().equals("findByEmailAndIsDeletedFalse")
+                        ? Optional.of(user) : null);
+        RevokedTokenRepository revokedTokens = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(), new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> method.getName().startsWith("find") ? List.of() : null);
+        StreamTicketStore streamTickets = new StreamTicketStore();
+        filter = new JwtAuthenticationFilter(jwtService, new PrincipalCache(userRepository),
+                new TokenRevocationList(revokedTokens, new PushService(), streamTickets), streamTickets);
+
+        token = jwtService.generateToken(user);
+        request = new MockHttpServletRequest("GET", "/api/doctor/appointments/upcoming");
+        request.setServletPath("/api/doctor/appointments/upcoming");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Object previousFilterPath() {
+        SecurityContextHolder.clearContext();
+        String header = request.getHeader("Authorization");
+        String raw = header.substring(7);
+        String email = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(raw)
+                .getBody()
+                .getSubject();
+        User found = userRepository.findByEmailAndIsDeletedFalse(email).orElseThrow();
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(raw);
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(found, null, found.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        return auth;
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken singleParseUncached() {
+        return jwtService.parse(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
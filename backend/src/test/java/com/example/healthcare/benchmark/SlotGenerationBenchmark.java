@@ -0,0 +1,142 @@
+package com.example.healthcare.benchmark;
+
+import com.example.healthcare.util.MinuteRanges;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot generation for one doctor-day with a dense calendar: the previous
+ * LocalTime list subtraction + TreeSet against the {@link MinuteRanges} sweep.
+ *
+ * Run {@link #main} from the IDE, or after {@code mvn test-compile}:
+ *   java -cp target/test-classes:target/classes:$(test classpath) org.openjdk.jmh.Main SlotGenerationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotGenerationBenchmark {
+
+    /** Number of booked appointments in the day. */
+    @Param({"8", "32", "64"})
+    private int appointments;
+
+    private final Duration apptLength = Duration.ofMinutes(10);
+
+    private List<TimeRange> workingTimes;
+    private List<TimeRange> blockedTimes;
+    private List<LocalTime> booked;
+
+    private int[] working;
+    private int[] blocked;
+
+    @Setup
+    public void setup() {
+        // 07:00-21:00 split into back-to-back recurring slots plus one extra one-time slot
+        workingTimes = new ArrayList<>();
+        for (int hour = 7; hour < 21; hour += 2) {
+            workingTimes.add(new TimeRange(LocalTime.of(hour, 0), LocalTime.of(hour + 2, 0)));
+        }
+        workingTimes.add(new TimeRange(LocalTime.of(21, 0), LocalTime.of(22, 0)));
+
+        // Three breaks and one one-time block
+        blockedTimes = new ArrayList<>(List.of(
+                new TimeRange(LocalTime.of(10, 0), LocalTime.of(10, 15)),
+                new TimeRange(LocalTime.of(12, 30), LocalTime.of(13, 30)),
+                new TimeRange(LocalTime.of(16, 0), LocalTime.of(16, 15)),
+                new TimeRange(LocalTime.of(18, 0), LocalTime.of(19, 0))));
+
+        Random random = new Random(42);
+        booked = new ArrayList<>();
+        for (int i = 0; i < appointments; i++) {
+            booked.add(LocalTime.of(7, 0).plusMinutes(10L * random.nextInt(90)));
+        }
+
+        MinuteRanges.Builder w = MinuteRanges.builder();
+        for (TimeRange tr : workingTimes) w.add(tr.start, tr.end);
+        working = w.build();
+        MinuteRanges.Builder b = MinuteRanges.builder();
+        for (TimeRange tr : blockedTimes) b.add(tr.start, tr.end);
+        blocked = b.build();
+    }
+
+    @Benchmark
+    public List<LocalTime> listSubtraction() {
+        List<TimeRange> blocks = new ArrayList<>(blockedTimes);
+        for (LocalTime start : booked) {
+            blocks.add(new TimeRange(start, start.plus(apptLength)));
+        }
+        List<TimeRange> available = subtractRanges(workingTimes, blocks);
+        Set<LocalTime> result = new TreeSet<>();
+        for (TimeRange tr : available) {
+            LocalTime t = tr.start;
+            while (!t.plus(apptLength).isAfter(tr.end)) {
+                result.add(t);
+                t = t.plus(apptLength);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    @Benchmark
+    public int[] sweep() {
+        int length = (int) apptLength.toMinutes();
+        MinuteRanges.Builder blocks = MinuteRanges.builder().addAll(blocked);
+        for (LocalTime start : booked) {
+            blocks.addLength(start, length);
+        }
+        return MinuteRanges.slotStarts(working, blocks.build(), length);
+    }
+
+    @Benchmark
+    public List<LocalTime> sweepToTimes() {
+        return MinuteRanges.toTimes(sweep());
+    }
+
+    // --- Previous implementation, kept here as the baseline ---
+
+    private static List<TimeRange> subtractRanges(List<TimeRange> bases, List<TimeRange> blocks) {
+        List<TimeRange> result = new ArrayList<>(bases);
+        for (TimeRange block : blocks) {
+            List<TimeRange> updated = new ArrayList<>();
+            for (TimeRange base : result) {
+                updated.addAll(subtract(base, block));
+            }
+            result = updated;
+        }
+        return result;
+    }
+
+    private static List<TimeRange> subtract(TimeRange base, TimeRange block) {
+        if (block.end.isBefore(base.start) || !block.start.isBefore(base.end)) {
+            return List.of(base);
+        }
+        if (block.start.compareTo(base.start) <= 0 && block.end.compareTo(base.end) >= 0) {
+            return List.of();
+        }
+        if (block.start.compareTo(base.start) <= 0) {
+            return List.of(new TimeRange(block.end, base.end));
+        }
+        if (block.end.compareTo(base.end) >= 0) {
+            return List.of(new TimeRange(base.start, block.start));
+        }
+        return List.of(new TimeRange(base.start, block.start), new TimeRange(block.end, base.end));
+    }
+
+    private record TimeRange(LocalTime start, LocalTime end) {}
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlotGenerationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
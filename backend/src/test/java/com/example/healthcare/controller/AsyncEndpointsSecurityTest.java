@@ -0,0 +1,117 @@
+package com.example.healthcare.controller;
+
+import com.example.healthcare.config.SecurityConfig;
+import com.example.healthcare.entity.Admin;
+import com.example.healthcare.entity.enums.AccountStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.security.AuthenticatedUser;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.SecurityUtils;
+import com.example.healthcare.security.StreamTicketStore;
+import com.example.healthcare.security.TokenRevocationList;
+import com.example.healthcare.service.AdminService;
+import com.example.healthcare.service.AuditLogService;
+import com.example.healthcare.service.BookingCoordinator;
+import com.example.healthcare.service.CustomUserDetailsService;
+import com.example.healthcare.service.JwtService;
+import com.example.healthcare.service.NotificationFanOutService;
+import com.example.healthcare.service.PushService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.OutputStream;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Async responses through the real security chain: the JWT filter authenticates the REQUEST dispatch
+ * only, so the completion dispatch must not be authorized again.
+ */
+@WebMvcTest(controllers = {PushController.class, AdminController.class})
+@Import({SecurityConfig.class, StreamTicketStore.class})
+class AsyncEndpointsSecurityTest {
+
+    private static final AuthenticatedUser ADMIN =
+            new AuthenticatedUser(1L, "admin@example.com", UserRole.ADMIN, AccountStatus.ACTIVE, "Admin");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StreamTicketStore streamTickets;
+
+    @MockitoBean
+    private JwtService jwtService;
+    @MockitoBean
+    private PrincipalCache principalCache;
+    @MockitoBean
+    private TokenRevocationList revocationList;
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+    @MockitoBean
+    private SecurityUtils securityUtils;
+    @MockitoBean
+    private PushService pushService;
+    @MockitoBean
+    private AdminService adminService;
+    @MockitoBean
+    private AuditLogService auditLogService;
+    @MockitoBean
+    private BookingCoordinator bookingCoordinator;
+    @MockitoBean
+    private NotificationFanOutService notificationFanOutService;
+
+    @Test
+    void pushStream_completesAfterItsAsyncDispatch() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(securityUtils.getAuthenticatedUserId()).thenReturn(ADMIN.id());
+        when(pushService.subscribe(ADMIN.id())).thenReturn(emitter);
+
+        MvcResult opened = mockMvc.perform(get("/api/stream").servletPath("/api/stream")
+                        .param("ticket", streamTickets.issue(ADMIN)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("notification").data("hello"));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(opened))
+                .andExpect(status().isOk())
+                .andExpect(content().string("event:notification\ndata:hello\n\n"));
+    }
+
+    @Test
+    void appointmentExport_completesAfterItsAsyncDispatch() throws Exception {
+        when(jwtService.verify("admin-token")).thenReturn(new JwtService.VerifiedToken("admin@example.com",
+                "ADMIN", 1L, "ACTIVE", "Admin", "jti-1", System.currentTimeMillis(),
+                System.currentTimeMillis() + 60_000));
+        when(principalCache.get("admin@example.com")).thenReturn(Optional.of(ADMIN));
+        when(securityUtils.getAuthenticatedAdmin()).thenReturn(new Admin());
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(2).write("{\"id\":1}\n".getBytes());
+            return null;
+        }).when(adminService).exportAppointments(any(), any(), any());
+
+        MvcResult started = mockMvc.perform(get("/admin/export-appointments")
+                        .header("Authorization", "Bearer admin-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+}
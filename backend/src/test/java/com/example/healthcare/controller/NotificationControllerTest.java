@@ -1,6 +1,6 @@
 package com.example.healthcare.controller;
 
-import com.example.healthcare.entity.Notification;
+import com.example.healthcare.dto.Notification.NotificationDto;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.NotificationType;
 import com.example.healthcare.service.NotificationService;
@@ -56,26 +56,39 @@ public class NotificationControllerTest {
 
     @Test
     public void testGetNotifications() throws Exception {
-        Notification n1 = new Notification();
-        n1.setId(1L);
-        n1.setMessage("Appointment reminder");
-        n1.setType(NotificationType.APPOINTMENT);
-        Notification n2 = new Notification();
-        n2.setId(2L);
-        n2.setMessage("Prescription approved");
-        n2.setType(NotificationType.PRESCRIPTION);
-        List<Notification> notifications = Arrays.asList(n1, n2);
-
-        when(userService.getUser(testUser.getId())).thenReturn(testUser);
-        when(notificationService.getNotificationsForUser(testUser)).thenReturn(notifications);
+        NotificationDto n1 = new NotificationDto();
+        n1.setId(2L);
+        n1.setMessage("Prescription approved");
+        n1.setType(NotificationType.PRESCRIPTION);
+        NotificationDto n2 = new NotificationDto();
+        n2.setId(1L);
+        n2.setMessage("Appointment reminder");
+        n2.setType(NotificationType.APPOINTMENT);
+        List<NotificationDto> notifications = Arrays.asList(n1, n2);
+
+        when(notificationService.getNotificationsPage(testUser.getId(), false, 5L, 20)).thenReturn(notifications);
 
         mockMvc.perform(get("/notifications")
-                        .param("userId", String.valueOf(testUser.getId())))
+                        .param("userId", String.valueOf(testUser.getId()))
+                        .param("beforeId", "5")
+                        .param("limit", "20"))
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("Appointment reminder")))
                 .andExpect(content().string(containsString("Prescription approved")));
     }
 
+    @Test
+    public void testCountUnreadNotifications() throws Exception {
+        when(notificationService.countUnread(testUser.getId())).thenReturn(7L);
+
+        mockMvc.perform(get("/notifications/unread/count")
+                        .param("userId", String.valueOf(testUser.getId())))
+                .andExpect(status().isOk())
+                .andExpect(content().string("7"));
+
+        verify(notificationService, never()).getUnreadNotificationsForUser(any());
+    }
+
     @Test
     public void testMarkNotificationAsRead() throws Exception {
         // Assume notification id 5 exists.
@@ -90,7 +103,7 @@ public class NotificationControllerTest {
 
     @Test
     public void testMarkAllAsRead() throws Exception {
-        doNothing().when(notificationService).markAllNotificationsAsRead(testUser);
+        when(notificationService.markAllNotificationsAsRead(testUser)).thenReturn(2);
         when(userService.getUser(testUser.getId())).thenReturn(testUser);
 
         mockMvc.perform(post("/notifications/markAllAsRead")
@@ -0,0 +1,88 @@
+package com.example.healthcare.repository.DoctorSchedule;
+
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.DoctorSchedule.DoctorOneTimeSlot;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+
+import static com.example.healthcare.repository.DoctorSchedule.DoctorOneTimeSlotRepository.dayOfWeekNumber;
+import static com.example.healthcare.support.TestUsers.doctor;
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+public class DoctorOneTimeSlotRepositoryTest {
+
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+    private static final LocalTime TEN = LocalTime.of(10, 0);
+
+    @Autowired
+    private DoctorOneTimeSlotRepository oneTimeRepo;
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private Doctor doc;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        doc = doctorRepository.save(doctor("one-time.slots@example.com", "LIC-OT1"));
+        today = LocalDate.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        oneTimeRepo.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void weekdayOverlap_findsAMondaySlotOnlyForMonday() {
+        DoctorOneTimeSlot monday = slot(today.with(TemporalAdjusters.next(DayOfWeek.MONDAY)));
+
+        assertTrue(overlapsOn(DayOfWeek.MONDAY, null));
+        assertFalse(overlapsOn(DayOfWeek.SUNDAY, null));
+        assertFalse(overlapsOn(DayOfWeek.TUESDAY, null));
+        assertFalse(overlapsOn(DayOfWeek.MONDAY, monday.getId()));
+    }
+
+    @Test
+    void weekdayOverlap_mapsEveryDayOfTheWeek() {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            slot(today.with(TemporalAdjusters.next(day)));
+            assertTrue(overlapsOn(day, null), day.name());
+            assertFalse(overlapsOn(day.plus(1), null), day.plus(1).name());
+            oneTimeRepo.deleteAll();
+        }
+    }
+
+    @Test
+    void weekdayOverlap_ignoresPastSlots() {
+        slot(today.with(TemporalAdjusters.previous(DayOfWeek.MONDAY)));
+
+        assertFalse(overlapsOn(DayOfWeek.MONDAY, null));
+    }
+
+    private boolean overlapsOn(DayOfWeek day, Long excludeId) {
+        return oneTimeRepo.existsOverlappingOnWeekday(doc.getId(), today, dayOfWeekNumber(day),
+                LocalTime.of(9, 30), LocalTime.of(10, 30), excludeId);
+    }
+
+    private DoctorOneTimeSlot slot(LocalDate date) {
+        DoctorOneTimeSlot slot = new DoctorOneTimeSlot();
+        slot.setDoctor(doc);
+        slot.setDate(date);
+        slot.setStartTime(NINE);
+        slot.setEndTime(TEN);
+        slot.setAvailable(true);
+        return oneTimeRepo.save(slot);
+    }
+}
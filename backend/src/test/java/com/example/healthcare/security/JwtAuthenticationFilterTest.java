@@ -0,0 +1,163 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.enums.AccountStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.RevokedTokenRepository;
+import com.example.healthcare.service.JwtService;
+import com.example.healthcare.service.PushService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "TestOnlyJwtSecretKeyThatIsLongEnough12345";
+
+    private PrincipalCache principalCache;
+    private RevokedTokenRepository revokedTokens;
+    private TokenRevocationList revocationList;
+    private StreamTicketStore streamTickets;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        // Other test classes on this thread may have left an authentication behind
+        SecurityContextHolder.clearContext();
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        principalCache = mock(PrincipalCache.class);
+        revokedTokens = mock(RevokedTokenRepository.class);
+        streamTickets = new StreamTicketStore();
+        revocationList = new TokenRevocationList(revokedTokens, mock(PushService.class), streamTickets);
+        filter = new JwtAuthenticationFilter(jwtService, principalCache, revocationList, streamTickets);
+        ReflectionTestUtils.setField(filter, "statelessClaims", true);
+
+        Doctor doctor = new Doctor();
+        doctor.setId(5L);
+        doctor.setEmail("doc@example.com");
+        doctor.setRole(UserRole.DOCTOR);
+        token = jwtService.generateToken(doctor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessClaims_authorizeWithoutAUserLookup() throws Exception {
+        MockHttpServletResponse response = doFilter();
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedUser principal = (AuthenticatedUser) auth.getPrincipal();
+        assertEquals(200, response.getStatus());
+        assertEquals(5L, principal.id());
+        assertEquals("Doctor", principal.dtype());
+        assertEquals("ROLE_DOCTOR", auth.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(principalCache);
+    }
+
+    @Test
+    void revokedUser_isRejected() throws Exception {
+        revocationList.revokeUser(5L);
+        when(revokedTokens.existsByUserIdAndRevokedAtGreaterThanEqual(eq(5L), any())).thenReturn(true);
+
+        MockHttpServletResponse response = doFilter();
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void statelessClaimsOff_usesThePrincipalCache() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessClaims", false);
+        when(principalCache.get("doc@example.com")).thenReturn(Optional.empty());
+
+        doFilter();
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(principalCache).get("doc@example.com");
+    }
+
+    @Test
+    void unknownRoleClaim_fallsBackToThePrincipalCache() throws Exception {
+        token = Jwts.builder()
+                .setSubject("doc@example.com")
+                .claim("role", "NURSE")
+                .claim("uid", 5L)
+                .claim("status", "ACTIVE")
+                .claim("dtype", "Doctor")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+        when(principalCache.get("doc@example.com")).thenReturn(Optional.empty());
+
+        MockHttpServletResponse response = doFilter();
+
+        assertEquals(200, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(principalCache).get("doc@example.com");
+    }
+
+    @Test
+    void streamTicket_opensThePushStreamOnce() throws Exception {
+        AuthenticatedUser doctor = new AuthenticatedUser(5L, "doc@example.com", UserRole.DOCTOR,
+                AccountStatus.ACTIVE, "Doctor");
+        String ticket = streamTickets.issue(doctor);
+
+        assertEquals(doctor, openStream("ticket", ticket).getPrincipal());
+
+        SecurityContextHolder.clearContext();
+        assertNull(openStream("ticket", ticket));
+    }
+
+    @Test
+    void pushStream_doesNotAcceptTheJwt() throws Exception {
+        assertNull(openStream("access_token", token));
+    }
+
+    /**
+     * Runs the stream request through the filter.
+     *
+     * @return the authentication the filter set for the rest of the chain, or null
+     */
+    private Authentication openStream(String parameter, String value) throws Exception {
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/api/stream");
+        stream.setServletPath("/api/stream");
+        stream.addParameter(parameter, value);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(stream, new MockHttpServletResponse(),
+                (req, res) -> seen.set(SecurityContextHolder.getContext().getAuthentication()));
+        return seen.get();
+    }
+
+    private MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctor/profile");
+        request.setServletPath("/api/doctor/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private UserRepository userRepository;
+    private PrincipalCache cache;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new PrincipalCache(userRepository);
+
+        doctor = new Doctor();
+        doctor.setId(5L);
+        doctor.setEmail("doc@example.com");
+        doctor.setRole(UserRole.DOCTOR);
+        when(userRepository.findByEmailAndIsDeletedFalse("doc@example.com")).thenReturn(Optional.of(doctor));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void repeatLookups_hitTheCache() {
+        AuthenticatedUser first = cache.get("doc@example.com").orElseThrow();
+        cache.get("doc@example.com");
+
+        assertEquals(5L, first.id());
+        assertEquals("Doctor", first.dtype());
+        assertTrue(first.isActive());
+        verify(userRepository, times(1)).findByEmailAndIsDeletedFalse("doc@example.com");
+    }
+
+    @Test
+    void expiredEntries_areReloaded() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.get("doc@example.com");
+        cache.get("doc@example.com");
+
+        verify(userRepository, times(2)).findByEmailAndIsDeletedFalse("doc@example.com");
+    }
+
+    @Test
+    void evict_dropsTheEntryAgainAfterCommit() {
+        cache.get("doc@example.com");
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict("doc@example.com");
+        assertEquals(0, cache.size());
+        // A request racing the transaction re-caches the not yet committed state...
+        cache.get("doc@example.com");
+        assertEquals(1, cache.size());
+
+        // ...which the after-commit eviction removes
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void deletedUsers_areNotCached() {
+        when(userRepository.findByEmailAndIsDeletedFalse("gone@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(cache.get("gone@example.com").isEmpty());
+        assertEquals(0, cache.size());
+    }
+}
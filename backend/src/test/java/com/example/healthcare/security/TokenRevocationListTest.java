@@ -0,0 +1,131 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.entity.RevokedToken;
+import com.example.healthcare.entity.enums.AccountStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.RevokedTokenRepository;
+import com.example.healthcare.service.JwtService;
+import com.example.healthcare.service.PushService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private RevokedTokenRepository repository;
+    private PushService pushService;
+    private StreamTicketStore streamTickets;
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        pushService = mock(PushService.class);
+        streamTickets = new StreamTicketStore();
+        revocations = new TokenRevocationList(repository, pushService, streamTickets);
+    }
+
+    @Test
+    void unrevokedTokens_areAnsweredWithoutTheDatabase() {
+        for (long id = 1; id <= 100; id++) {
+            assertFalse(revocations.isRevoked(token("jti-" + id, id, 1_000)));
+        }
+
+        verify(repository).findByExpiresAtAfter(any());
+        verify(repository, never()).existsByTokenId(any());
+        verify(repository, never()).existsByUserIdAndRevokedAtGreaterThanEqual(any(), any());
+    }
+
+    @Test
+    void loggedOutToken_isRevokedButOtherSessionsAreNot() {
+        JwtService.VerifiedToken loggedOut = token("jti-1", 5L, 1_000);
+        revocations.revokeToken(loggedOut);
+        when(repository.existsByTokenId("jti-1")).thenReturn(true);
+
+        assertTrue(revocations.isRevoked(loggedOut));
+        assertFalse(revocations.isRevoked(token("jti-2", 5L, 1_000)));
+        verify(repository).save(argThat(row -> "jti-1".equals(row.getTokenId()) && row.getUserId() == null));
+    }
+
+    @Test
+    void bloomHit_isConfirmedAgainstTheTable() {
+        revocations.revokeUser(5L);
+        Instant revokedAt = Instant.now();
+        when(repository.existsByUserIdAndRevokedAtGreaterThanEqual(eq(5L), any()))
+                .thenAnswer(inv -> !inv.<Instant>getArgument(1).isAfter(revokedAt));
+
+        assertTrue(revocations.isRevoked(token("jti-1", 5L, revokedAt.toEpochMilli() - 60_000)));
+        // A new login after reactivation: the filter still matches the user, the table does not
+        assertFalse(revocations.isRevoked(token("jti-2", 5L, revokedAt.toEpochMilli() + 60_000)));
+    }
+
+    @Test
+    void sync_picksUpRevocationsFromOtherInstances() {
+        RevokedToken row = new RevokedToken();
+        row.setId(1L);
+        row.setUserId(9L);
+        row.setRevokedAt(Instant.now());
+        row.setExpiresAt(Instant.now().plusSeconds(60));
+        JwtService.VerifiedToken token = token("jti-9", 9L, 1_000);
+        when(repository.existsByUserIdAndRevokedAtGreaterThanEqual(eq(9L), any())).thenReturn(true);
+
+        assertFalse(revocations.isRevoked(token));
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(row));
+        revocations.sync();
+
+        assertTrue(revocations.isRevoked(token));
+    }
+
+    @Test
+    void staleFilter_isSyncedBeforeTheCheck() {
+        ReflectionTestUtils.setField(revocations, "maxStalenessMs", 0L);
+        RevokedToken row = new RevokedToken();
+        row.setId(2L);
+        row.setTokenId("jti-7");
+        row.setRevokedAt(Instant.now());
+        row.setExpiresAt(Instant.now().plusSeconds(60));
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(row));
+        when(repository.existsByTokenId("jti-7")).thenReturn(true);
+
+        // Revoked on another instance, refused here without waiting for the scheduled sync
+        assertTrue(revocations.isRevoked(token("jti-7", 7L, 1_000)));
+    }
+
+    @Test
+    void revokedUser_losesStreamsAndUnredeemedTickets() {
+        String ticket = streamTickets.issue(new AuthenticatedUser(5L, "user@example.com", UserRole.PATIENT,
+                AccountStatus.ACTIVE, "Patient"));
+
+        revocations.revokeUser(5L);
+
+        verify(pushService).disconnect(5L);
+        assertTrue(streamTickets.redeem(ticket).isEmpty());
+    }
+
+    @Test
+    void sync_closesStreamsOfSessionsRevokedElsewhereOnce() {
+        RevokedToken row = new RevokedToken();
+        row.setId(3L);
+        row.setTokenId("jti-3");
+        row.setTokenUserId(3L);
+        row.setRevokedAt(Instant.now());
+        row.setExpiresAt(Instant.now().plusSeconds(60));
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(row));
+
+        revocations.sync();
+        revocations.sync(); // the overlap re-reads the row
+
+        verify(pushService, times(1)).disconnect(3L);
+    }
+
+    private static JwtService.VerifiedToken token(String tokenId, Long userId, long issuedAt) {
+        return new JwtService.VerifiedToken("user@example.com", "PATIENT", userId, "ACTIVE", "Patient",
+                tokenId, issuedAt, System.currentTimeMillis() + 60_000);
+    }
+}
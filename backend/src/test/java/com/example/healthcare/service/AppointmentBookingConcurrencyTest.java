@@ -0,0 +1,153 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.entity.Appointment;
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.enums.AppointmentStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.exception.AppointmentConflictException;
+import com.example.healthcare.repository.AppointmentBatchRepository;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.healthcare.support.TestUsers.fill;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many patients race for the same doctor slot against a real (in-memory) database;
+ * the unique slot key must let exactly one booking through.
+ */
+@H2JpaTest
+@Import({AppointmentService.class, AppointmentBatchRepository.class})
+public class AppointmentBookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @MockitoSpyBean
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @MockitoBean
+    private AuditLogService auditLogService;
+    @MockitoBean
+    private DoctorScheduleService doctorScheduleService;
+
+    private Doctor doctor;
+    private final List<Patient> patients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(doctorScheduleService.isAppointmentTimeAvailable(any(), any())).thenReturn(true);
+        // Every thread gets past the read-side checks, so only the unique slot key can stop them
+        doReturn(false).when(appointmentRepository)
+                .existsByDoctorIdAndAppointmentTimeAndStatusIn(any(), any(), anyCollection());
+        doReturn(false).when(appointmentRepository)
+                .existsByPatientIdAndAppointmentTimeAndStatusIn(any(), any(), anyCollection());
+
+        Doctor d = new Doctor();
+        fill(d, "doctor@example.com", UserRole.DOCTOR);
+        d.setLicenseNumber("LIC-1");
+        d.setSpecialty("Cardiology");
+        doctor = doctorRepository.save(d);
+
+        for (int i = 0; i < THREADS; i++) {
+            Patient p = new Patient();
+            fill(p, "patient" + i + "@example.com", UserRole.PATIENT);
+            patients.add(patientRepository.save(p));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlot_exactlyOneWins() throws Exception {
+        LocalDateTime slot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (Patient patient : patients) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    appointmentService.bookAppointment(patient.getId(), doctor.getId(), slot);
+                    booked.incrementAndGet();
+                } catch (AppointmentConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(1, booked.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        List<Appointment> stored = appointmentRepository.findAll();
+        assertEquals(1, stored.size());
+        assertEquals(AppointmentStatus.BOOKED, stored.get(0).getStatus());
+        assertEquals(doctor.getId(), stored.get(0).getActiveDoctorId());
+    }
+
+    @Test
+    void cancelledAppointment_releasesSlotKey() {
+        LocalDateTime slot = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.HOURS);
+        appointmentService.bookAppointment(patients.get(0).getId(), doctor.getId(), slot);
+
+        Appointment first = appointmentRepository.findAll().get(0);
+        first.setStatus(AppointmentStatus.CANCELLED);
+        appointmentRepository.save(first);
+
+        appointmentService.bookAppointment(patients.get(1).getId(), doctor.getId(), slot);
+        assertEquals(2, appointmentRepository.count());
+    }
+
+    @Test
+    void samePatientTwiceAtOneTime_isRejectedByPatientKey() {
+        LocalDateTime slot = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS);
+        Doctor other = new Doctor();
+        fill(other, "other.doctor@example.com", UserRole.DOCTOR);
+        other.setLicenseNumber("LIC-2");
+        other.setSpecialty("Dermatology");
+        other = doctorRepository.save(other);
+
+        appointmentService.bookAppointment(patients.get(0).getId(), doctor.getId(), slot);
+        Long otherId = other.getId();
+        AppointmentConflictException ex = assertThrows(AppointmentConflictException.class,
+                () -> appointmentService.bookAppointment(patients.get(0).getId(), otherId, slot));
+        assertTrue(ex.getMessage().contains("You already have"));
+    }
+}
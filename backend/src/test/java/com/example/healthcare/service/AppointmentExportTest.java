@@ -0,0 +1,159 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Appointments.AppointmentExportFormat;
+import com.example.healthcare.entity.Admin;
+import com.example.healthcare.entity.Appointment;
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.AppointmentStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.exception.UnauthorizedAccessException;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.TokenRevocationList;
+import com.example.healthcare.support.H2JpaTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static com.example.healthcare.support.TestUsers.fill;
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+@Import(AdminServiceImpl.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class AppointmentExportTest {
+
+    @Autowired
+    private AdminService adminService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private AuditLogService auditLogService;
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+    @MockitoBean
+    private PrincipalCache principalCache;
+    @MockitoBean
+    private TokenRevocationList revocationList;
+
+    private Admin admin;
+    private Doctor doctor;
+    private Patient patient;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        admin = new Admin();
+        fill(admin, "export.admin@example.com", UserRole.ADMIN);
+
+        Doctor d = new Doctor();
+        fill(d, "export.doctor@example.com", UserRole.DOCTOR);
+        d.setLicenseNumber("LIC-E");
+        d.setSpecialty("Dermatology");
+        doctor = doctorRepository.save(d);
+
+        Patient p = new Patient();
+        fill(p, "export.patient@example.com", UserRole.PATIENT);
+        patient = patientRepository.save(p);
+
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void ndjsonExport_writesOneObjectPerLineInIdOrder() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            save(base.plusHours(i), "Visit " + i);
+        }
+
+        String[] lines = export(AppointmentExportFormat.NDJSON).split("\n");
+
+        assertEquals(25, lines.length);
+        long previousId = Long.MIN_VALUE;
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            assertTrue(node.get("id").asLong() > previousId);
+            previousId = node.get("id").asLong();
+            assertEquals("Test User", node.get("doctorName").asText());
+            assertEquals("BOOKED", node.get("status").asText());
+        }
+        assertEquals(base.toString(), objectMapper.readTree(lines[0]).get("appointmentTime").asText().substring(0, 16));
+    }
+
+    @Test
+    void csvExport_quotesFieldsWithSeparators() throws Exception {
+        save(base, "Back pain, \"sharp\"");
+
+        String[] lines = export(AppointmentExportFormat.CSV).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,appointmentTime,status,"));
+        assertTrue(lines[1].contains(",\"Back pain, \"\"sharp\"\"\","));
+        assertTrue(lines[1].contains(",Dermatology,export.doctor@example.com,"));
+    }
+
+    @Test
+    void csvExport_neutralizesFormulaCells() throws Exception {
+        save(base, "=HYPERLINK(\"http://evil\",\"x\")");
+        save(base.plusHours(1), "@SUM(A1),2");
+
+        String[] lines = export(AppointmentExportFormat.CSV).split("\n");
+
+        assertTrue(lines[1].contains(",Room 2,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\","));
+        assertTrue(lines[2].contains(",Room 2,\"'@SUM(A1),2\","));
+    }
+
+    @Test
+    void export_requiresActiveAdmin() {
+        admin.setDeleted(true);
+        assertThrows(UnauthorizedAccessException.class,
+                () -> adminService.exportAppointments(admin, AppointmentExportFormat.CSV, new ByteArrayOutputStream()));
+    }
+
+    private String export(AppointmentExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        adminService.exportAppointments(admin, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void save(LocalDateTime time, String notes) {
+        Appointment a = new Appointment();
+        a.setDoctor(doctor);
+        a.setPatient(patient);
+        a.setAppointmentTime(time);
+        a.setStatus(AppointmentStatus.BOOKED);
+        a.setLocation("Room 2");
+        a.setNotes(notes);
+        appointmentRepository.save(a);
+    }
+}
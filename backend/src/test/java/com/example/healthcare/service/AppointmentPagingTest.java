@@ -0,0 +1,194 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Appointments.AppointmentDto;
+import com.example.healthcare.entity.Appointment;
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.AppointmentStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.AppointmentBatchRepository;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.support.H2JpaTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.support.TestUsers.fill;
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AppointmentService.class, AppointmentBatchRepository.class})
+public class AppointmentPagingTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private AuditLogService auditLogService;
+    @MockitoBean
+    private DoctorScheduleService doctorScheduleService;
+
+    private Doctor doctor;
+    private Patient patient;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        Doctor d = new Doctor();
+        fill(d, "paging.doctor@example.com", UserRole.DOCTOR);
+        d.setLicenseNumber("LIC-P");
+        d.setSpecialty("Cardiology");
+        doctor = doctorRepository.save(d);
+
+        Patient p = new Patient();
+        fill(p, "paging.patient@example.com", UserRole.PATIENT);
+        patient = patientRepository.save(p);
+
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void upcomingPages_walkAllRowsInOrderAndSkipCancelledAndDeleted() {
+        for (int i = 1; i <= 7; i++) {
+            save(base.plusDays(i), AppointmentStatus.BOOKED, false);
+        }
+        save(base.plusDays(2).plusHours(1), AppointmentStatus.CANCELLED, false);
+        save(base.plusDays(3).plusHours(1), AppointmentStatus.BOOKED, true);
+        save(base.minusDays(1), AppointmentStatus.COMPLETED, false);
+
+        List<AppointmentDto> seen = new ArrayList<>();
+        List<AppointmentDto> page = appointmentService.getUpcomingAppointmentsDto(patient.getId(), false, null, null, 3);
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 3);
+            seen.addAll(page);
+            AppointmentDto last = page.get(page.size() - 1);
+            page = appointmentService.getUpcomingAppointmentsDto(patient.getId(), false,
+                    last.getAppointmentTime(), last.getId(), 3);
+        }
+
+        assertEquals(7, seen.size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(base.plusDays(i + 1), seen.get(i).getAppointmentTime());
+        }
+    }
+
+    @Test
+    void historyPages_areNewestFirstAndTieBreakOnId() {
+        // Two completed rows at the same time (no slot keys) straddle a page boundary
+        LocalDateTime shared = base.minusDays(2);
+        save(base.minusDays(1), AppointmentStatus.COMPLETED, false);
+        Long firstAtShared = save(shared, AppointmentStatus.COMPLETED, false).getId();
+        Long secondAtShared = save(shared, AppointmentStatus.COMPLETED, false).getId();
+        save(base.minusDays(3), AppointmentStatus.COMPLETED, false);
+
+        List<AppointmentDto> first = appointmentService.getPastAppointmentsDto(doctor.getId(), true, null, null, null, 2);
+        assertEquals(List.of(base.minusDays(1), shared), times(first));
+        assertEquals(secondAtShared, first.get(1).getId());
+
+        AppointmentDto last = first.get(1);
+        List<AppointmentDto> second = appointmentService.getPastAppointmentsDto(doctor.getId(), true, null,
+                last.getAppointmentTime(), last.getId(), 2);
+        assertEquals(List.of(shared, base.minusDays(3)), times(second));
+        assertEquals(firstAtShared, second.get(0).getId());
+    }
+
+    @Test
+    void history_sinceIsAppliedInTheQuery() {
+        save(base.minusDays(1), AppointmentStatus.COMPLETED, false);
+        save(base.minusDays(5), AppointmentStatus.COMPLETED, false);
+        save(base.minusDays(30), AppointmentStatus.COMPLETED, false);
+
+        List<AppointmentDto> recent = appointmentService.getPastAppointmentsDto(patient.getId(), false,
+                base.minusDays(7), null, null, 0);
+
+        assertEquals(List.of(base.minusDays(1), base.minusDays(5)), times(recent));
+    }
+
+    @Test
+    void listPages_runExactlyOneStatementEach() {
+        for (int i = 1; i <= 5; i++) {
+            save(base.plusDays(i), AppointmentStatus.BOOKED, false);
+            save(base.minusDays(i), AppointmentStatus.COMPLETED, false);
+        }
+        Appointment cancelled = save(base.plusDays(9), AppointmentStatus.BOOKED, false);
+        cancelled.setStatus(AppointmentStatus.CANCELLED);
+        cancelled.setCancelledBy(patient);
+        appointmentRepository.save(cancelled);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        stats.clear();
+        List<AppointmentDto> upcoming = appointmentService.getUpcomingAppointmentsDto(doctor.getId(), true, null, null, 50);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(5, upcoming.size());
+        AppointmentDto first = upcoming.get(0);
+        assertEquals("Test User", first.getDoctorName());
+        assertEquals("Cardiology", first.getSpecialty());
+        assertEquals("Test User", first.getPatientName());
+        assertEquals("paging.doctor@example.com", first.getDoctorContact());
+        assertEquals("BOOKED", first.getStatus());
+        assertNull(first.getCancelledByName());
+
+        stats.clear();
+        assertEquals(5, appointmentService.getPastAppointmentsDto(patient.getId(), false, null, null, null, 50).size());
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        stats.clear();
+        List<AppointmentDto> cancelledList = appointmentService.getCancelledAppointmentsDto(patient.getId());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals("Test User", cancelledList.get(0).getCancelledByName());
+        assertEquals("CANCELLED", cancelledList.get(0).getStatus());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    void halfACursor_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.getUpcomingAppointmentsDto(patient.getId(), false, base, null, 10));
+    }
+
+    private Appointment save(LocalDateTime time, AppointmentStatus status, boolean deleted) {
+        Appointment a = new Appointment();
+        a.setDoctor(doctor);
+        a.setPatient(patient);
+        a.setAppointmentTime(time);
+        a.setStatus(status);
+        a.setDeleted(deleted);
+        a.setLocation("Room 1");
+        a.setNotes("");
+        return appointmentRepository.save(a);
+    }
+
+    private static List<LocalDateTime> times(List<AppointmentDto> page) {
+        return page.stream().map(AppointmentDto::getAppointmentTime).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Appointments.RecurringAppointmentRequest;
+import com.example.healthcare.entity.Appointment;
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.enums.AppointmentStatus;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.exception.AppointmentConflictException;
+import com.example.healthcare.repository.AppointmentBatchRepository;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.example.healthcare.support.TestUsers.fill;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@H2JpaTest
+@Import({AppointmentService.class, AppointmentBatchRepository.class})
+public class AppointmentSeriesBookingTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @MockitoBean
+    private AuditLogService auditLogService;
+    @MockitoBean
+    private DoctorScheduleService doctorScheduleService;
+
+    private Doctor doctor;
+    private Patient patient;
+    private Patient otherPatient;
+
+    @BeforeEach
+    void setUp() {
+        when(doctorScheduleService.findUnavailableTimes(any(), anyList())).thenReturn(List.of());
+
+        Doctor d = new Doctor();
+        fill(d, "series.doctor@example.com", UserRole.DOCTOR);
+        d.setLicenseNumber("LIC-S");
+        d.setSpecialty("Physiotherapy");
+        doctor = doctorRepository.save(d);
+
+        Patient p = new Patient();
+        fill(p, "series.patient@example.com", UserRole.PATIENT);
+        patient = patientRepository.save(p);
+        Patient o = new Patient();
+        fill(o, "other.patient@example.com", UserRole.PATIENT);
+        otherPatient = patientRepository.save(o);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void bookSeries_insertsAllRowsWithSlotKeysAndOneAuditEntry() {
+        LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        List<LocalDateTime> booked = appointmentService.bookRecurringAppointments(patient.getId(), request(first, 6));
+
+        assertEquals(6, booked.size());
+        List<Appointment> stored = appointmentRepository.findAll();
+        stored.sort(Comparator.comparing(Appointment::getAppointmentTime));
+        assertEquals(6, stored.size());
+        for (int i = 0; i < 6; i++) {
+            Appointment a = stored.get(i);
+            assertEquals(first.plusWeeks(i), a.getAppointmentTime());
+            assertEquals(AppointmentStatus.BOOKED, a.getStatus());
+            assertEquals(doctor.getId(), a.getActiveDoctorId());
+            assertEquals(patient.getId(), a.getActivePatientId());
+        }
+        verify(auditLogService, times(1)).record(argThat(e -> "Appointment Series Booked".equals(e.getAction())), any(), any());
+    }
+
+    @Test
+    void bookSeries_withOneTakenSlot_booksNothing() {
+        LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        appointmentService.bookRecurringAppointments(otherPatient.getId(), request(first.plusWeeks(3), 1));
+
+        assertThrows(AppointmentConflictException.class,
+                () -> appointmentService.bookRecurringAppointments(patient.getId(), request(first, 6)));
+        assertEquals(1, appointmentRepository.count());
+    }
+
+    @Test
+    void bookSeries_outsideSchedule_isRejected() {
+        LocalDateTime first = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        when(doctorScheduleService.findUnavailableTimes(any(), anyList())).thenReturn(List.of(first.plusWeeks(2)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.bookRecurringAppointments(patient.getId(), request(first, 4)));
+        assertEquals(0, appointmentRepository.count());
+    }
+
+    private RecurringAppointmentRequest request(LocalDateTime first, int occurrences) {
+        RecurringAppointmentRequest req = new RecurringAppointmentRequest();
+        req.setDoctorId(doctor.getId());
+        req.setFirstAppointmentTime(first);
+        req.setOccurrences(occurrences);
+        return req;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Audit.AuditArchiveEntry;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
+import com.example.healthcare.repository.AuditLogRepository;
+import com.example.healthcare.support.H2JpaTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@H2JpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class AuditArchiveServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @TempDir
+    Path storage;
+
+    private AuditArchiveService archiveService;
+    private AuditLogService auditLogService;
+
+    private final YearMonth current = YearMonth.now();
+
+    @BeforeEach
+    void setUp() {
+        archiveService = newArchiveService();
+        auditLogService = new AuditLogService(auditLogRepository, mock(AuditLogWriter.class), archiveService);
+
+        // Three rows in each of the last four months, oldest month first
+        for (int monthsAgo = 3; monthsAgo >= 0; monthsAgo--) {
+            for (int day = 1; day <= 3; day++) {
+                insert("Doctor Added", "Doctor ID: " + monthsAgo, current.minusMonths(monthsAgo).atDay(day).atTime(9, 0));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditLogRepository.deleteAll();
+    }
+
+    @Test
+    void archiveBefore_movesOldMonthsToGzipFilesAndManifest() throws Exception {
+        List<AuditArchiveEntry> written = archiveService.archiveBefore(current.minusMonths(1));
+
+        assertEquals(List.of(current.minusMonths(3), current.minusMonths(2)),
+                written.stream().map(AuditArchiveEntry::getMonth).toList());
+        assertEquals(6, auditLogRepository.count());
+
+        Path dir = storage.resolve(AuditArchiveService.ARCHIVE_DIR);
+        assertTrue(Files.exists(dir.resolve(AuditArchiveService.MANIFEST)));
+        AuditArchiveEntry first = written.get(0);
+        assertEquals(3, first.getRows());
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(dir.resolve(first.getFile()))), StandardCharsets.UTF_8))) {
+            r.lines().forEach(lines::add);
+        }
+        assertEquals(3, lines.size());
+        assertEquals("before", objectMapper.readValue(lines.get(0), AuditLogDto.class).getPreviousData());
+
+        // A fresh instance reads the manifest back from disk
+        assertEquals(2, newArchiveService().getManifest().size());
+    }
+
+    @Test
+    void search_pagesFromTableIntoArchive() {
+        archiveService.archiveBefore(current.minusMonths(1));
+
+        AuditLogQuery query = new AuditLogQuery();
+        query.setLimit(4);
+        List<AuditLogDto> seen = new ArrayList<>();
+        List<AuditLogDto> page = auditLogService.search(query);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            AuditLogDto last = page.get(page.size() - 1);
+            query.setBeforeTime(last.getTimestamp());
+            query.setBeforeId(last.getId());
+            page = auditLogService.search(query);
+        }
+
+        assertEquals(12, seen.size());
+        assertEquals(12, seen.stream().map(AuditLogDto::getId).distinct().count());
+        assertEquals(current.minusMonths(3).atDay(1).atTime(9, 0), seen.get(11).getTimestamp());
+        assertNull(seen.get(11).getPreviousData());
+    }
+
+    @Test
+    void search_rangeAndFiltersApplyToArchivedRows() {
+        archiveService.archiveBefore(current.minusMonths(1));
+
+        AuditLogQuery query = new AuditLogQuery();
+        query.setFrom(current.minusMonths(3).atDay(2).atStartOfDay());
+        query.setTo(current.minusMonths(2).atDay(1).atStartOfDay());
+        query.setAffectedEntity("Doctor ID: 3");
+        query.setDetail(true);
+
+        List<AuditLogDto> result = auditLogService.search(query);
+
+        assertEquals(2, result.size());
+        assertEquals(current.minusMonths(3).atDay(3).atTime(9, 0), result.get(0).getTimestamp());
+        assertEquals("after", result.get(0).getNewData());
+    }
+
+    @Test
+    void lateRowsInAnArchivedMonth_goToAnExtraPart() {
+        archiveService.archiveBefore(current.minusMonths(1));
+        insert("Late Entry", "Doctor ID: 9", current.minusMonths(2).atDay(20).atTime(12, 0));
+
+        List<AuditArchiveEntry> second = archiveService.archiveBefore(current.minusMonths(1));
+
+        assertEquals(1, second.size());
+        assertEquals(1, second.get(0).getRows());
+        assertTrue(second.get(0).getFile().endsWith(".2.ndjson.gz"));
+        assertEquals(6, auditLogRepository.count());
+        assertEquals(3, archiveService.getManifest().size());
+    }
+
+    private AuditArchiveService newArchiveService() {
+        AuditArchiveService service = new AuditArchiveService(jdbcTemplate, objectMapper);
+        ReflectionTestUtils.setField(service, "storagePath", storage.toString());
+        ReflectionTestUtils.setField(service, "deleteBatch", 2);
+        return service;
+    }
+
+    private void insert(String action, String entity, LocalDateTime at) {
+        jdbcTemplate.update("INSERT INTO audit_logs (action, performed_by, role, timestamp, affected_entity, " +
+                "previous_data, new_data) VALUES (?, 'admin@example.com', 'ADMIN', ?, ?, 'before', 'after')",
+                action, Timestamp.valueOf(at), entity);
+    }
+}
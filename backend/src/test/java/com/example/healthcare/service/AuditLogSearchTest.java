@@ -0,0 +1,170 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Audit.AuditEvent;
+import com.example.healthcare.dto.Audit.AuditLogDto;
+import com.example.healthcare.dto.Audit.AuditLogQuery;
+import com.example.healthcare.entity.AuditLog;
+import com.example.healthcare.repository.AuditLogRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest(properties = "audit.writer.enabled=false")
+@Import({AuditLogService.class, AuditLogWriter.class, AuditArchiveService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class AuditLogSearchTest {
+
+    @Autowired
+    private AuditLogService auditLogService;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditLogRepository.deleteAll();
+    }
+
+    @Test
+    void pagesWalkNewestFirstWithoutDuplicates() {
+        for (int i = 0; i < 12; i++) {
+            // pairs share a timestamp so page boundaries have to tie-break on id
+            insert("Doctor Added", "admin@example.com", "ADMIN", "Doctor ID: " + i, base.minusMinutes(i / 2));
+        }
+
+        AuditLogQuery query = new AuditLogQuery();
+        query.setLimit(5);
+        List<AuditLogDto> seen = new ArrayList<>();
+        List<AuditLogDto> page = auditLogService.search(query);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            AuditLogDto last = page.get(page.size() - 1);
+            query.setBeforeTime(last.getTimestamp());
+            query.setBeforeId(last.getId());
+            page = auditLogService.search(query);
+        }
+
+        assertEquals(12, seen.size());
+        assertEquals(12, seen.stream().map(AuditLogDto::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            AuditLogDto prev = seen.get(i - 1), cur = seen.get(i);
+            assertTrue(prev.getTimestamp().isAfter(cur.getTimestamp())
+                    || (prev.getTimestamp().equals(cur.getTimestamp()) && prev.getId() > cur.getId()));
+        }
+    }
+
+    @Test
+    void filtersCombineAndSummariesOmitData() {
+        insert("Doctor Added", "admin@example.com", "ADMIN", "Doctor ID: 1", base.minusHours(3));
+        insert("Doctor Added", "admin@example.com", "ADMIN", "Doctor ID: 2", base.minusHours(1));
+        insert("Doctor Added", "owner@example.com", "OWNER", "Doctor ID: 3", base.minusHours(1));
+        insert("Patient Added", "admin@example.com", "ADMIN", "Patient ID: 4", base.minusHours(1));
+
+        AuditLogQuery query = new AuditLogQuery();
+        query.setPerformedBy("admin@example.com");
+        query.setAction("Doctor Added");
+        query.setFrom(base.minusHours(2));
+        query.setTo(base);
+
+        List<AuditLogDto> result = auditLogService.search(query);
+        assertEquals(1, result.size());
+        assertEquals("Doctor ID: 2", result.get(0).getAffectedEntity());
+        assertNull(result.get(0).getPreviousData());
+        assertNull(result.get(0).getNewData());
+
+        AuditLogQuery byEntity = new AuditLogQuery();
+        byEntity.setAffectedEntity("Doctor ID: 3");
+        byEntity.setRole("OWNER");
+        byEntity.setDetail(true);
+        List<AuditLogDto> detail = auditLogService.search(byEntity);
+        assertEquals(1, detail.size());
+        assertEquals("before", detail.get(0).getPreviousData());
+        assertEquals("after", detail.get(0).getNewData());
+    }
+
+    @Test
+    void recordedEvents_storeOnlyChangedFieldsAndFilterByEntity() {
+        auditLogService.record(
+                AuditEvent.of("Doctor Profile Updated", AuditEvent.DOCTOR, 7L)
+                        .changed("firstName", "Ann", "Anna")
+                        .changed("lastName", "Lee", "Lee")
+                        .changed("specialty", "Cardio \"A\"", "Cardiology"),
+                "doc@example.com", "DOCTOR");
+        auditLogService.record(
+                AuditEvent.of("Doctor Profile Updated", AuditEvent.DOCTOR, 8L).changed("firstName", "Bo", "Bob"),
+                "other@example.com", "DOCTOR");
+        auditLogService.logAction("Appointment Marked as Completed", "doc@example.com", "DOCTOR",
+                "Appointment ID: 7", "BOOKED", "COMPLETED");
+
+        AuditLogQuery query = new AuditLogQuery();
+        query.setEntityType(AuditEvent.DOCTOR);
+        query.setEntityId(7L);
+        query.setDetail(true);
+        List<AuditLogDto> result = auditLogService.search(query);
+
+        assertEquals(1, result.size());
+        AuditLogDto dto = result.get(0);
+        assertEquals("Doctor ID: 7", dto.getAffectedEntity());
+        assertEquals("{\"firstName\":\"Ann\",\"specialty\":\"Cardio \\\"A\\\"\"}", dto.getPreviousData());
+        assertEquals("{\"firstName\":\"Anna\",\"specialty\":\"Cardiology\"}", dto.getNewData());
+
+        // Legacy labels are parsed into the same columns
+        AuditLogQuery byLabel = new AuditLogQuery();
+        byLabel.setEntityType(AuditEvent.APPOINTMENT);
+        byLabel.setEntityId(7L);
+        assertEquals(List.of("Appointment Marked as Completed"),
+                auditLogService.search(byLabel).stream().map(AuditLogDto::getAction).toList());
+    }
+
+    @Test
+    void oversizedPayloads_areTruncatedToTheColumn() {
+        auditLogService.record(
+                AuditEvent.of("Appointment Booked", AuditEvent.APPOINTMENT, 9L).set("notes", "x".repeat(5000)),
+                "patient@example.com", "PATIENT");
+
+        AuditLogQuery query = new AuditLogQuery();
+        query.setEntityId(9L);
+        query.setDetail(true);
+        String stored = auditLogService.search(query).get(0).getNewData();
+
+        assertEquals(AuditLog.DATA_LENGTH, stored.length());
+        assertTrue(stored.startsWith("{\"notes\":\"xxx"));
+        assertTrue(stored.endsWith("...[truncated]"));
+    }
+
+    @Test
+    void halfACursor_isRejected() {
+        AuditLogQuery query = new AuditLogQuery();
+        query.setBeforeId(10L);
+        assertThrows(IllegalArgumentException.class, () -> auditLogService.search(query));
+    }
+
+    private void insert(String action, String performedBy, String role, String entity, LocalDateTime at) {
+        // Straight JDBC: the entity's @PrePersist would overwrite the timestamp
+        jdbcTemplate.update("INSERT INTO audit_logs (action, performed_by, role, timestamp, affected_entity, " +
+                "previous_data, new_data) VALUES (?, ?, ?, ?, ?, 'before', 'after')",
+                action, performedBy, role, Timestamp.valueOf(at), entity);
+    }
+}
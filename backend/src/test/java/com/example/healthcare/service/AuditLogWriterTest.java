@@ -0,0 +1,123 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.entity.AuditLog;
+import com.example.healthcare.repository.AuditLogRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+public class AuditLogWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new AuditLogWriter(jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(writer, "maxBatch", 50);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 20L);
+        writer.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writer.shutdown();
+        auditLogRepository.deleteAll();
+    }
+
+    @Test
+    void entriesAreWrittenInTheBackground() throws Exception {
+        LocalDateTime at = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+        writer.submit(entry("Doctor Added", at));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (auditLogRepository.count() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        AuditLog stored = auditLogRepository.findAll().get(0);
+        assertEquals("Doctor Added", stored.getAction());
+        assertEquals(at, stored.getTimestamp());
+        assertEquals(0, writer.getCallerWriteCount());
+    }
+
+    @Test
+    void shutdown_drainsEverythingQueued() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            writer.submit(entry("Bulk " + i, LocalDateTime.now()));
+        }
+        writer.shutdown();
+
+        assertEquals(1000, auditLogRepository.count());
+        assertEquals(1000, writer.getWrittenCount());
+    }
+
+    @Test
+    void afterCommit_onlyCommittedTransactionsAreAudited() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> writer.submit(entry("Committed", LocalDateTime.now())));
+        tx.executeWithoutResult(status -> {
+            writer.submit(entry("Rolled Back", LocalDateTime.now()));
+            status.setRollbackOnly();
+        });
+        writer.shutdown();
+
+        assertEquals(1, auditLogRepository.count());
+        assertEquals("Committed", auditLogRepository.findAll().get(0).getAction());
+    }
+
+    @Test
+    void badEntry_isRejectedAloneAndTheRestOfItsBatchIsKept() throws Exception {
+        writer.submit(entry("Before", LocalDateTime.now()));
+        AuditLog bad = entry("Bad", LocalDateTime.now());
+        bad.setPerformedBy(null); // violates NOT NULL
+        writer.submit(bad);
+        writer.submit(entry("After", LocalDateTime.now()));
+        writer.shutdown();
+
+        assertEquals(2, auditLogRepository.count());
+        assertEquals(1, auditLogRepository.findByAction("Before").size());
+        assertEquals(1, auditLogRepository.findByAction("After").size());
+        assertEquals(1, writer.getRejectedCount());
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    @Test
+    void stoppedWriter_fallsBackToCallerInsert() throws Exception {
+        writer.shutdown();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> writer.submit(entry("Late", LocalDateTime.now())));
+
+        assertEquals(1, writer.getCallerWriteCount());
+        assertEquals(1, auditLogRepository.findByAction("Late").size());
+    }
+
+    private static AuditLog entry(String action, LocalDateTime at) {
+        AuditLog log = new AuditLog();
+        log.setAction(action);
+        log.setPerformedBy("admin@example.com");
+        log.setRole("ADMIN");
+        log.setAffectedEntity("Doctor ID: 1");
+        log.setTimestamp(at);
+        return log;
+    }
+}
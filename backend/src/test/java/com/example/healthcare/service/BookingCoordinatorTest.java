@@ -0,0 +1,126 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Appointments.BookingLockStatsDto;
+import com.example.healthcare.exception.BookingBusyException;
+import com.example.healthcare.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingCoordinatorTest {
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    private BookingCoordinator coordinator;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        coordinator = new BookingCoordinator(appointmentService);
+        ReflectionTestUtils.setField(coordinator, "stripeCount", 16);
+        ReflectionTestUtils.setField(coordinator, "timeoutMs", 2000L);
+        coordinator.init();
+    }
+
+    @Test
+    void sameDoctor_isSerializedAndContentionIsCounted() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        runConcurrently(8, i -> coordinator.withDoctorLock(42L, () -> {
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            sleep(20);
+            inside.decrementAndGet();
+            return null;
+        }));
+
+        assertEquals(1, maxInside.get());
+        List<BookingLockStatsDto> stats = coordinator.getStats();
+        assertEquals(1, stats.size());
+        assertEquals(coordinator.stripeOf(42L), stats.get(0).getStripe());
+        assertEquals(8, stats.get(0).getAcquisitions());
+        assertTrue(stats.get(0).getContended() > 0);
+        assertTrue(stats.get(0).getMaxWaitMillis() > 0);
+    }
+
+    @Test
+    void doctorsOnDifferentStripes_runInParallel() throws Exception {
+        List<Long> doctorIds = new ArrayList<>();
+        for (long id = 1; doctorIds.size() < 4; id++) {
+            long candidate = id;
+            if (doctorIds.stream().noneMatch(d -> coordinator.stripeOf(d) == coordinator.stripeOf(candidate))) {
+                doctorIds.add(candidate);
+            }
+        }
+        CyclicBarrier allInside = new CyclicBarrier(doctorIds.size());
+
+        // Would time out if any two of these shared a lock
+        runConcurrently(doctorIds.size(), i -> coordinator.withDoctorLock(doctorIds.get(i), () -> {
+            try {
+                allInside.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        }));
+
+        assertTrue(coordinator.getStats().stream().allMatch(s -> s.getContended() == 0));
+    }
+
+    @Test
+    void waitingPastTimeout_isRejectedWith503() throws Exception {
+        ReflectionTestUtils.setField(coordinator, "timeoutMs", 50L);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> coordinator.withDoctorLock(7L, () -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            return null;
+        }));
+        held.await();
+
+        BookingBusyException ex = assertThrows(BookingBusyException.class,
+                () -> coordinator.bookAppointment(1L, 7L, null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                new GlobalExceptionHandler().handleBookingBusyException(ex).getStatusCode());
+        release.countDown();
+        holder.join();
+        assertEquals(1, coordinator.getStats().get(0).getTimeouts());
+    }
+
+    private static void runConcurrently(int tasks, IntTask task) throws Exception {
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int n = i;
+                futures.add(pool.submit(() -> task.run(n)));
+            }
+            for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface IntTask {
+        void run(int i);
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.DoctorSchedule.DoctorAvailableSlotsDto;
 import com.example.healthcare.entity.DoctorSchedule.DoctorOneTimeSlot;
 import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringBreak;
 import com.example.healthcare.entity.DoctorSchedule.DoctorRecurringSchedule;
 import com.example.healthcare.entity.Appointment;
+import com.example.healthcare.entity.Doctor;
 import com.example.healthcare.entity.enums.AppointmentStatus;
 import com.example.healthcare.repository.AppointmentRepository;
 import com.example.healthcare.repository.DoctorRepository;
@@ -13,12 +15,13 @@ import com.example.healthcare.repository.DoctorSchedule.DoctorRecurringScheduleR
 import com.example.healthcare.repository.DoctorSchedule.SlotRemovalRequestRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.*;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,12 +43,15 @@ public class DoctorScheduleServiceTest {
     @Mock
     private AuditLogService auditLogService;
 
-    @InjectMocks
     private DoctorScheduleService service;
+    private DoctorAvailabilityIndex index;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        index = new DoctorAvailabilityIndex(recurringRepo, oneTimeRepo, breakRepo);
+        service = new DoctorScheduleService(doctorRepository, recurringRepo, oneTimeRepo, breakRepo,
+                slotRemovalRequestRepository, auditLogService, appointmentRepository, index);
     }
 
     @Test
@@ -54,10 +60,12 @@ public class DoctorScheduleServiceTest {
         LocalDate date = LocalDate.of(2024, 4, 15); // Monday
 
         DoctorRecurringSchedule rec = new DoctorRecurringSchedule();
+        rec.setDayOfWeek(DayOfWeek.MONDAY);
         rec.setStartTime(LocalTime.of(9,0));
         rec.setEndTime(LocalTime.of(12,0));
 
         DoctorRecurringBreak brk = new DoctorRecurringBreak();
+        brk.setDayOfWeek(DayOfWeek.MONDAY);
         brk.setStartTime(LocalTime.of(10,0));
         brk.setEndTime(LocalTime.of(10,30));
 
@@ -71,9 +79,9 @@ public class DoctorScheduleServiceTest {
         appt.setAppointmentTime(LocalDateTime.of(date, LocalTime.of(9,30)));
         appt.setStatus(AppointmentStatus.BOOKED);
 
-        when(recurringRepo.findByDoctorIdAndDayOfWeekAndActiveTrue(docId, DayOfWeek.MONDAY))
+        when(recurringRepo.findByDoctorIdAndActiveTrue(docId))
                 .thenReturn(List.of(rec));
-        when(breakRepo.findByDoctorIdAndDayOfWeekAndActiveTrue(docId, DayOfWeek.MONDAY))
+        when(breakRepo.findByDoctorIdAndActiveTrue(docId))
                 .thenReturn(List.of(brk));
         when(oneTimeRepo.findByDoctorIdAndDate(docId, date))
                 .thenReturn(List.of(extra));
@@ -92,4 +100,157 @@ public class DoctorScheduleServiceTest {
         );
         assertEquals(expected, slots);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAppointmentTimeAvailable_servedFromIndexAndInvalidatedOnWrite() {
+        Long docId = 1L;
+        LocalDate date = LocalDate.of(2024, 4, 15); // Monday
+
+        DoctorRecurringSchedule rec = new DoctorRecurringSchedule();
+        rec.setDayOfWeek(DayOfWeek.MONDAY);
+        rec.setStartTime(LocalTime.of(9,0));
+        rec.setEndTime(LocalTime.of(12,0));
+
+        DoctorRecurringBreak brk = new DoctorRecurringBreak();
+        brk.setDayOfWeek(DayOfWeek.MONDAY);
+        brk.setStartTime(LocalTime.of(10,0));
+        brk.setEndTime(LocalTime.of(10,30));
+
+        DoctorOneTimeSlot blocked = new DoctorOneTimeSlot();
+        blocked.setDate(date);
+        blocked.setStartTime(LocalTime.of(11,0));
+        blocked.setEndTime(LocalTime.of(12,0));
+        blocked.setAvailable(false);
+
+        when(recurringRepo.findByDoctorIdAndActiveTrue(docId)).thenReturn(List.of(rec));
+        when(breakRepo.findByDoctorIdAndActiveTrue(docId)).thenReturn(List.of(brk));
+        when(oneTimeRepo.findByDoctorIdAndDate(docId, date)).thenReturn(List.of(blocked));
+
+        assertTrue(service.isAppointmentTimeAvailable(docId, LocalDateTime.of(date, LocalTime.of(9, 30))));
+        assertFalse(service.isAppointmentTimeAvailable(docId, LocalDateTime.of(date, LocalTime.of(10, 15))));
+        assertFalse(service.isAppointmentTimeAvailable(docId, LocalDateTime.of(date, LocalTime.of(11, 0))));
+        assertFalse(service.isAppointmentTimeAvailable(docId, LocalDateTime.of(date, LocalTime.of(12, 0))));
+        assertFalse(service.isAppointmentTimeAvailable(docId, LocalDateTime.of(date.plusDays(1), LocalTime.of(9, 30))));
+
+        // Repeated lookups are served from the index
+        verify(recurringRepo, times(1)).findByDoctorIdAndActiveTrue(docId);
+        verify(oneTimeRepo, times(1)).findByDoctorIdAndDate(docId, date);
+
+        // A schedule write drops the entry, the next lookup reloads it
+        Doctor doctor = new Doctor();
+        doctor.setId(docId);
+        rec.setDoctor(doctor);
+        rec.setEndTime(LocalTime.of(23, 59));
+        when(recurringRepo.findById(5L)).thenReturn(Optional.of(rec));
+        service.deleteRecurringSlot(5L);
+        when(recurringRepo.findByDoctorIdAndActiveTrue(docId)).thenReturn(List.of());
+
+        assertFalse(service.isAppointmentTimeAvailable(docId, LocalDateTime.of(date, LocalTime.of(9, 30))));
+        verify(recurringRepo, times(2)).findByDoctorIdAndActiveTrue(docId);
+    }
+
+    @Test
+    void testAvailabilityIndex_loadsRacingAnInvalidationAreNotCached() {
+        Long docId = 1L;
+        LocalDate monday = LocalDate.of(2024, 4, 15);
+        // The schedule changes while each load is reading it
+        when(recurringRepo.findByDoctorIdAndActiveTrue(docId)).thenAnswer(inv -> {
+            index.invalidate(docId);
+            return List.of();
+        });
+        when(recurringRepo.findByDoctorIdInAndActiveTrue(any())).thenAnswer(inv -> {
+            index.invalidate(docId);
+            return List.of();
+        });
+
+        index.get(docId);
+        index.get(docId);
+        index.getAll(List.of(docId), monday, monday);
+        index.getAll(List.of(docId), monday, monday);
+
+        verify(recurringRepo, times(2)).findByDoctorIdAndActiveTrue(docId);
+        verify(recurringRepo, times(2)).findByDoctorIdInAndActiveTrue(any());
+    }
+
+    @Test
+    void testSearchAvailableSlots_multipleDoctorsAndDaysBatched() {
+        LocalDate monday = LocalDate.of(2024, 4, 15);
+        LocalDate tuesday = monday.plusDays(1);
+
+        Doctor first = new Doctor();
+        first.setId(1L);
+        first.setSpecialty("Cardiology");
+        Doctor second = new Doctor();
+        second.setId(2L);
+        second.setSpecialty("Cardiology");
+
+        DoctorRecurringSchedule firstMonday = new DoctorRecurringSchedule();
+        firstMonday.setDoctor(first);
+        firstMonday.setDayOfWeek(DayOfWeek.MONDAY);
+        firstMonday.setStartTime(LocalTime.of(9,0));
+        firstMonday.setEndTime(LocalTime.of(10,0));
+
+        DoctorRecurringSchedule secondTuesday = new DoctorRecurringSchedule();
+        secondTuesday.setDoctor(second);
+        secondTuesday.setDayOfWeek(DayOfWeek.TUESDAY);
+        secondTuesday.setStartTime(LocalTime.of(13,0));
+        secondTuesday.setEndTime(LocalTime.of(14,0));
+
+        DoctorOneTimeSlot blocked = new DoctorOneTimeSlot();
+        blocked.setDoctor(second);
+        blocked.setDate(tuesday);
+        blocked.setStartTime(LocalTime.of(13,30));
+        blocked.setEndTime(LocalTime.of(14,0));
+        blocked.setAvailable(false);
+
+        Appointment appt = new Appointment();
+        appt.setDoctor(first);
+        appt.setAppointmentTime(LocalDateTime.of(monday, LocalTime.of(9,30)));
+        appt.setStatus(AppointmentStatus.BOOKED);
+
+        when(doctorRepository.findBySpecialtyIgnoreCaseAndIsDeletedFalse("Cardiology"))
+                .thenReturn(List.of(first, second));
+        when(recurringRepo.findByDoctorIdInAndActiveTrue(any())).thenReturn(List.of(firstMonday, secondTuesday));
+        when(breakRepo.findByDoctorIdInAndActiveTrue(any())).thenReturn(List.of());
+        when(oneTimeRepo.findByDoctorIdInAndDateBetween(any(), eq(monday), eq(tuesday))).thenReturn(List.of(blocked));
+        when(appointmentRepository.findByDoctorIdInAndAppointmentTimeBetweenAndStatusIn(any(), any(), any(), any()))
+                .thenReturn(List.of(appt));
+
+        List<DoctorAvailableSlotsDto> result = service.searchAvailableSlots(
+                null, "Cardiology", monday, tuesday, Duration.ofMinutes(30));
+
+        assertEquals(2, result.size());
+        assertEquals(Map.of(monday, List.of(LocalTime.of(9,0))), result.get(0).getSlots());
+        assertEquals(Map.of(tuesday, List.of(LocalTime.of(13,0))), result.get(1).getSlots());
+
+        // One query per table for all doctors and dates, nothing per doctor
+        verify(recurringRepo, never()).findByDoctorIdAndActiveTrue(any());
+        verify(oneTimeRepo, never()).findByDoctorIdAndDate(any(), any());
+        verify(appointmentRepository, times(1))
+                .findByDoctorIdInAndAppointmentTimeBetweenAndStatusIn(any(), any(), any(), any());
+    }
+
+    @Test
+    void testIsAvailable_usesScopedExistenceQueries() {
+        Long docId = 1L;
+        LocalTime start = LocalTime.of(9,0);
+        LocalTime end = LocalTime.of(10,0);
+
+        when(oneTimeRepo.existsOverlappingOnWeekday(eq(docId), any(), eq(2), eq(start), eq(end), isNull()))
+                .thenReturn(true);
+
+        // Monday maps to 2 (1 = Sunday); the exclude ID only applies to the edited entry's own table
+        assertFalse(service.isAvailable(docId, DayOfWeek.MONDAY, start, end, null, "RECURRING"));
+        assertTrue(service.isAvailable(docId, DayOfWeek.TUESDAY, start, end, 7L, "BREAK"));
+        verify(breakRepo).existsOverlapping(docId, DayOfWeek.TUESDAY, start, end, 7L);
+        verify(recurringRepo).existsOverlapping(docId, DayOfWeek.TUESDAY, start, end, null);
+
+        LocalDate date = LocalDate.of(2024, 4, 15);
+        when(recurringRepo.existsOverlapping(docId, DayOfWeek.MONDAY, start, end, null)).thenReturn(true);
+        assertFalse(service.isAvailableOneTime(docId, date, start, end, 3L));
+        verify(oneTimeRepo).existsOverlappingOnDate(docId, date, start, end, 3L);
+
+        verify(oneTimeRepo, never()).findByDoctorId(any());
+        verify(recurringRepo, never()).findByDoctorIdAndActiveTrue(any());
+    }
+}
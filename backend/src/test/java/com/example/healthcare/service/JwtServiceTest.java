@@ -0,0 +1,101 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.UserRole;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "TestOnlyJwtSecretKeyThatIsLongEnough12345";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        jwtService.init();
+    }
+
+    @Test
+    void verify_returnsAllClaimsAndCachesTheToken() {
+        String token = jwtService.generateToken(user("doc@example.com", UserRole.DOCTOR));
+
+        JwtService.VerifiedToken first = jwtService.verify(token);
+        JwtService.VerifiedToken second = jwtService.verify(token);
+
+        assertEquals("doc@example.com", first.subject());
+        assertEquals("DOCTOR", first.role());
+        assertEquals(7L, first.userId());
+        assertEquals("ACTIVE", first.status());
+        assertEquals("USER", first.dtype());
+        assertNotNull(first.tokenId());
+        assertSame(first, second);
+        assertEquals(1, jwtService.cachedTokenCount());
+    }
+
+    @Test
+    void tamperedToken_isRejectedAndNotCached() {
+        String token = jwtService.generateToken(user("doc@example.com", UserRole.DOCTOR));
+        String forged = Jwts.builder()
+                .setSubject("owner@example.com")
+                .claim("role", "OWNER")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("AnotherSecretKeyThatIsAlsoLongEnough98765".getBytes()),
+                        SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.verify(forged));
+        assertThrows(JwtException.class, () -> jwtService.verify(token.substring(0, token.length() - 2)));
+        assertFalse(jwtService.validateToken(forged));
+        assertEquals(0, jwtService.cachedTokenCount());
+    }
+
+    @Test
+    void expiredToken_isRejected() {
+        String expired = Jwts.builder()
+                .setSubject("doc@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired));
+        assertEquals(0, jwtService.cachedTokenCount());
+    }
+
+    @Test
+    void fullCache_evictsTheLeastRecentlyUsedToken() {
+        ReflectionTestUtils.setField(jwtService, "cacheMaxEntries", 2);
+        String first = jwtService.generateToken(user("a@example.com", UserRole.PATIENT));
+        String second = jwtService.generateToken(user("b@example.com", UserRole.PATIENT));
+        String third = jwtService.generateToken(user("c@example.com", UserRole.PATIENT));
+
+        JwtService.VerifiedToken kept = jwtService.verify(first);
+        JwtService.VerifiedToken evicted = jwtService.verify(second);
+        jwtService.verify(first); // now the most recently used
+        jwtService.verify(third);
+
+        assertEquals(2, jwtService.cachedTokenCount());
+        assertSame(kept, jwtService.verify(first));
+        assertNotSame(evicted, jwtService.verify(second));
+    }
+
+    private static User user(String email, UserRole role) {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail(email);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Message.MessageDto;
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Message;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.ConversationJdbcRepository;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.repository.MessageRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.support.TestUsers.fill;
+import static com.example.healthcare.support.TestUsers.patient;
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+@Import({MessageServiceImpl.class, ConversationJdbcRepository.class, ConversationBackfill.class})
+public class MessagePagingTest {
+
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private ConversationBackfill conversationBackfill;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private UserService userService;
+
+    private Doctor doctor;
+    private Patient patient;
+    private Patient otherPatient;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        Doctor d = new Doctor();
+        fill(d, "paging.msg.doctor@example.com", UserRole.DOCTOR);
+        d.setLicenseNumber("LIC-M");
+        d.setSpecialty("General");
+        doctor = doctorRepository.save(d);
+        patient = patientRepository.save(patient("paging.msg.patient@example.com"));
+        otherPatient = patientRepository.save(patient("paging.msg.other@example.com"));
+
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void scrollingBack_walksTheWholeConversationWithoutGapsOrDuplicates() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            // pairs share a timestamp so page boundaries have to tie-break on id
+            LocalDateTime at = base.plusMinutes(i / 2);
+            expected.add(i % 2 == 0 ? save(doctor, patient, at) : save(patient, doctor, at));
+            save(doctor, otherPatient, at); // another conversation of the doctor, never returned
+        }
+
+        List<MessageDto> latest = messageService.getMessagesWithUser(patient.getId(), doctor.getId(), null, null, 4);
+        assertEquals(expected.subList(7, 11), ids(latest));
+
+        List<Long> seen = new ArrayList<>(ids(latest));
+        List<MessageDto> page = latest;
+        while (!page.isEmpty()) {
+            page = messageService.getMessagesWithUser(doctor.getId(), patient.getId(), page.get(0).getId(), null, 4);
+            assertTrue(page.size() <= 4);
+            seen.addAll(0, ids(page));
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void afterCursor_returnsOnlyNewerMessagesOldestFirst() {
+        Long first = save(doctor, patient, base);
+        Long second = save(patient, doctor, base.plusMinutes(1));
+        Long third = save(doctor, patient, base.plusMinutes(2));
+
+        assertEquals(List.of(second, third),
+                ids(messageService.getMessagesWithUser(patient.getId(), doctor.getId(), null, first, 10)));
+        assertTrue(messageService.getMessagesWithUser(patient.getId(), doctor.getId(), null, third, 10).isEmpty());
+    }
+
+    @Test
+    void cursorFromAnotherConversation_isRejected() {
+        Long foreign = save(doctor, otherPatient, base);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> messageService.getMessagesWithUser(patient.getId(), doctor.getId(), foreign, null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> messageService.getMessagesWithUser(patient.getId(), doctor.getId(), foreign, foreign, 10));
+    }
+
+    @Test
+    void messagesWithoutAPair_areBackfilled() {
+        Long legacy = save(doctor, patient, base);
+        jdbcTemplate.update("UPDATE messages SET user_low_id = NULL, user_high_id = NULL");
+        assertTrue(messageService.getMessagesWithUser(patient.getId(), doctor.getId(), null, null, 10).isEmpty());
+
+        assertEquals(1, conversationBackfill.backfillMessagePairs());
+        assertEquals(List.of(legacy),
+                ids(messageService.getMessagesWithUser(patient.getId(), doctor.getId(), null, null, 10)));
+    }
+
+    private Long save(User from, User to, LocalDateTime at) {
+        Message m = new Message();
+        m.setSender(from);
+        m.setReceiver(to);
+        m.setContent("message at " + at);
+        m.setTimestamp(at);
+        return messageRepository.save(m).getId();
+    }
+
+    private static List<Long> ids(List<MessageDto> page) {
+        return page.stream().map(MessageDto::getId).toList();
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Message.MessageDto;
+import com.example.healthcare.dto.Message.MessageThreadDto;
+import com.example.healthcare.dto.Message.SendMessageRequest;
+import com.example.healthcare.entity.Conversation;
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Message;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.ConversationJdbcRepository;
+import com.example.healthcare.repository.ConversationRepository;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.repository.MessageRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.support.H2JpaTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.healthcare.support.TestUsers.doctor;
+import static com.example.healthcare.support.TestUsers.fill;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@H2JpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({MessageServiceImpl.class, ConversationJdbcRepository.class, ConversationBackfill.class})
+public class MessageThreadsTest {
+
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private ConversationBackfill conversationBackfill;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @MockitoSpyBean
+    private ConversationJdbcRepository conversationInserts;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private UserService userService;
+
+    private Doctor cardiologist;
+    private Doctor dermatologist;
+    private Patient patient;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        cardiologist = doctorRepository.save(doctor("threads.cardio@example.com", "LIC-T1"));
+        dermatologist = doctorRepository.save(doctor("threads.derma@example.com", "LIC-T2"));
+
+        Patient p = new Patient();
+        fill(p, "threads.patient@example.com", UserRole.PATIENT);
+        patient = patientRepository.save(p);
+
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        when(userService.getUserById(any())).thenAnswer(inv -> userRepository.findById(inv.getArgument(0)).orElseThrow());
+    }
+
+    @AfterEach
+    void tearDown() {
+        conversationRepository.deleteAll();
+        messageRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void sendAndRead_keepTheConversationRowCurrent() {
+        send(dermatologist, patient, "Your lab results are in");
+        send(cardiologist, patient, "How are you feeling?");
+        MessageDto followUp = send(cardiologist, patient, "Please book a follow-up");
+        send(cardiologist, patient, "And bring your results");
+        send(patient, cardiologist, "Will do");
+
+        assertEquals(2, conversationRepository.count());
+        assertEquals(4, messageService.countUnreadMessages(patient.getId()));
+        assertEquals(1, messageService.countUnreadMessages(cardiologist.getId()));
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<MessageThreadDto> threads = messageService.getMessageThreads(patient.getId());
+        assertEquals(2, stats.getPrepareStatementCount());
+
+        assertEquals(2, threads.size());
+        MessageThreadDto latest = threads.get(0);
+        assertEquals(cardiologist.getId(), latest.getUser().getId());
+        assertEquals("DOCTOR", latest.getUser().getRole());
+        assertEquals("Will do", latest.getLastMessage());
+        assertTrue(latest.isLastMessageIsMine());
+        assertEquals(3, latest.getUnreadCount());
+        assertEquals(dermatologist.getId(), threads.get(1).getUser().getId());
+        assertEquals(1, threads.get(1).getUnreadCount());
+
+        messageService.markAsRead(patient.getId(), followUp.getId());
+        messageService.markAsRead(patient.getId(), followUp.getId()); // already read: no change
+        assertEquals(3, messageService.countUnreadMessages(patient.getId()));
+
+        assertEquals(2, messageService.markConversationAsRead(patient.getId(), cardiologist.getId()));
+        assertEquals(0, messageService.markConversationAsRead(patient.getId(), cardiologist.getId()));
+        assertEquals(1, messageService.countUnreadMessages(patient.getId()));
+        assertTrue(messageRepository.findAll().stream()
+                .filter(m -> m.getSender().getId().equals(cardiologist.getId()))
+                .allMatch(Message::isRead));
+        assertEquals(1, messageService.countUnreadMessages(cardiologist.getId()));
+    }
+
+    @Test
+    void concurrentFirstMessages_bothLandOnOneConversation() {
+        Long low = Math.min(cardiologist.getId(), patient.getId());
+        Long high = Math.max(cardiologist.getId(), patient.getId());
+        insert(cardiologist, patient, "Hello", base, false);
+        Long doctorsFirst = messageRepository.findAll().get(0).getId();
+        // The doctor's first message commits its summary just before the patient's first message inserts one
+        doAnswer(inv -> {
+            CompletableFuture.runAsync(() -> assertTrue(conversationInserts.insertIfAbsent(low, high,
+                    doctorsFirst, cardiologist.getId(), "Hello", base, low.equals(patient.getId()) ? 1 : 0,
+                    high.equals(patient.getId()) ? 1 : 0))).join();
+            return inv.callRealMethod();
+        }).when(conversationInserts).insertIfAbsent(any(), any(), any(), eq(patient.getId()), any(), any(),
+                anyInt(), anyInt());
+
+        send(patient, cardiologist, "Hello doctor");
+
+        assertEquals(1, conversationRepository.count());
+        assertEquals(1, messageService.countUnreadMessages(patient.getId()));
+        assertEquals(1, messageService.countUnreadMessages(cardiologist.getId()));
+        assertEquals("Hello doctor", messageService.getMessageThreads(patient.getId()).get(0).getLastMessage());
+    }
+
+    @Test
+    void olderMessageRecordedLate_keepsTheNewerPreview() {
+        MessageDto first = send(cardiologist, patient, "How are you feeling?");
+        send(cardiologist, patient, "Please book a follow-up");
+        Long low = Math.min(cardiologist.getId(), patient.getId());
+        Long high = Math.max(cardiologist.getId(), patient.getId());
+
+        // The first send's summary update committing after the second one's
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                conversationRepository.recordMessage(low, high, first.getId(), cardiologist.getId(),
+                        "How are you feeling?", base));
+
+        MessageThreadDto thread = messageService.getMessageThreads(patient.getId()).get(0);
+        assertEquals("Please book a follow-up", thread.getLastMessage());
+        assertEquals(3, thread.getUnreadCount());
+    }
+
+    @Test
+    void backfill_summarizesExistingMessages() {
+        insert(cardiologist, patient, "How are you feeling?", base.minusHours(3), true);
+        insert(cardiologist, patient, "Please book a follow-up", base.minusHours(2), false);
+        insert(cardiologist, patient, "And bring your results", base.minusHours(2), false);
+        insert(patient, cardiologist, "x".repeat(300), base.minusHours(1), false);
+        insert(dermatologist, patient, "Your lab results are in", base.minusDays(1), false);
+
+        assertEquals(2, conversationBackfill.backfillConversations());
+        assertEquals(0, conversationBackfill.backfillConversations());
+
+        List<MessageThreadDto> threads = messageService.getMessageThreads(patient.getId());
+        assertEquals(2, threads.size());
+        MessageThreadDto latest = threads.get(0);
+        assertEquals(cardiologist.getId(), latest.getUser().getId());
+        assertEquals(Conversation.SNIPPET_LENGTH, latest.getLastMessage().length());
+        assertTrue(latest.isLastMessageIsMine());
+        assertEquals(base.minusHours(1), latest.getLastMessageTime());
+        assertEquals(2, latest.getUnreadCount());
+        assertEquals(1, threads.get(1).getUnreadCount());
+
+        // The doctor's side: own messages never count as unread
+        List<MessageThreadDto> doctorThreads = messageService.getMessageThreads(cardiologist.getId());
+        assertEquals(1, doctorThreads.get(0).getUnreadCount());
+        assertFalse(doctorThreads.get(0).isLastMessageIsMine());
+    }
+
+    @Test
+    void backfill_skipsPairsThatAlreadyHaveASummary() {
+        insert(dermatologist, patient, "Your lab results are in", base.minusDays(1), false);
+        // A summary written by live traffic before the backfill got to this pair
+        Conversation live = new Conversation();
+        live.setUserLowId(Math.min(dermatologist.getId(), patient.getId()));
+        live.setUserHighId(Math.max(dermatologist.getId(), patient.getId()));
+        live.setLastMessageId(messageRepository.findAll().get(0).getId());
+        live.setLastSenderId(dermatologist.getId());
+        live.setSnippet("live");
+        live.setLastMessageAt(base);
+        conversationRepository.save(live);
+        insert(cardiologist, patient, "Please book a follow-up", base.minusHours(2), false);
+
+        assertEquals(1, conversationBackfill.backfillConversations());
+
+        List<MessageThreadDto> threads = messageService.getMessageThreads(patient.getId());
+        assertEquals(2, threads.size());
+        assertEquals("live", threads.get(0).getLastMessage());
+        assertEquals("Please book a follow-up", threads.get(1).getLastMessage());
+    }
+
+    @Test
+    void noMessages_meansNoThreads() {
+        assertTrue(messageService.getMessageThreads(patient.getId()).isEmpty());
+        assertEquals(0, messageService.countUnreadMessages(patient.getId()));
+    }
+
+    private MessageDto send(User from, User to, String content) {
+        SendMessageRequest req = new SendMessageRequest();
+        req.setReceiverId(to.getId());
+        req.setContent(content);
+        return messageService.sendMessage(from.getId(), req);
+    }
+
+    private void insert(User from, User to, String content, LocalDateTime at, boolean read) {
+        Message m = new Message();
+        m.setSender(from);
+        m.setReceiver(to);
+        m.setContent(content);
+        m.setTimestamp(at);
+        m.setRead(read);
+        messageRepository.save(m);
+    }
+}
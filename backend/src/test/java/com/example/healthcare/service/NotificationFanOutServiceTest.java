@@ -0,0 +1,171 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Notification.FanOutRequest;
+import com.example.healthcare.dto.Notification.FanOutStatusDto;
+import com.example.healthcare.dto.Notification.FanOutStatusDto.State;
+import com.example.healthcare.entity.Appointment;
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Notification;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.enums.AppointmentStatus;
+import com.example.healthcare.entity.enums.NotificationType;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.DoctorRepository;
+import com.example.healthcare.repository.NotificationBatchRepository;
+import com.example.healthcare.repository.NotificationRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.support.TestUsers.fill;
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+@Import({NotificationFanOutService.class, NotificationBatchRepository.class})
+public class NotificationFanOutServiceTest {
+
+    @Autowired
+    private NotificationFanOutService fanOutService;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private Doctor doctor;
+    private final List<Patient> patients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fanOutService, "chunkSize", 2);
+
+        Doctor d = new Doctor();
+        fill(d, "fanout.doctor@example.com", UserRole.DOCTOR);
+        d.setLicenseNumber("LIC-F");
+        d.setSpecialty("General");
+        doctor = doctorRepository.save(d);
+
+        for (int i = 0; i < 5; i++) {
+            Patient p = new Patient();
+            fill(p, "fanout.patient" + i + "@example.com", UserRole.PATIENT);
+            patients.add(patientRepository.save(p));
+        }
+        Patient deleted = new Patient();
+        fill(deleted, "fanout.deleted@example.com", UserRole.PATIENT);
+        deleted.setDeleted(true);
+        patientRepository.save(deleted);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patients.clear();
+    }
+
+    @Test
+    void roleFanOut_writesOneNotificationPerActiveUserInChunks() throws Exception {
+        FanOutStatusDto started = fanOutService.notifyRole(99L, UserRole.PATIENT, request("Clinic closed Friday"));
+        FanOutStatusDto done = await(started.getId());
+
+        assertEquals(State.COMPLETED, done.getState());
+        assertEquals(5, done.getDelivered());
+        assertEquals(3, done.getChunks());
+        assertEquals(patients.get(4).getId(), done.getLastRecipientId());
+        assertNotNull(done.getFinishedAt());
+
+        List<Notification> written = notificationRepository.findAll();
+        assertEquals(5, written.size());
+        assertTrue(written.stream().allMatch(n -> !n.isRead()
+                && n.getType() == NotificationType.ADMIN_ALERT
+                && "Clinic closed Friday".equals(n.getMessage())
+                && n.getCreatedAt() != null));
+        for (Patient p : patients) {
+            assertEquals(1, notificationRepository.findByRecipientAndIsReadFalse(p).size());
+        }
+    }
+
+    @Test
+    void doctorFanOut_reachesEachOfTheirPatientsOnce() throws Exception {
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1);
+        appointment(patients.get(0), base);
+        appointment(patients.get(0), base.plusHours(1));
+        appointment(patients.get(3), base.plusHours(2));
+
+        FanOutStatusDto done = await(fanOutService.notifyPatientsOfDoctor(doctor.getId(), request("Tomorrow is cancelled")).getId());
+
+        assertEquals(State.COMPLETED, done.getState());
+        assertEquals(2, done.getDelivered());
+        assertEquals(1, notificationRepository.findByRecipientAndIsReadFalse(patients.get(0)).size());
+        assertEquals(1, notificationRepository.findByRecipientAndIsReadFalse(patients.get(3)).size());
+        assertEquals(2, notificationRepository.count());
+    }
+
+    @Test
+    void failingQuery_keepsCommittedChunksAndReportsWhereItStopped() throws Exception {
+        Long first = patients.get(0).getId();
+        Long second = patients.get(1).getId();
+        FanOutStatusDto started = fanOutService.fanOut(99L, (afterId, limit) -> {
+            if (afterId == 0L) return List.of(first, second);
+            throw new IllegalStateException("recipient query failed");
+        }, request("Partial"));
+        FanOutStatusDto done = await(started.getId());
+
+        assertEquals(State.FAILED, done.getState());
+        assertEquals("recipient query failed", done.getError());
+        assertEquals(2, done.getDelivered());
+        assertEquals(second, done.getLastRecipientId());
+        assertEquals(2, notificationRepository.count());
+    }
+
+    @Test
+    void unknownJob_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> fanOutService.getStatus("nope"));
+    }
+
+    private FanOutStatusDto await(String jobId) throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            FanOutStatusDto status = fanOutService.getStatus(jobId);
+            if (status.getState() == State.COMPLETED || status.getState() == State.FAILED) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        fail("Fan-out " + jobId + " did not finish");
+        return null;
+    }
+
+    private void appointment(Patient patient, LocalDateTime time) {
+        Appointment a = new Appointment();
+        a.setDoctor(doctor);
+        a.setPatient(patient);
+        a.setAppointmentTime(time);
+        a.setStatus(AppointmentStatus.BOOKED);
+        a.setLocation("Room 1");
+        a.setNotes("");
+        appointmentRepository.save(a);
+    }
+
+    private static FanOutRequest request(String message) {
+        FanOutRequest r = new FanOutRequest();
+        r.setMessage(message);
+        r.setType(NotificationType.ADMIN_ALERT);
+        return r;
+    }
+}
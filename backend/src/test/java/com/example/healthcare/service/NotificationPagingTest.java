@@ -0,0 +1,131 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Notification.NotificationDto;
+import com.example.healthcare.entity.Notification;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.NotificationType;
+import com.example.healthcare.entity.enums.UserRole;
+import com.example.healthcare.repository.NotificationRepository;
+import com.example.healthcare.repository.PatientRepository;
+import com.example.healthcare.support.H2JpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.support.TestUsers.patient;
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2JpaTest
+@Import({NotificationService.class, NotificationRetentionService.class})
+public class NotificationPagingTest {
+
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private NotificationRetentionService retentionService;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Patient patient;
+    private Patient otherPatient;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(patient("paging.notes.patient@example.com"));
+        otherPatient = patientRepository.save(patient("paging.notes.other@example.com"));
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void paging_walksAllNotificationsNewestFirstWithoutGaps() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // pairs share a timestamp so page boundaries have to tie-break on id
+            expected.add(0, save(patient, base.plusMinutes(i / 2), i % 3 == 0));
+            save(otherPatient, base.plusMinutes(i / 2), false); // someone else's, never returned
+        }
+
+        List<Long> seen = new ArrayList<>();
+        List<NotificationDto> page = notificationService.getNotificationsPage(patient.getId(), false, null, 3);
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 3);
+            seen.addAll(ids(page));
+            page = notificationService.getNotificationsPage(patient.getId(), false, page.get(page.size() - 1).getId(), 3);
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void unreadOnlyAndCount_skipReadNotifications() {
+        Long read = save(patient, base, true);
+        Long older = save(patient, base.plusMinutes(1), false);
+        Long newer = save(patient, base.plusMinutes(2), false);
+        save(otherPatient, base, false);
+
+        assertEquals(List.of(newer, older), ids(notificationService.getNotificationsPage(patient.getId(), true, null, 10)));
+        assertEquals(List.of(older), ids(notificationService.getNotificationsPage(patient.getId(), true, newer, 10)));
+        assertEquals(List.of(newer, older, read), ids(notificationService.getNotificationsPage(patient.getId(), false, null, 0)));
+        assertEquals(2, notificationService.countUnread(patient.getId()));
+    }
+
+    @Test
+    void cursorFromAnotherUser_isRejected() {
+        Long foreign = save(otherPatient, base, false);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationService.getNotificationsPage(patient.getId(), false, foreign, 10));
+    }
+
+    @Test
+    void retention_purgesOnlyOldReadNotificationsInBatches() {
+        ReflectionTestUtils.setField(retentionService, "deleteBatch", 2);
+        for (int i = 0; i < 5; i++) {
+            save(patient, base.minusDays(100), true);
+        }
+        Long oldUnread = save(patient, base.minusDays(100), false);
+        Long recentRead = save(patient, base, true);
+
+        assertEquals(5, retentionService.purgeReadBefore(base.minusDays(90)));
+        assertEquals(List.of(recentRead, oldUnread),
+                ids(notificationService.getNotificationsPage(patient.getId(), false, null, 10)));
+        assertEquals(0, retentionService.purgeReadBefore(base.minusDays(90)));
+    }
+
+    private Long save(User recipient, LocalDateTime at, boolean read) {
+        Notification n = new Notification();
+        n.setRecipient(recipient);
+        n.setMessage("notification at " + at);
+        n.setType(NotificationType.GENERAL);
+        n.setRead(read);
+        Long id = notificationRepository.save(n).getId();
+        // createdAt is stamped by @PrePersist; move it to the wanted time
+        jdbcTemplate.update("UPDATE notifications SET created_at = ? WHERE id = ?", Timestamp.valueOf(at), id);
+        return id;
+    }
+
+    private static List<Long> ids(List<NotificationDto> page) {
+        return page.stream().map(NotificationDto::getId).toList();
+    }
+}
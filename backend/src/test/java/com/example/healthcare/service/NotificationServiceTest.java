@@ -1,5 +1,7 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.dto.Push.NotificationCreatedEvent;
+import com.example.healthcare.dto.Push.NotificationsReadEvent;
 import com.example.healthcare.entity.Notification;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.entity.enums.NotificationType;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -23,6 +26,9 @@ public class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private ApplicationEventPublisher events;
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -54,6 +60,8 @@ public class NotificationServiceTest {
         assertNotNull(result.getId());
         assertEquals("Your appointment is tomorrow.", result.getMessage());
         verify(notificationRepository, times(1)).save(any(Notification.class));
+        verify(events).publishEvent(new NotificationCreatedEvent(1L, 100L, "Your appointment is tomorrow.",
+                NotificationType.APPOINTMENT, result.getCreatedAt()));
     }
 
     @Test
@@ -75,30 +83,45 @@ public class NotificationServiceTest {
     public void testMarkNotificationAsRead() {
         Notification notification = new Notification();
         notification.setId(200L);
+        notification.setRecipient(testUser);
         notification.setRead(false);
         when(notificationRepository.findById(200L)).thenReturn(Optional.of(notification));
-        when(notificationRepository.save(notification)).thenReturn(notification);
+        when(notificationRepository.markRead(200L)).thenReturn(1);
 
         notificationService.markNotificationAsRead(200L);
-        assertTrue(notification.isRead());
-        verify(notificationRepository, times(1)).save(notification);
+        verify(notificationRepository, times(1)).markRead(200L);
+        verify(notificationRepository, never()).save(any());
+        verify(events).publishEvent(new NotificationsReadEvent(1L, 1));
+    }
+
+    @Test
+    public void testMarkNotificationAsRead_alreadyRead() {
+        Notification notification = new Notification();
+        notification.setId(201L);
+        notification.setRecipient(testUser);
+        when(notificationRepository.findById(201L)).thenReturn(Optional.of(notification));
+        when(notificationRepository.markRead(201L)).thenReturn(0);
+
+        notificationService.markNotificationAsRead(201L);
+        verifyNoInteractions(events);
     }
 
     @Test
     public void testMarkAllNotificationsAsRead() {
-        Notification n1 = new Notification();
-        n1.setId(1L);
-        n1.setRead(false);
-        Notification n2 = new Notification();
-        n2.setId(2L);
-        n2.setRead(false);
-        List<Notification> unreadNotifications = Arrays.asList(n1, n2);
-        when(notificationRepository.findByRecipientAndIsReadFalse(testUser)).thenReturn(unreadNotifications);
-
-        notificationService.markAllNotificationsAsRead(testUser);
-        assertTrue(n1.isRead());
-        assertTrue(n2.isRead());
-        verify(notificationRepository, times(1)).saveAll(unreadNotifications);
+        when(notificationRepository.markAllReadFor(1L)).thenReturn(2);
+
+        assertEquals(2, notificationService.markAllNotificationsAsRead(testUser));
+        verify(notificationRepository, times(1)).markAllReadFor(1L);
+        verify(notificationRepository, never()).saveAll(any());
+        verify(events).publishEvent(new NotificationsReadEvent(1L, 2));
+    }
+
+    @Test
+    public void testMarkAllNotificationsAsRead_nothingUnread() {
+        when(notificationRepository.markAllReadFor(1L)).thenReturn(0);
+
+        assertEquals(0, notificationService.markAllNotificationsAsRead(testUser));
+        verifyNoInteractions(events);
     }
 
     @Test
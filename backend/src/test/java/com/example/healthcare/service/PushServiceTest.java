@@ -0,0 +1,138 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.dto.Message.MessageDto;
+import com.example.healthcare.dto.Push.MessageSentEvent;
+import com.example.healthcare.dto.Push.NotificationsReadEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PushServiceTest {
+
+    private PushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        pushService = new PushService();
+        ReflectionTestUtils.setField(pushService, "maxStreamsPerUser", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pushService.shutdown();
+    }
+
+    @Test
+    void messageEvents_reachBothParticipantsOnly() throws Exception {
+        RecordingEmitter sender = subscribe(1L, 1);
+        RecordingEmitter receiver = subscribe(2L, 1);
+        RecordingEmitter bystander = subscribe(3L, 1);
+
+        MessageDto dto = new MessageDto();
+        dto.setSenderId(1L);
+        dto.setReceiverId(2L);
+        pushService.onMessageSent(new MessageSentEvent(dto));
+
+        assertTrue(sender.await());
+        assertTrue(receiver.await());
+        assertFalse(bystander.latch.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void failedStream_isDroppedAndOthersStillReceive() throws Exception {
+        RecordingEmitter broken = subscribe(1L, 1);
+        broken.fail = true;
+        RecordingEmitter healthy = subscribe(1L, 1);
+
+        pushService.onNotificationsRead(new NotificationsReadEvent(1L, 3));
+
+        assertTrue(healthy.await());
+        assertTrue(broken.await());
+        waitUntil(() -> pushService.streamsOf(1L).size() == 1);
+        assertEquals(List.of(healthy), pushService.streamsOf(1L));
+    }
+
+    @Test
+    void streamsBeyondTheCap_closeTheOldest() {
+        SseEmitter first = pushService.subscribe(1L);
+        SseEmitter second = pushService.subscribe(1L);
+        SseEmitter third = pushService.subscribe(1L);
+
+        assertEquals(Set.of(second, third), Set.copyOf(pushService.streamsOf(1L)));
+        assertFalse(pushService.streamsOf(1L).contains(first));
+        assertEquals(1, pushService.connectedUsers());
+    }
+
+    @Test
+    void disconnect_closesEveryStreamOfTheUser() {
+        pushService.subscribe(1L);
+        pushService.subscribe(1L);
+        pushService.subscribe(2L);
+
+        pushService.disconnect(1L);
+
+        assertTrue(pushService.streamsOf(1L).isEmpty());
+        assertEquals(1, pushService.connectedUsers());
+    }
+
+    @Test
+    void usersWithoutStreams_areIgnored() {
+        pushService.onNotificationsRead(new NotificationsReadEvent(42L, 1));
+        assertEquals(0, pushService.connectedUsers());
+    }
+
+    // Swaps a recording emitter into the user's stream set, keeping the service's bookkeeping
+    @SuppressWarnings("unchecked")
+    private RecordingEmitter subscribe(Long userId, int expectedEvents) {
+        SseEmitter real = pushService.subscribe(userId);
+        RecordingEmitter recording = new RecordingEmitter(expectedEvents);
+        var streams = (Map<Long, Set<SseEmitter>>) ReflectionTestUtils.getField(pushService, "streams");
+        Set<SseEmitter> userStreams = streams.get(userId);
+        userStreams.remove(real);
+        userStreams.add(recording);
+        return recording;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch;
+        volatile boolean fail;
+
+        RecordingEmitter(int expectedEvents) {
+            this.latch = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            events.add(builder);
+            latch.countDown();
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(2, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.example.healthcare.service;
 import com.example.healthcare.entity.User;
 import com.example.healthcare.exception.UserNotFoundException;
 import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.PrincipalCache;
+import com.example.healthcare.security.TokenRevocationList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -22,6 +24,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationList revocationList;
+
     @InjectMocks
     private UserService userService;
 
@@ -111,6 +119,7 @@ class UserServiceTest {
     void testDeleteUser_Success() {
         User user = new User();
         user.setId(1L);
+        user.setEmail("gone@example.com");
         user.setDeleted(false);
 
         when(userRepository.findByIdAndIsDeletedFalse(1L)).thenReturn(Optional.of(user));
@@ -119,6 +128,8 @@ class UserServiceTest {
         userService.deleteUser(1L);
         assertTrue(user.isDeleted());
         verify(userRepository, times(1)).save(user);
+        verify(principalCache).evict("gone@example.com");
+        verify(revocationList).revokeUser(1L);
     }
 
     @Test
@@ -0,0 +1,31 @@
+package com.example.healthcare.support;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice on a fresh in-memory H2 schema ({@code h2-jpa-test.properties}) for tests that exercise
+ * services against real queries. Test methods run without a surrounding transaction, so services
+ * commit as they do in production and tests clean up after themselves.
+ * {@link #properties()} adds to or overrides the shared settings.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@TestPropertySource(locations = "classpath:h2-jpa-test.properties")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface H2JpaTest {
+
+    @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+    String[] properties() default {};
+}
@@ -0,0 +1,36 @@
+package com.example.healthcare.support;
+
+import com.example.healthcare.entity.Doctor;
+import com.example.healthcare.entity.Patient;
+import com.example.healthcare.entity.User;
+import com.example.healthcare.entity.enums.UserRole;
+
+/**
+ * Unsaved users with every required column filled in.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    public static <T extends User> T fill(T user, String email, UserRole role) {
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setPhoneNumber("555-0100");
+        user.setRole(role);
+        return user;
+    }
+
+    public static Doctor doctor(String email, String license) {
+        Doctor d = fill(new Doctor(), email, UserRole.DOCTOR);
+        d.setLicenseNumber(license);
+        d.setSpecialty("General");
+        return d;
+    }
+
+    public static Patient patient(String email) {
+        return fill(new Patient(), email, UserRole.PATIENT);
+    }
+}
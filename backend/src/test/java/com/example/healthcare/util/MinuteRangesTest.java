@@ -0,0 +1,57 @@
+package com.example.healthcare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinuteRangesTest {
+
+    @Test
+    void testBuild_sortsAndMergesOverlappingAndTouchingRanges() {
+        int[] ranges = MinuteRanges.builder()
+                .add(600, 660)   // 10:00-11:00
+                .add(540, 600)   // 09:00-10:00, touches
+                .add(630, 700)   // overlaps
+                .add(800, 800)   // empty, ignored
+                .add(900, 960)
+                .build();
+
+        assertArrayEquals(new int[]{540, 700, 900, 960}, ranges);
+    }
+
+    @Test
+    void testSubtract_splitsAndTrimsRanges() {
+        int[] base = {540, 720, 840, 900};
+        int[] blocks = {500, 560, 600, 630, 700, 850};
+
+        assertArrayEquals(new int[]{560, 600, 630, 700, 850, 900}, MinuteRanges.subtract(base, blocks));
+        assertArrayEquals(MinuteRanges.EMPTY, MinuteRanges.subtract(base, new int[]{0, 1440}));
+    }
+
+    @Test
+    void testSlotStarts_matchesSubtractThenEnumerate() {
+        int[] working = MinuteRanges.builder().add(540, 720).add(840, 900).build();
+        int[] blocked = MinuteRanges.builder()
+                .add(600, 630)                         // break
+                .addLength(LocalTime.of(9, 30), 30)    // appointment
+                .addLength(LocalTime.of(23, 50), 30)   // cut at midnight
+                .build();
+
+        assertArrayEquals(new int[]{540, 630, 660, 690, 840, 870},
+                MinuteRanges.slotStarts(working, blocked, 30));
+        assertThrows(IllegalArgumentException.class, () -> MinuteRanges.slotStarts(working, blocked, 0));
+    }
+
+    @Test
+    void testOverlapsAndContains_areHalfOpen() {
+        int[] ranges = {540, 600, 660, 720};
+
+        assertTrue(MinuteRanges.overlaps(ranges, 590, 670));
+        assertFalse(MinuteRanges.overlaps(ranges, 600, 660));
+        assertFalse(MinuteRanges.overlaps(ranges, 720, 780));
+        assertTrue(MinuteRanges.contains(ranges, 540));
+        assertFalse(MinuteRanges.contains(ranges, 600));
+    }
+}
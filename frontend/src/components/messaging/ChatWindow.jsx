@@ -1,15 +1,25 @@
 import React, { useEffect, useRef } from "react";
 import MessageInput from "./MessageInput";
 import { useAuth } from "../../context/AuthContext"; 
-export default function ChatWindow({ activeUser, messages, loading, onSend, sending }) {
+export default function ChatWindow({
+  activeUser, messages, loading, onSend, sending, hasEarlier, loadingEarlier, onLoadEarlier,
+}) {
   const { user } = useAuth();
   const myId = user?.id;
 
-  // Auto-scroll to bottom
+  // Auto-scroll to bottom when a newer message arrives, not when earlier ones are prepended
   const messagesEndRef = useRef(null);
+  const lastMessageId = messages[messages.length - 1]?.id;
   useEffect(() => {
     messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
-  }, [messages, activeUser, loading]);
+  }, [lastMessageId, activeUser, loading]);
+
+  // Reaching the top of the list loads the previous page
+  const handleScroll = (e) => {
+    if (e.currentTarget.scrollTop === 0 && hasEarlier && !loadingEarlier) {
+      onLoadEarlier?.();
+    }
+  };
 
   if (!activeUser) {
     return (
@@ -34,7 +44,21 @@ export default function ChatWindow({ activeUser, messages, loading, onSend, send
         </span>
       </div>
       {/* Messages */}
-      <div className="flex-1 p-4 space-y-3 overflow-y-auto bg-gray-50 dark:bg-gray-900">
+      <div
+        className="flex-1 p-4 space-y-3 overflow-y-auto bg-gray-50 dark:bg-gray-900"
+        onScroll={handleScroll}
+      >
+        {!loading && hasEarlier && (
+          <div className="text-center">
+            <button
+              onClick={onLoadEarlier}
+              disabled={loadingEarlier}
+              className="px-3 py-1 text-xs text-blue-600 hover:underline disabled:opacity-50"
+            >
+              {loadingEarlier ? "Loading..." : "Load earlier messages"}
+            </button>
+          </div>
+        )}
         {loading ? (
           <div className="text-blue-500">Loading messages...</div>
         ) : messages.length === 0 ? (
@@ -1,7 +1,8 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import ConversationList from "./ConversationList";
 import ChatWindow from "./ChatWindow";
 import * as messageApi from "../../services/messageApi";
+import { openPushStream } from "../../services/pushApi";
 import { useAuth } from "../../context/AuthContext";
 
 export default function MessagePage() {
@@ -10,6 +11,9 @@ export default function MessagePage() {
   const [messages, setMessages] = useState([]);
   const [loadingThreads, setLoadingThreads] = useState(true);
   const [loadingMessages, setLoadingMessages] = useState(false);
+  // Older messages are fetched a page at a time, before the oldest one loaded
+  const [hasEarlier, setHasEarlier] = useState(false);
+  const [loadingEarlier, setLoadingEarlier] = useState(false);
   const [sending, setSending] = useState(false);
   const { user } = useAuth();
   const myId = user?.id;
@@ -33,18 +37,48 @@ export default function MessagePage() {
     fetchThreads();
   }, []);
 
+  // Live updates: new messages land in the open conversation, the sidebar refreshes its counts
+  const activeUserRef = useRef(null);
+  activeUserRef.current = activeUser;
+  useEffect(
+    () =>
+      openPushStream({
+        message: ({ message }) => {
+          const partner = activeUserRef.current;
+          if (partner && (message.senderId === partner.id || message.receiverId === partner.id)) {
+            setMessages((prev) => (prev.some((m) => m.id === message.id) ? prev : [...prev, message]));
+          }
+          if (partner && message.senderId === partner.id) {
+            // Seen right away in the open conversation
+            messageApi.markConversationAsRead(partner.id).finally(fetchThreads);
+          } else {
+            fetchThreads();
+          }
+        },
+        "messages-read": () => fetchThreads(),
+      }),
+    []
+  );
+
   // Fetch messages for the active conversation
   useEffect(() => {
     if (!activeUser) {
       setMessages([]);
+      setHasEarlier(false);
       return;
     }
     setLoadingMessages(true);
     messageApi.markConversationAsRead(activeUser.id).then(() => {
       messageApi
         .getMessagesWithUser(activeUser.id)
-        .then(setMessages)
-        .catch(() => setMessages([]))
+        .then((page) => {
+          setMessages(page);
+          setHasEarlier(page.length === messageApi.MESSAGE_PAGE_SIZE);
+        })
+        .catch(() => {
+          setMessages([]);
+          setHasEarlier(false);
+        })
         .finally(() => setLoadingMessages(false));
       setThreads((prev) =>
         prev.map((thread) =>
@@ -54,6 +88,19 @@ export default function MessagePage() {
     });
   }, [activeUser]);
 
+  // Prepend the page before the oldest loaded message
+  const handleLoadEarlier = async () => {
+    if (!activeUser || messages.length === 0 || loadingEarlier) return;
+    setLoadingEarlier(true);
+    try {
+      const page = await messageApi.getMessagesWithUser(activeUser.id, { beforeId: messages[0].id });
+      setMessages((prev) => [...page, ...prev]);
+      setHasEarlier(page.length === messageApi.MESSAGE_PAGE_SIZE);
+    } finally {
+      setLoadingEarlier(false);
+    }
+  };
+
   // Sending a message
   const handleSendMessage = async (content) => {
     if (!activeUser) return;
@@ -113,6 +160,9 @@ export default function MessagePage() {
           loading={loadingMessages}
           onSend={handleSendMessage}
           sending={sending}
+          hasEarlier={hasEarlier}
+          loadingEarlier={loadingEarlier}
+          onLoadEarlier={handleLoadEarlier}
         />
       </div>
 
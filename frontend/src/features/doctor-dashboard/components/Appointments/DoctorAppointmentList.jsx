@@ -6,7 +6,8 @@ import {
   getPastAppointments,
   markAppointmentComplete,
   cancelAppointment,
-  getCancelledAppointments
+  getCancelledAppointments,
+  APPOINTMENT_PAGE_SIZE
 } from '../../../../services/doctorService'
 
 export default function DoctorAppointmentList() {
@@ -14,6 +15,9 @@ export default function DoctorAppointmentList() {
   const [cancelled, setCancelled] = useState([])
   const [past, setPast] = useState([])
   const [loading, setLoading] = useState(true)
+  // Upcoming and past come in cursor pages; a full page means there may be more
+  const [hasMore, setHasMore] = useState({ upcoming: false, past: false })
+  const [loadingMore, setLoadingMore] = useState(false)
   const [activeTab, setActiveTab] = useState('upcoming')
   const [markingId, setMarkingId] = useState(null)
   const [selected, setSelected] = useState(null)
@@ -29,6 +33,10 @@ export default function DoctorAppointmentList() {
       setUpcoming(upRes)
       setPast(pastRes)
       setCancelled(cancelledRes)
+      setHasMore({
+        upcoming: upRes.length === APPOINTMENT_PAGE_SIZE,
+        past: pastRes.length === APPOINTMENT_PAGE_SIZE
+      })
     } catch (err) {
       console.error('Failed to load appointments', err)
     } finally {
@@ -40,6 +48,26 @@ export default function DoctorAppointmentList() {
     load()
   }, [])
 
+  // Appends the next page after the last loaded entry of the tab
+  const loadMore = async (tab) => {
+    const list = tab === 'upcoming' ? upcoming : past
+    const last = list[list.length - 1]
+    if (!last) return
+    setLoadingMore(true)
+    try {
+      const page = tab === 'upcoming'
+        ? await getUpcomingAppointments({ afterTime: last.appointmentTime, afterId: last.id })
+        : await getPastAppointments({ beforeTime: last.appointmentTime, beforeId: last.id })
+      const append = tab === 'upcoming' ? setUpcoming : setPast
+      append(prev => [...prev, ...page])
+      setHasMore(prev => ({ ...prev, [tab]: page.length === APPOINTMENT_PAGE_SIZE }))
+    } catch (err) {
+      console.error('Failed to load more appointments', err)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleComplete = async (id) => {
     setMarkingId(id)
     try {
@@ -142,6 +170,17 @@ export default function DoctorAppointmentList() {
         ) : (
           <p className="text-gray-500">No {tabs.find(t => t.id === activeTab).label.toLowerCase()}.</p>
         )}
+        {hasMore[activeTab] && (
+          <div className="mt-4 text-center">
+            <button
+              onClick={() => loadMore(activeTab)}
+              disabled={loadingMore}
+              className="px-4 py-2 bg-gray-100 rounded hover:bg-gray-200 text-sm disabled:opacity-50"
+            >
+              {loadingMore ? 'Loading…' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
 
       {selected && (
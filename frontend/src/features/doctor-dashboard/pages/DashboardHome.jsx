@@ -12,6 +12,7 @@ import {
   countPendingPrescriptions,
   countUnreadMessages,
 } from "../../../services/doctorService";
+import { openPushStream } from "../../../services/pushApi";
 
 export default function DoctorDashboardHome() {
   const { user } = useAuth();
@@ -41,6 +42,20 @@ export default function DoctorDashboardHome() {
     load();
   }, []);
 
+  // Keep the unread badge live instead of refetching it
+  useEffect(
+    () =>
+      openPushStream({
+        message: ({ message }) => {
+          if (message.receiverId === user?.id) setUnreadCount((n) => n + 1);
+        },
+        "messages-read": ({ readerId, count }) => {
+          if (readerId === user?.id) setUnreadCount((n) => Math.max(0, n - count));
+        },
+      }),
+    [user?.id]
+  );
+
   const stats = [
     {
       icon: ClockIcon,
@@ -9,6 +9,11 @@ import {
   PlusCircleIcon,
 } from '@heroicons/react/24/outline'
 import { Tabs } from './Tabs'  // <-- adjust import path if needed
+import {
+  getUpcomingAppointments,
+  getPastAppointments,
+  APPOINTMENT_PAGE_SIZE
+} from '../../../../services/patientService'
 
 export function AppointmentList() {
   // — Data states —
@@ -16,6 +21,11 @@ export function AppointmentList() {
   const [cancelled,  setCancelled]  = useState([])
   const [history,    setHistory]    = useState([])
   const [loading,    setLoading]    = useState(true)
+  // Upcoming and past come in cursor pages; a full page means there may be more
+  const [hasMore,     setHasMore]     = useState({ upcoming: false, past: false })
+  const [loadingMore, setLoadingMore] = useState(false)
+  // Last entry of each fetched page, before the CANCELLED filter drops it
+  const [cursors,     setCursors]     = useState({ upcoming: null, past: null })
 
   // — UI states —
   const [activeTab,     setActiveTab]     = useState('upcoming')
@@ -27,13 +37,18 @@ export function AppointmentList() {
     setLoading(true)
     try {
       const [upRes, pastRes, cancelledRes] = await Promise.all([
-        axios.get('/patient/appointments/upcoming'),
-        axios.get('/patient/appointments/history'),
+        getUpcomingAppointments(),
+        getPastAppointments(),
         axios.get('/patient/appointments/cancelled'),
       ])
-      setUpcoming(upRes.data.filter(a => a.status !== 'CANCELLED'))
-      setHistory(pastRes.data.filter(a => a.status !== 'CANCELLED'))
+      setUpcoming(upRes.filter(a => a.status !== 'CANCELLED'))
+      setHistory(pastRes.filter(a => a.status !== 'CANCELLED'))
       setCancelled(cancelledRes.data)
+      setHasMore({
+        upcoming: upRes.length === APPOINTMENT_PAGE_SIZE,
+        past:     pastRes.length === APPOINTMENT_PAGE_SIZE,
+      })
+      setCursors({ upcoming: upRes[upRes.length - 1], past: pastRes[pastRes.length - 1] })
     } catch (err) {
       toast.error('Failed to load appointments')
       console.error(err)
@@ -47,6 +62,27 @@ export function AppointmentList() {
     load()
   }, [])
 
+  // — Append the next page of upcoming or past appointments —
+  const loadMore = async (tab) => {
+    const last = cursors[tab]
+    if (!last) return
+    setLoadingMore(true)
+    try {
+      const page = tab === 'upcoming'
+        ? await getUpcomingAppointments({ afterTime: last.appointmentTime, afterId: last.id })
+        : await getPastAppointments({ beforeTime: last.appointmentTime, beforeId: last.id })
+      const append = tab === 'upcoming' ? setUpcoming : setHistory
+      append(prev => [...prev, ...page.filter(a => a.status !== 'CANCELLED')])
+      setHasMore(prev => ({ ...prev, [tab]: page.length === APPOINTMENT_PAGE_SIZE }))
+      setCursors(prev => ({ ...prev, [tab]: page[page.length - 1] || prev[tab] }))
+    } catch (err) {
+      toast.error('Failed to load more appointments')
+      console.error(err)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   // — Cancel handler —
   const handleCancel = async (id) => {
     if (!window.confirm('Are you sure you want to cancel this appointment?')) return
@@ -165,6 +201,17 @@ export function AppointmentList() {
         ) : (
           <p className="text-gray-500">No {tabs.find(t => t.id === activeTab).label.toLowerCase()}.</p>
         )}
+        {hasMore[activeTab] && (
+          <div className="mt-4 text-center">
+            <button
+              onClick={() => loadMore(activeTab)}
+              disabled={loadingMore}
+              className="px-4 py-2 bg-gray-100 rounded hover:bg-gray-200 text-sm disabled:opacity-50"
+            >
+              {loadingMore ? 'Loading…' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
 
       {/* Detail Modal */}
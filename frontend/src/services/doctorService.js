@@ -1,21 +1,30 @@
 // src/services/doctorService.js
 import axios from "axios"
 
+// Rows per appointment page; a shorter page means there is nothing more to load
+export const APPOINTMENT_PAGE_SIZE = 50;
+
 /**
- * Fetch upcoming appointments for the authenticated doctor.
+ * Fetch one page of upcoming appointments for the authenticated doctor, soonest first.
+ * For the next page pass the appointmentTime and id of the last entry as afterTime/afterId.
  * @returns {Promise<Array>} list of appointments
  */
-export async function getUpcomingAppointments() {
-  const { data } = await axios.get("/doctor/appointments/upcoming");
+export async function getUpcomingAppointments({ afterTime, afterId, limit = APPOINTMENT_PAGE_SIZE } = {}) {
+  const { data } = await axios.get("/doctor/appointments/upcoming", {
+    params: { afterTime, afterId, limit },
+  });
   return data;
 }
 
 /**
- * Fetch past appointment history for the authenticated doctor.
+ * Fetch one page of past appointments for the authenticated doctor, newest first.
+ * For the next page pass the appointmentTime and id of the last entry as beforeTime/beforeId.
  * @returns {Promise<Array>} list of past appointments
  */
-export async function getPastAppointments() {
-  const { data } = await axios.get("/doctor/appointments/history");
+export async function getPastAppointments({ beforeTime, beforeId, limit = APPOINTMENT_PAGE_SIZE } = {}) {
+  const { data } = await axios.get("/doctor/appointments/history", {
+    params: { beforeTime, beforeId, limit },
+  });
   return data;
 }
 
@@ -19,9 +19,13 @@ export async function getThreads() {
   return res.data;
 }
 
-// Fetch all messages with a specific user
-export function getMessagesWithUser(userId) {
-  return API.get(`/with/${userId}`).then(res => res.data);
+// Messages per conversation page; a shorter page means the start of the conversation was reached
+export const MESSAGE_PAGE_SIZE = 50;
+
+// Fetch one page of messages with a specific user (latest page by default).
+// Pass { beforeId } with the oldest loaded message id to scroll back, or { afterId } to catch up.
+export function getMessagesWithUser(userId, { beforeId, afterId, limit = MESSAGE_PAGE_SIZE } = {}) {
+  return API.get(`/with/${userId}`, { params: { beforeId, afterId, limit } }).then(res => res.data);
 }
 
 // Send a message to a user
@@ -1,21 +1,30 @@
 // src/services/patientService.js
 import axios from 'axios'
 
+// Rows per appointment page; a shorter page means there is nothing more to load
+export const APPOINTMENT_PAGE_SIZE = 50
+
 /**
- * Fetch the authenticated patient's upcoming appointments.
+ * Fetch one page of the authenticated patient's upcoming appointments, soonest first.
+ * For the next page pass the appointmentTime and id of the last entry as afterTime/afterId.
  * @returns {Promise<Array>} list of appointment objects
  */
-export async function getUpcomingAppointments() {
-  const { data } = await axios.get('/patient/appointments/upcoming')
+export async function getUpcomingAppointments({ afterTime, afterId, limit = APPOINTMENT_PAGE_SIZE } = {}) {
+  const { data } = await axios.get('/patient/appointments/upcoming', {
+    params: { afterTime, afterId, limit }
+  })
   return data
 }
 
 /**
- * Fetch the authenticated patient's past appointment history.
+ * Fetch one page of the authenticated patient's past appointments, newest first.
+ * For the next page pass the appointmentTime and id of the last entry as beforeTime/beforeId.
  * @returns {Promise<Array>} list of past appointment objects
  */
-export async function getPastAppointments() {
-  const { data } = await axios.get('/patient/appointments/history')
+export async function getPastAppointments({ beforeTime, beforeId, limit = APPOINTMENT_PAGE_SIZE } = {}) {
+  const { data } = await axios.get('/patient/appointments/history', {
+    params: { beforeTime, beforeId, limit }
+  })
   return data
 }
 
@@ -0,0 +1,43 @@
+import axios from "axios";
+
+// Delay before reopening a stream that failed or was closed by the server
+const RECONNECT_DELAY_MS = 3000;
+
+// Live updates from /api/stream (server-sent events).
+// handlers: { message, "messages-read", notification, "notifications-read" }, each gets the parsed event.
+// EventSource cannot set headers, so every connection first gets a single-use ticket from an
+// authenticated POST; since a ticket cannot be reused, reconnects are done here rather than by EventSource.
+// Returns a function that closes the stream.
+export function openPushStream(handlers) {
+  let source = null;
+  let retry = null;
+  let closed = false;
+
+  const reconnectLater = () => {
+    if (!closed) retry = setTimeout(connect, RECONNECT_DELAY_MS);
+  };
+
+  async function connect() {
+    try {
+      const { data } = await axios.post("/api/stream/ticket");
+      if (closed) return;
+      source = new EventSource(`/api/stream?ticket=${encodeURIComponent(data.ticket)}`);
+      Object.entries(handlers).forEach(([name, handler]) => {
+        source.addEventListener(name, (e) => handler(JSON.parse(e.data)));
+      });
+      source.onerror = () => {
+        source.close();
+        reconnectLater();
+      };
+    } catch {
+      reconnectLater();
+    }
+  }
+
+  connect();
+  return () => {
+    closed = true;
+    clearTimeout(retry);
+    source?.close();
+  };
+}